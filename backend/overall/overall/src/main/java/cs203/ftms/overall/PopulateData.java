@@ -251,8 +251,7 @@ public class PopulateData {
 
     public void setTournamentFencerPoints() {
         Fencer f = fencerRepository.findAll().get(0);
-        Set<TournamentFencer> tfs = f.getTournamentFencerProfiles();
-        List<TournamentFencer> tfList = new ArrayList<>(tfs);
+        List<TournamentFencer> tfList = new ArrayList<>(tournamentFencerRepository.findWithEventByFencerId(f.getId()));
         Collections.sort(tfList, (a, b) -> a.getEvent().getDate().compareTo(b.getEvent().getDate()));
         int previousPoints = f.getPoints();
         for (int i = 0; i < 4; i++) {
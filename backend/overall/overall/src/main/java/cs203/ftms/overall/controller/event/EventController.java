@@ -4,7 +4,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -20,6 +22,8 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import cs203.ftms.overall.dto.CreateEventDTO;
 import cs203.ftms.overall.dto.UpdateEventDTO;
@@ -32,7 +36,9 @@ import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.model.userrelated.User;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
+import cs203.ftms.overall.service.match.LiveScoreService;
 import jakarta.validation.Valid;
 
 /**
@@ -46,16 +52,22 @@ import jakarta.validation.Valid;
 public class EventController {
     
     private final EventService eventService; 
+    private final LiveScoreService liveScoreService;
+    private final ResponseCache responseCache;
 
     /**
      * Constructor for EventController.
      * 
      * @param eventService The service layer component for handling event-related operations,
      *                     automatically injected by Spring's dependency injection mechanism.
+     * @param liveScoreService The service layer component for pushing live score updates.
+     * @param responseCache The cache of the public event responses.
      */
     @Autowired
-    public EventController(EventService eventService) {
+    public EventController(EventService eventService, LiveScoreService liveScoreService, ResponseCache responseCache) {
         this.eventService = eventService;
+        this.liveScoreService = liveScoreService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -162,32 +174,60 @@ public class EventController {
 
     /**
      * Retrieves the details of an event.
+     * The response carries an ETag; a request whose If-None-Match holds the current ETag gets HttpStatus.NOT_MODIFIED.
      *
      * @param eid The ID of the event to retrieve details for.
+     * @param request The current request, used to check If-None-Match.
      * @return ResponseEntity with CleanEventDTO and HttpStatus.OK if retrieval is successful,
      *         or HttpStatus.BAD_REQUEST if the event does not exist.
      */
     @GetMapping("/event-details/{eid}")
-    public ResponseEntity<CleanEventDTO> getEvent(@PathVariable int eid) {
-        Event event = eventService.getEvent(eid);
-        CleanEventDTO res = eventService.getCleanEventDTO(event);
-        return new ResponseEntity<>(res, HttpStatus.OK);
+    public ResponseEntity<CleanEventDTO> getEvent(@PathVariable int eid, WebRequest request) {
+        String eTag = responseCache.getEventETag(eid);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        CleanEventDTO res = responseCache.get("event-details", eid, eTag,
+                () -> eventService.getCleanEventDTO(eventService.getEvent(eid)));
+        return ResponseEntity.ok().eTag(eTag).body(res);
     }
 
     /**
      * Retrieves the ranking of fencers in an event.
+     * The response carries an ETag; a request whose If-None-Match holds the current ETag gets HttpStatus.NOT_MODIFIED.
      *
      * @param eid The ID of the event.
+     * @param request The current request, used to check If-None-Match.
      * @return ResponseEntity with a list of CleanTournamentFencerDTO and HttpStatus.OK.
      */
     @GetMapping("/get-event-ranking/{eid}")
-    public ResponseEntity<List<CleanTournamentFencerDTO>> getEventRanking(@PathVariable int eid) {
-        List<TournamentFencer> rankings = eventService.getTournamentRanks(eid);
-        List<CleanTournamentFencerDTO> res = new ArrayList<>(); 
-        for (TournamentFencer tf : rankings) {
-            res.add(eventService.getCleanTournamentFencerDTO(tf));
+    public ResponseEntity<List<CleanTournamentFencerDTO>> getEventRanking(@PathVariable int eid, WebRequest request) {
+        String eTag = responseCache.getEventETag(eid);
+        if (request.checkNotModified(eTag)) {
+            return null;
         }
-        return new ResponseEntity<>(res, HttpStatus.OK);
+        List<CleanTournamentFencerDTO> res = responseCache.get("event-ranking", eid, eTag, () -> {
+            List<CleanTournamentFencerDTO> ranking = new ArrayList<>();
+            for (TournamentFencer tf : eventService.getTournamentRanks(eid)) {
+                ranking.add(eventService.getCleanTournamentFencerDTO(tf));
+            }
+            return ranking;
+        });
+        return ResponseEntity.ok().eTag(eTag).body(res);
+    }
+
+    /**
+     * Subscribes to the live scores of an event as a stream of server-sent events.
+     * Each "score" event holds a JSON list of LiveScoreDTOs for the poule or DE bouts that changed,
+     * to be applied to the poule table or bracket the client has already loaded.
+     *
+     * @param eid The ID of the event.
+     * @return SseEmitter streaming the event's live score updates.
+     */
+    @GetMapping(value = "/live-scores/{eid}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter getLiveScores(@PathVariable int eid) {
+        eventService.getEvent(eid);
+        return liveScoreService.subscribe(eid);
     }
 
     /**
@@ -207,16 +247,18 @@ public class EventController {
     }
 
     /**
-     * Retrieves all events for specific gender and weapon.
+     * Retrieves all upcoming events for the fencer's gender and weapon, soonest first.
+     * Paged with the optional page and size query parameters; every event is returned when they are omitted.
      *
+     * @param pageable The requested page of events.
      * @return ResponseEntity with a list of CleanEventDTO and HttpStatus.OK.
      */
     @GetMapping("/get-all-events-by-gender-and-weapon")
     @PreAuthorize("hasRole('FENCER')")
-    public ResponseEntity<List<CleanEventDTO>> getAllEventsByGenderAndWeapon(){
+    public ResponseEntity<List<CleanEventDTO>> getAllEventsByGenderAndWeapon(Pageable pageable){
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         User user = (User) authentication.getPrincipal();
-        List<Event> events = eventService.getFutureEventsByGenderAndWeapon(((Fencer) user).getGender(), ((Fencer) user).getWeapon());
+        List<Event> events = eventService.getFutureEventsByGenderAndWeapon(((Fencer) user).getGender(), ((Fencer) user).getWeapon(), pageable);
         List<CleanEventDTO> res = new ArrayList<>();
         for (Event event : events) {
             res.add(eventService.getCleanEventDTO(event));
@@ -17,11 +17,13 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import cs203.ftms.overall.dto.DirectEliminationBracketDTO;
 import cs203.ftms.overall.dto.UpdateDirectEliminationMatchDTO;
 import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.model.userrelated.User;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.match.DirectEliminationService;
 import jakarta.validation.Valid;
 
@@ -36,15 +38,18 @@ import jakarta.validation.Valid;
 public class DirectEliminationController {
     
     private final DirectEliminationService directEliminationService;
+    private final ResponseCache responseCache;
 
     /**
      * Constructor for DirectEliminationController.
      * 
      * @param directEliminationService The service layer component for handling Direct Elimination matches.
+     * @param responseCache The cache of the public Direct Elimination responses.
      */
     @Autowired
-    public DirectEliminationController(DirectEliminationService directEliminationService) {
+    public DirectEliminationController(DirectEliminationService directEliminationService, ResponseCache responseCache) {
         this.directEliminationService = directEliminationService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -92,13 +97,20 @@ public class DirectEliminationController {
 
     /**
      * Retrieves the Direct Elimination matches for a specific event.
+     * The response carries an ETag; a request whose If-None-Match holds the current ETag gets HttpStatus.NOT_MODIFIED.
      *
      * @param eid The ID of the event.
+     * @param request The current request, used to check If-None-Match.
      * @return ResponseEntity containing a list of DirectEliminationBracketDTOs with HttpStatus.OK.
      */
     @GetMapping("/get-direct-elimination-matches/{eid}")
-    public ResponseEntity<List<DirectEliminationBracketDTO>> getDirectEliminationMatches(@PathVariable int eid) {
-        List<DirectEliminationBracketDTO> res = directEliminationService.generateDirectEliminationBracketDTOs(eid);
-        return new ResponseEntity<>(res, HttpStatus.OK);
+    public ResponseEntity<List<DirectEliminationBracketDTO>> getDirectEliminationMatches(@PathVariable int eid, WebRequest request) {
+        String eTag = responseCache.getEventETag(eid);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<DirectEliminationBracketDTO> res = responseCache.get("direct-elimination-matches", eid, eTag,
+                () -> directEliminationService.generateDirectEliminationBracketDTOs(eid));
+        return ResponseEntity.ok().eTag(eTag).body(res);
     }
 }
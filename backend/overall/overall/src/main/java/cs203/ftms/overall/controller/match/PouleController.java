@@ -1,9 +1,13 @@
 package cs203.ftms.overall.controller.match;
 
+import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -18,15 +22,21 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import cs203.ftms.overall.dto.CreatePoulesDTO;
 import cs203.ftms.overall.dto.PouleResultsDTO;
+import cs203.ftms.overall.dto.PouleScoresDTO;
 import cs203.ftms.overall.dto.PouleTableDTO;
 import cs203.ftms.overall.dto.SinglePouleTableDTO;
+import cs203.ftms.overall.dto.UpdatePouleMatchDTO;
 import cs203.ftms.overall.dto.clean.CleanPouleDTO;
 import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.model.userrelated.User;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.match.PouleService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 
 /**
  * Controller class for managing Poule (round-robin) matches.
@@ -39,15 +49,18 @@ import cs203.ftms.overall.service.match.PouleService;
 public class PouleController {
     
     private final PouleService pouleService;
+    private final ResponseCache responseCache;
 
     /**
      * Constructor for PouleController.
      * 
      * @param pouleService The service layer component for handling poule-related operations.
+     * @param responseCache The cache of the public poule responses.
      */
     @Autowired
-    public PouleController(PouleService pouleService) {
+    public PouleController(PouleService pouleService, ResponseCache responseCache) {
         this.pouleService = pouleService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -84,14 +97,54 @@ public class PouleController {
 
     /**
      * Retrieves the poule table for a specific event.
+     * The response carries an ETag of its own among the representations of the URL, and varies by Accept;
+     * a request whose If-None-Match holds the current ETag gets HttpStatus.NOT_MODIFIED.
      *
      * @param eid The ID of the event.
+     * @param request The current request, used to check If-None-Match.
+     * @param response The current response, which is marked as varying by Accept.
      * @return ResponseEntity containing a PouleTableDTO with HttpStatus.OK.
      */
     @GetMapping("/get-poule-table/{eid}")
-    public ResponseEntity<PouleTableDTO> getPouleTable(@PathVariable int eid) {
-        PouleTableDTO res = pouleService.getPouleTable(eid, false);
-        return new ResponseEntity<>(res, HttpStatus.OK);
+    public ResponseEntity<PouleTableDTO> getPouleTable(@PathVariable int eid, WebRequest request,
+                                                       HttpServletResponse response) {
+        return getPouleTableRepresentation(eid, "poule-table", "table", request, response,
+                () -> pouleService.getPouleTable(eid, false));
+    }
+
+    /**
+     * Retrieves the poule table for a specific event in columnar form, one PouleScoresDTO per poule.
+     * Selected by an Accept header of application/vnd.ftms.poule-scores+json, or application/cbor for the binary
+     * encoding served by getPouleScoresCbor; other requests get the map-based table from getPouleTable.
+     * The response carries an ETag of its own among the representations of the URL, and varies by Accept;
+     * a request whose If-None-Match holds the current ETag gets HttpStatus.NOT_MODIFIED.
+     *
+     * @param eid The ID of the event.
+     * @param request The current request, used to check If-None-Match.
+     * @param response The current response, which is marked as varying by Accept.
+     * @return ResponseEntity containing a list of PouleScoresDTOs with HttpStatus.OK.
+     */
+    @GetMapping(value = "/get-poule-table/{eid}", produces = PouleScoresDTO.MEDIA_TYPE)
+    public ResponseEntity<List<PouleScoresDTO>> getPouleScores(@PathVariable int eid, WebRequest request,
+                                                               HttpServletResponse response) {
+        return getPouleTableRepresentation(eid, "poule-scores", "scores", request, response,
+                () -> pouleService.getPouleScores(eid));
+    }
+
+    /**
+     * Retrieves the poule table for a specific event in columnar form, encoded as CBOR.
+     * Selected by an Accept header of application/cbor; see getPouleScores.
+     *
+     * @param eid The ID of the event.
+     * @param request The current request, used to check If-None-Match.
+     * @param response The current response, which is marked as varying by Accept.
+     * @return ResponseEntity containing a list of PouleScoresDTOs with HttpStatus.OK.
+     */
+    @GetMapping(value = "/get-poule-table/{eid}", produces = MediaType.APPLICATION_CBOR_VALUE)
+    public ResponseEntity<List<PouleScoresDTO>> getPouleScoresCbor(@PathVariable int eid, WebRequest request,
+                                                                   HttpServletResponse response) {
+        return getPouleTableRepresentation(eid, "poule-scores", "scores-cbor", request, response,
+                () -> pouleService.getPouleScores(eid));
     }
 
     /**
@@ -116,15 +169,76 @@ public class PouleController {
         return new ResponseEntity<>("poule update unsuccessful", HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Updates the scores of a poule from a columnar score table.
+     * Selected by a Content-Type of application/vnd.ftms.poule-scores+json or application/cbor;
+     * other requests are handled by updatePouleScore.
+     *
+     * @param eid The ID of the event.
+     * @param pouleScoresDTO The poule number, fencer IDs and flat score table, provided as PouleScoresDTO.
+     * @return ResponseEntity with a success message and HttpStatus.OK if the update is successful,
+     *         or HttpStatus.BAD_REQUEST if the update fails.
+     * @throws MethodArgumentNotValidException if a score is out of range.
+     */
+    @PutMapping(value = "/update-poule-table/{eid}", consumes = {PouleScoresDTO.MEDIA_TYPE, MediaType.APPLICATION_CBOR_VALUE})
+    @PreAuthorize("hasRole('ORGANISER')")
+    public ResponseEntity<String> updatePouleScores(@PathVariable int eid, @RequestBody PouleScoresDTO pouleScoresDTO) throws MethodArgumentNotValidException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+        Organiser organiser = (Organiser) user;
+        boolean update = pouleService.updatePouleScores(eid, pouleScoresDTO, organiser);
+        if (update) {
+            return new ResponseEntity<>("poule update successful", HttpStatus.OK);
+        }
+        return new ResponseEntity<>("poule update unsuccessful", HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Updates the score of a single poule match.
+     *
+     * @param eid The ID of the event.
+     * @param updatePouleMatchDTO The match ID and new scores, provided as UpdatePouleMatchDTO.
+     * @return ResponseEntity with a success message and HttpStatus.OK.
+     */
+    @PutMapping("/update-poule-match/{eid}")
+    @PreAuthorize("hasRole('ORGANISER')")
+    public ResponseEntity<String> updatePouleMatch(@PathVariable int eid, @Valid @RequestBody UpdatePouleMatchDTO updatePouleMatchDTO) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        User user = (User) authentication.getPrincipal();
+        Organiser organiser = (Organiser) user;
+        pouleService.updatePouleMatch(eid, updatePouleMatchDTO, organiser);
+        return new ResponseEntity<>("poule match update successful", HttpStatus.OK);
+    }
+
     /**
      * Retrieves the results of all poules for a specific event.
+     * The response carries an ETag; a request whose If-None-Match holds the current ETag gets HttpStatus.NOT_MODIFIED.
      *
      * @param eid The ID of the event.
+     * @param request The current request, used to check If-None-Match.
      * @return ResponseEntity containing a PouleResultsDTO with HttpStatus.OK.
      */
     @GetMapping("/get-poules-result/{eid}")
-    public ResponseEntity<PouleResultsDTO> getPouleResults(@PathVariable int eid) {
-        PouleResultsDTO res = pouleService.poulesResult(eid);
-        return new ResponseEntity<>(res, HttpStatus.OK);
+    public ResponseEntity<PouleResultsDTO> getPouleResults(@PathVariable int eid, WebRequest request) {
+        String eTag = responseCache.getEventETag(eid);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        PouleResultsDTO res = responseCache.get("poules-result", eid, eTag, () -> pouleService.poulesResult(eid));
+        return ResponseEntity.ok().eTag(eTag).body(res);
+    }
+
+    // Helper method to serve one representation of the poule table from the response cache, with an ETag of its own,
+    // and to mark the response as varying by Accept so that caches keep the representations of the URL apart
+    private <T> ResponseEntity<T> getPouleTableRepresentation(int eid, String view, String representation,
+            WebRequest request, HttpServletResponse response, Supplier<T> loader) {
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        String eTag = responseCache.getEventETag(eid);
+        String representationETag = ResponseCache.getRepresentationETag(eTag, representation);
+        if (request.checkNotModified(representationETag)) {
+            return null;
+        }
+        T res = responseCache.get(view, eid, eTag, loader);
+        return ResponseEntity.ok().eTag(representationETag).body(res);
     }
 }
@@ -1,9 +1,9 @@
 package cs203.ftms.overall.controller.tournament;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,12 +19,14 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import cs203.ftms.overall.dto.CreateTournamentDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentDTO;
 import cs203.ftms.overall.model.tournamentrelated.Tournament;
 import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.model.userrelated.User;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.tournament.TournamentService;
 import jakarta.validation.Valid;
 
@@ -38,15 +40,18 @@ import jakarta.validation.Valid;
 public class TournamentController {
     
     private final TournamentService tournamentService;
+    private final ResponseCache responseCache;
 
     /**
      * Constructor for TournamentController.
      * 
      * @param tournamentService The service layer component for handling tournament-related operations.
+     * @param responseCache The cache of the public tournament responses.
      */
     @Autowired
-    public TournamentController(TournamentService tournamentService) {
+    public TournamentController(TournamentService tournamentService, ResponseCache responseCache) {
         this.tournamentService = tournamentService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -92,30 +97,34 @@ public class TournamentController {
     /**
      * Retrieves details of a specific tournament.
      *
+     * The response carries an ETag; a request whose If-None-Match holds the current ETag gets HttpStatus.NOT_MODIFIED.
+     *
      * @param tid The ID of the tournament to retrieve.
+     * @param request The current request, used to check If-None-Match.
      * @return ResponseEntity with CleanTournamentDTO and HttpStatus.OK if retrieval is successful,
      *         or HttpStatus.BAD_REQUEST if retrieval fails.
      */
     @GetMapping("/tournament-details/{tid}")
-    public ResponseEntity<CleanTournamentDTO> getTournament(@PathVariable int tid) {
-        Tournament t = tournamentService.getTournament(tid);
-        CleanTournamentDTO res = tournamentService.getCleanTournamentDTO(t);
-        return new ResponseEntity<>(res, HttpStatus.OK);
+    public ResponseEntity<CleanTournamentDTO> getTournament(@PathVariable int tid, WebRequest request) {
+        String eTag = responseCache.getTournamentETag(tid);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        CleanTournamentDTO res = responseCache.get("tournament-details", tid, eTag,
+                () -> tournamentService.getCleanTournamentDTO(tournamentService.getTournament(tid)));
+        return ResponseEntity.ok().eTag(eTag).body(res);
     }
 
     /**
      * Retrieves all tournaments.
+     * Paged with the optional page and size query parameters; every tournament is returned when they are omitted.
      *
+     * @param pageable The requested page of tournaments.
      * @return ResponseEntity containing a list of CleanTournamentDTO with HttpStatus.OK.
      */
     @GetMapping("/tournaments")
-    public ResponseEntity<List<CleanTournamentDTO>> getAllTournaments() {
-        List<Tournament> tList = tournamentService.getAllTournaments();
-
-        List<CleanTournamentDTO> res = new ArrayList<>();
-        for (Tournament t : tList) {
-            res.add(tournamentService.getCleanTournamentDTO(t));
-        }
+    public ResponseEntity<List<CleanTournamentDTO>> getAllTournaments(Pageable pageable) {
+        List<CleanTournamentDTO> res = tournamentService.getAllCleanTournamentDTOs(pageable);
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
 
@@ -136,31 +145,27 @@ public class TournamentController {
 
     /**
      * Retrieves upcoming tournaments.
+     * Paged with the optional page and size query parameters; every tournament is returned when they are omitted.
      *
+     * @param pageable The requested page of tournaments.
      * @return ResponseEntity containing a list of CleanTournamentDTO with HttpStatus.OK.
      */
     @GetMapping("/upcoming-tournaments")
-    public ResponseEntity<List<CleanTournamentDTO>> getUpcomingTournaments() {
-        List<Tournament> tList = tournamentService.getUpcomingTournaments();
-        List<CleanTournamentDTO> res = new ArrayList<>();
-        for (Tournament t : tList) {
-            res.add(tournamentService.getCleanTournamentDTO(t));
-        }
+    public ResponseEntity<List<CleanTournamentDTO>> getUpcomingTournaments(Pageable pageable) {
+        List<CleanTournamentDTO> res = tournamentService.getUpcomingCleanTournamentDTOs(pageable);
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
 
     /**
      * Retrieves past tournaments.
+     * Paged with the optional page and size query parameters; every tournament is returned when they are omitted.
      *
+     * @param pageable The requested page of tournaments.
      * @return ResponseEntity containing a list of CleanTournamentDTO with HttpStatus.OK.
      */
     @GetMapping("/past-tournaments")
-    public ResponseEntity<List<CleanTournamentDTO>> getPastTournaments() {
-        List<Tournament> tList = tournamentService.getPastTournaments();
-        List<CleanTournamentDTO> res = new ArrayList<>();
-        for (Tournament t : tList) {
-            res.add(tournamentService.getCleanTournamentDTO(t));
-        }
+    public ResponseEntity<List<CleanTournamentDTO>> getPastTournaments(Pageable pageable) {
+        List<CleanTournamentDTO> res = tournamentService.getPastCleanTournamentDTOs(pageable);
         return new ResponseEntity<>(res, HttpStatus.OK);
     }
 }
@@ -0,0 +1,211 @@
+package cs203.ftms.overall.datastructure;
+
+/**
+ * Array-backed complete binary tree describing a direct elimination bracket.
+ * Slots are numbered from 1 in level order: slot 1 is the final, slots 2 and 3 the semi-finals, and so on.
+ * Each slot holds the ID of the match played there. Parent, child, sibling and round of a slot
+ * are all derived from the slot number with integer bit operations.
+ */
+public class BracketTree {
+    private final int[] matchIds;
+    private final int size;
+    private final int depth;
+
+    /**
+     * Constructs an empty bracket with the given number of matches.
+     *
+     * @param size Number of matches in the bracket; must be 0 or one less than a power of 2.
+     * @throws IllegalArgumentException if the size does not describe a complete bracket.
+     */
+    public BracketTree(int size) {
+        if (size < 0 || (size & (size + 1)) != 0) {
+            throw new IllegalArgumentException("Bracket size must be one less than a power of 2!");
+        }
+        this.size = size;
+        this.depth = 32 - Integer.numberOfLeadingZeros(size);
+        this.matchIds = new int[size + 1];
+    }
+
+    /**
+     * Returns the number of matches in the bracket.
+     *
+     * @return The number of slots in the bracket.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of rounds in the bracket.
+     *
+     * @return The number of levels in the tree.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the level of the first round of the bracket, where the fencers are seeded.
+     *
+     * @return The deepest level of the tree, or -1 if the bracket is empty.
+     */
+    public int lastLevel() {
+        return depth - 1;
+    }
+
+    /**
+     * Gets the ID of the match held in a slot.
+     *
+     * @param slot The slot number.
+     * @return The match ID, or 0 if no match has been placed in the slot.
+     */
+    public int getMatchId(int slot) {
+        return matchIds[slot];
+    }
+
+    /**
+     * Places a match ID in a slot.
+     *
+     * @param slot The slot number.
+     * @param matchId The ID of the match played in that slot.
+     */
+    public void setMatchId(int slot, int matchId) {
+        matchIds[slot] = matchId;
+    }
+
+    /**
+     * Gets the ID of the match the winner of a slot advances to.
+     *
+     * @param slot The slot number.
+     * @return The ID of the next match, or 0 for the final.
+     */
+    public int getNextMatchId(int slot) {
+        return isFinal(slot) ? 0 : matchIds[parent(slot)];
+    }
+
+    /**
+     * Checks whether a slot holds the final.
+     *
+     * @param slot The slot number.
+     * @return true if the slot is the root of the bracket.
+     */
+    public boolean isFinal(int slot) {
+        return slot == 1;
+    }
+
+    /**
+     * Gets the slot the winner of a slot advances to.
+     *
+     * @param slot The slot number.
+     * @return The parent slot, or 0 for the final.
+     */
+    public int parent(int slot) {
+        return slot >>> 1;
+    }
+
+    /**
+     * Gets the upper feeder slot of a slot.
+     *
+     * @param slot The slot number.
+     * @return The left child slot.
+     */
+    public int leftChild(int slot) {
+        return slot << 1;
+    }
+
+    /**
+     * Gets the lower feeder slot of a slot.
+     *
+     * @param slot The slot number.
+     * @return The right child slot.
+     */
+    public int rightChild(int slot) {
+        return (slot << 1) | 1;
+    }
+
+    /**
+     * Gets the slot whose winner meets the winner of this slot in the next round.
+     *
+     * @param slot The slot number.
+     * @return The sibling slot.
+     */
+    public int sibling(int slot) {
+        return slot ^ 1;
+    }
+
+    /**
+     * Checks whether a slot feeds the first fencer position of its next match.
+     *
+     * @param slot The slot number.
+     * @return true if the slot is a left child.
+     */
+    public boolean isLeftChild(int slot) {
+        return (slot & 1) == 0;
+    }
+
+    /**
+     * Calculates the level of a slot, counting the final as level 0.
+     *
+     * @param slot The slot number.
+     * @return The level of the slot.
+     */
+    public int level(int slot) {
+        return 31 - Integer.numberOfLeadingZeros(slot);
+    }
+
+    /**
+     * Calculates the round a slot belongs to, e.g. 2 for the final and 8 for the quarter-finals.
+     *
+     * @param slot The slot number.
+     * @return The number of fencers remaining in that round.
+     */
+    public int roundOf(int slot) {
+        return 2 << level(slot);
+    }
+
+    /**
+     * Gets the first slot of a level.
+     *
+     * @param level The level of the tree.
+     * @return The first slot of the level.
+     */
+    public int levelStart(int level) {
+        return 1 << level;
+    }
+
+    /**
+     * Gets the last slot of a level.
+     *
+     * @param level The level of the tree.
+     * @return The last slot of the level.
+     */
+    public int levelEnd(int level) {
+        return (2 << level) - 1;
+    }
+
+    /**
+     * Retrieves the match IDs of every slot on a level, in bracket order.
+     *
+     * @param level The level of the tree.
+     * @return Array of match IDs on the level.
+     */
+    public int[] getLevel(int level) {
+        int[] result = new int[1 << level];
+        System.arraycopy(matchIds, levelStart(level), result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Retrieves the match IDs a fencer plays through from a slot to the final, inclusive of both.
+     *
+     * @param slot The slot number.
+     * @return Array of match IDs from the slot up to the final.
+     */
+    public int[] pathToFinal(int slot) {
+        int[] result = new int[level(slot) + 1];
+        for (int i = 0; slot > 0; i++, slot = parent(slot)) {
+            result[i] = matchIds[slot];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package cs203.ftms.overall.datastructure;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
+
+/**
+ * Immutable snapshot of the points of the fencers registered for an event, used for predictions.
+ * The registrants' points and fencer IDs are each held in a sorted array, so a fencer's expected rank
+ * and whether the fencer is registered are binary searches, and the points available for distribution
+ * are computed once when the snapshot is taken.
+ */
+public class EventPointsSnapshot {
+    private final int[] points;
+    private final int[] fencerIds;
+    private final int pointsForDistribution;
+
+    /**
+     * Takes a snapshot of the registrants of an event.
+     *
+     * @param tfencers The tournament fencers registered for the event, with their fencers loaded.
+     */
+    public EventPointsSnapshot(Collection<TournamentFencer> tfencers) {
+        this.points = new int[tfencers.size()];
+        this.fencerIds = new int[tfencers.size()];
+        long total = 0;
+        int i = 0;
+        for (TournamentFencer tf : tfencers) {
+            points[i] = tf.getFencer().getPoints();
+            fencerIds[i] = tf.getFencer().getId();
+            total += points[i];
+            i++;
+        }
+        Arrays.sort(points);
+        Arrays.sort(fencerIds);
+        this.pointsForDistribution = (int) (total / 5);
+    }
+
+    /**
+     * Returns the number of registrants.
+     *
+     * @return The number of fencers registered for the event.
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Checks whether a fencer is registered for the event.
+     *
+     * @param fencerId The ID of the fencer.
+     * @return true if the fencer is registered, false otherwise.
+     */
+    public boolean contains(int fencerId) {
+        return Arrays.binarySearch(fencerIds, fencerId) >= 0;
+    }
+
+    /**
+     * Gets the rank a fencer is expected to finish at, which is one more than the number of registrants
+     * with more points. A fencer tied on points is expected to finish ahead.
+     *
+     * @param fencerPoints The points of the fencer.
+     * @return The expected 1-based rank.
+     */
+    public int expectedRank(int fencerPoints) {
+        int lo = 0;
+        int hi = points.length;
+        // find the first registrant with more points than the fencer
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (points[mid] <= fencerPoints) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return points.length - lo + 1;
+    }
+
+    /**
+     * Gets the points available for distribution, a fifth of the registrants' total points.
+     *
+     * @return The points for distribution.
+     */
+    public int getPointsForDistribution() {
+        return pointsForDistribution;
+    }
+}
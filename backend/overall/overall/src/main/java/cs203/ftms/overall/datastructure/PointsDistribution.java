@@ -0,0 +1,77 @@
+package cs203.ftms.overall.datastructure;
+
+/**
+ * Distribution of an event's international points over the fencers that earn points.
+ * The fencer at rank r receives totalPoints * (n - r + 1)^2 / (1^2 + 2^2 + ... + n^2),
+ * where n is the number of fencers earning points. The sum of squares is evaluated in closed form,
+ * and the points of every rank are computed once when the distribution is built.
+ */
+public class PointsDistribution {
+    private final int[] points;
+
+    /**
+     * Constructs the distribution for ranks 0 to awardedFencers - 1.
+     *
+     * @param totalPoints The total points available for distribution.
+     * @param awardedFencers The number of fencers earning points.
+     */
+    public PointsDistribution(int totalPoints, int awardedFencers) {
+        int n = Math.max(awardedFencers, 0);
+        this.points = new int[n];
+        double denominator = sumOfSquares(n);
+        for (int rank = 0; rank < n; rank++) {
+            points[rank] = (int) (totalPoints * square(n - rank + 1) / denominator);
+        }
+    }
+
+    /**
+     * Returns the number of ranks in the distribution.
+     *
+     * @return The number of fencers earning points.
+     */
+    public int size() {
+        return points.length;
+    }
+
+    /**
+     * Gets the points awarded at a rank of the distribution.
+     *
+     * @param rank The rank, from 0 to size() - 1.
+     * @return The points awarded at that rank.
+     */
+    public int pointsFor(int rank) {
+        return points[rank];
+    }
+
+    /**
+     * Calculates the points for a single rank without building a distribution.
+     *
+     * @param rank The rank of the fencer.
+     * @param totalPoints The total points available for distribution.
+     * @param awardedFencers The number of fencers earning points.
+     * @return The points earned at that rank.
+     */
+    public static int calculatePoints(int rank, int totalPoints, int awardedFencers) {
+        double numerator = totalPoints * square(awardedFencers - rank + 1);
+        return (int) (numerator / sumOfSquares(awardedFencers));
+    }
+
+    /**
+     * Calculates 1^2 + 2^2 + ... + n^2 in closed form.
+     *
+     * @param n The number of terms.
+     * @return The sum of squares, or 0 if n is not positive.
+     */
+    public static double sumOfSquares(int n) {
+        if (n <= 0) {
+            return 0;
+        }
+        long m = n;
+        return (double) (m * (m + 1) * (2 * m + 1) / 6);
+    }
+
+    // Helper method to square a value as a double
+    private static double square(int value) {
+        return (double) value * value;
+    }
+}
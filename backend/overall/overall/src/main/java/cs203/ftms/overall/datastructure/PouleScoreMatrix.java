@@ -0,0 +1,169 @@
+package cs203.ftms.overall.datastructure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import cs203.ftms.overall.model.tournamentrelated.PouleMatch;
+import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
+
+/**
+ * Score matrix for a single poule.
+ * Fencers are addressed by their index in the poule (the order the matrix was built with),
+ * and cell (i, j) holds the touches scored by fencer i against fencer j.
+ * The matrix is built in one pass over the poule's matches, so reading or writing a cell
+ * never requires a lookup of the match or of the fencers involved.
+ */
+public class PouleScoreMatrix {
+    private final TournamentFencer[] fencers;
+    private final Map<Integer, Integer> indexById;
+    private final int[][] scores;
+    private final PouleMatch[][] bouts;
+
+    /**
+     * Constructs a score matrix for the given fencers and fills it with the given matches.
+     * Matches involving a fencer outside the poule are ignored.
+     *
+     * @param fencers The fencers of the poule, in display order.
+     * @param pouleMatches The matches of the poule.
+     */
+    public PouleScoreMatrix(List<TournamentFencer> fencers, Collection<PouleMatch> pouleMatches) {
+        int n = fencers.size();
+        this.fencers = fencers.toArray(new TournamentFencer[n]);
+        this.indexById = new HashMap<>(n * 2);
+        this.scores = new int[n][n];
+        this.bouts = new PouleMatch[n][n];
+
+        for (int i = 0; i < n; i++) {
+            indexById.put(this.fencers[i].getId(), i);
+            scores[i][i] = -1;
+        }
+        for (PouleMatch pouleMatch : pouleMatches) {
+            addBout(pouleMatch);
+        }
+    }
+
+    /**
+     * Places a match in the matrix, overwriting any match already held for the same pair of fencers.
+     *
+     * @param pouleMatch The match to place.
+     * @return true if both fencers of the match belong to the poule, false otherwise.
+     */
+    public boolean addBout(PouleMatch pouleMatch) {
+        int i = indexOf(pouleMatch.getFencer1());
+        int j = indexOf(pouleMatch.getFencer2());
+        if (i == -1 || j == -1 || i == j) {
+            return false;
+        }
+        bouts[i][j] = pouleMatch;
+        bouts[j][i] = pouleMatch;
+        scores[i][j] = pouleMatch.getScore1();
+        scores[j][i] = pouleMatch.getScore2();
+        return true;
+    }
+
+    /**
+     * Returns the number of fencers in the poule.
+     *
+     * @return The number of fencers.
+     */
+    public int size() {
+        return fencers.length;
+    }
+
+    /**
+     * Gets the index of a tournament fencer in the matrix.
+     *
+     * @param tournamentFencerId The ID of the tournament fencer.
+     * @return The index of the fencer, or -1 if the fencer is not in the poule.
+     */
+    public int indexOf(int tournamentFencerId) {
+        Integer index = indexById.get(tournamentFencerId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the fencer at a given index.
+     *
+     * @param index Index of the fencer.
+     * @return The tournament fencer at that index.
+     */
+    public TournamentFencer getFencer(int index) {
+        return fencers[index];
+    }
+
+    /**
+     * Gets a fencer of the poule by ID.
+     *
+     * @param tournamentFencerId The ID of the tournament fencer.
+     * @return The tournament fencer, or null if the fencer is not in the poule.
+     */
+    public TournamentFencer getFencerById(int tournamentFencerId) {
+        int index = indexOf(tournamentFencerId);
+        return index == -1 ? null : fencers[index];
+    }
+
+    /**
+     * Gets the touches scored by fencer i against fencer j.
+     * The diagonal always holds -1.
+     *
+     * @param i Index of the scoring fencer.
+     * @param j Index of the opponent.
+     * @return The score held in the cell.
+     */
+    public int getScore(int i, int j) {
+        return scores[i][j];
+    }
+
+    /**
+     * Sets the touches scored by fencer i against fencer j, writing the score through to the match.
+     *
+     * @param i Index of the scoring fencer.
+     * @param j Index of the opponent.
+     * @param score The score to set.
+     * @return The updated match, or null if there is no match between the two fencers.
+     */
+    public PouleMatch setScore(int i, int j, int score) {
+        PouleMatch pouleMatch = bouts[i][j];
+        if (pouleMatch == null) {
+            return null;
+        }
+        if (pouleMatch.getFencer1() == fencers[i].getId()) {
+            pouleMatch.setScore1(score);
+        } else {
+            pouleMatch.setScore2(score);
+        }
+        scores[i][j] = score;
+        return pouleMatch;
+    }
+
+    /**
+     * Gets the match between fencer i and fencer j.
+     *
+     * @param i Index of the first fencer.
+     * @param j Index of the second fencer.
+     * @return The match, or null if there is no match between the two fencers.
+     */
+    public PouleMatch getBout(int i, int j) {
+        return bouts[i][j];
+    }
+
+    /**
+     * Retrieves every match held in the matrix, in row order of the upper triangle.
+     *
+     * @return List of matches in the matrix.
+     */
+    public List<PouleMatch> getBouts() {
+        List<PouleMatch> result = new ArrayList<>();
+        for (int i = 0; i < fencers.length; i++) {
+            for (int j = i + 1; j < fencers.length; j++) {
+                if (bouts[i][j] != null) {
+                    result.add(bouts[i][j]);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,133 @@
+package cs203.ftms.overall.datastructure;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sorted ranking of the fencers of a single weapon and gender.
+ * Each entry packs a fencer's points and ID into one long so that ascending order of the keys
+ * is descending order of points, with ties broken by ascending fencer ID.
+ * The points each fencer is ranked with are kept by ID, so rank lookups need only the fencer's ID
+ * and are a binary search over the keys, and a change of points moves a single entry
+ * instead of re-sorting the whole ranking.
+ * The index is not thread-safe; callers sharing an instance must synchronise on it.
+ */
+public class RankingIndex {
+    private long[] keys;
+    private int size;
+    private final Map<Integer, Integer> pointsById;
+
+    /**
+     * Constructs a ranking of the given fencers.
+     *
+     * @param ids The IDs of the fencers.
+     * @param points The points of the fencers, where points[i] belongs to ids[i].
+     * @throws IllegalArgumentException if the arrays differ in length.
+     */
+    public RankingIndex(int[] ids, int[] points) {
+        if (ids.length != points.length) {
+            throw new IllegalArgumentException("Every fencer must have exactly one points total!");
+        }
+        this.size = ids.length;
+        this.keys = new long[Math.max(size, 16)];
+        this.pointsById = new HashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            keys[i] = key(ids[i], points[i]);
+            pointsById.put(ids[i], points[i]);
+        }
+        Arrays.sort(keys, 0, size);
+    }
+
+    /**
+     * Returns the number of fencers in the ranking.
+     *
+     * @return The number of fencers.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the rank of a fencer.
+     *
+     * @param id The ID of the fencer.
+     * @return The 1-based rank of the fencer, or -1 if the fencer is not ranked.
+     */
+    public int rankOf(int id) {
+        Integer points = pointsById.get(id);
+        if (points == null) {
+            return -1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key(id, points)) + 1;
+    }
+
+    /**
+     * Gets the IDs of the highest ranked fencers.
+     *
+     * @param k The number of fencers to return.
+     * @return The IDs of at most k fencers, ordered from first place down.
+     */
+    public int[] topK(int k) {
+        int n = Math.max(0, Math.min(k, size));
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = (int) keys[i];
+        }
+        return ids;
+    }
+
+    /**
+     * Ranks a fencer with the given points, adding it to the ranking
+     * or moving it to the position matching its new points.
+     *
+     * @param id The ID of the fencer.
+     * @param points The points of the fencer.
+     * @return true if the ranking changed, false if the fencer was already ranked with these points.
+     */
+    public boolean put(int id, int points) {
+        Integer oldPoints = pointsById.put(id, points);
+        if (oldPoints != null) {
+            if (oldPoints == points) {
+                return false;
+            }
+            removeKey(key(id, oldPoints));
+        }
+        long key = key(id, points);
+        int insertAt = -Arrays.binarySearch(keys, 0, size, key) - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length * 2);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a fencer from the ranking.
+     *
+     * @param id The ID of the fencer.
+     * @return true if the fencer was removed, false if it was not ranked.
+     */
+    public boolean remove(int id) {
+        Integer points = pointsById.remove(id);
+        if (points == null) {
+            return false;
+        }
+        removeKey(key(id, points));
+        return true;
+    }
+
+    // Helper method to remove a key that is in the ranking
+    private void removeKey(long key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        size--;
+    }
+
+    // Helper method to pack points (descending) and ID (ascending) into one sortable key
+    private static long key(int id, int points) {
+        return ((long) -points << 32) | (id & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,186 @@
+package cs203.ftms.overall.dto;
+
+/**
+ * Data Transfer Object (DTO) pushed to spectators of an event when a bout changes.
+ * Each message carries one bout: its scores and winner after the change, or for a direct elimination
+ * bout that has just been filled in, the fencers now in it. Clients apply it to the poule table or bracket
+ * they have already loaded instead of reloading the whole table.
+ */
+public class LiveScoreDTO {
+
+    private int eventId;
+    private int pouleNumber;
+    private int matchId;
+    private int fencer1;
+    private int fencer2;
+    private int score1;
+    private int score2;
+    private int winner;
+
+    /**
+     * Constructs a new LiveScoreDTO with the specified details.
+     *
+     * @param eventId the ID of the event
+     * @param pouleNumber the number of the poule of the bout, or 0 for a direct elimination bout
+     * @param matchId the ID of the bout
+     * @param fencer1 the tournament fencer ID of the first fencer, or -1 if not yet known
+     * @param fencer2 the tournament fencer ID of the second fencer, or -1 if not yet known
+     * @param score1 the score of the first fencer
+     * @param score2 the score of the second fencer
+     * @param winner the tournament fencer ID of the winner, or 0 if there is none yet
+     */
+    public LiveScoreDTO(int eventId, int pouleNumber, int matchId, int fencer1, int fencer2, int score1, int score2, int winner) {
+        this.eventId = eventId;
+        this.pouleNumber = pouleNumber;
+        this.matchId = matchId;
+        this.fencer1 = fencer1;
+        this.fencer2 = fencer2;
+        this.score1 = score1;
+        this.score2 = score2;
+        this.winner = winner;
+    }
+
+    /**
+     * Gets the ID of the event.
+     *
+     * @return the event ID
+     */
+    public int getEventId() {
+        return eventId;
+    }
+
+    /**
+     * Sets the ID of the event.
+     *
+     * @param eventId the event ID to set
+     */
+    public void setEventId(int eventId) {
+        this.eventId = eventId;
+    }
+
+    /**
+     * Gets the number of the poule of the bout.
+     *
+     * @return the poule number, or 0 for a direct elimination bout
+     */
+    public int getPouleNumber() {
+        return pouleNumber;
+    }
+
+    /**
+     * Sets the number of the poule of the bout.
+     *
+     * @param pouleNumber the poule number to set
+     */
+    public void setPouleNumber(int pouleNumber) {
+        this.pouleNumber = pouleNumber;
+    }
+
+    /**
+     * Gets the ID of the bout.
+     *
+     * @return the match ID
+     */
+    public int getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * Sets the ID of the bout.
+     *
+     * @param matchId the match ID to set
+     */
+    public void setMatchId(int matchId) {
+        this.matchId = matchId;
+    }
+
+    /**
+     * Gets the tournament fencer ID of the first fencer.
+     *
+     * @return the first fencer's ID
+     */
+    public int getFencer1() {
+        return fencer1;
+    }
+
+    /**
+     * Sets the tournament fencer ID of the first fencer.
+     *
+     * @param fencer1 the first fencer's ID to set
+     */
+    public void setFencer1(int fencer1) {
+        this.fencer1 = fencer1;
+    }
+
+    /**
+     * Gets the tournament fencer ID of the second fencer.
+     *
+     * @return the second fencer's ID
+     */
+    public int getFencer2() {
+        return fencer2;
+    }
+
+    /**
+     * Sets the tournament fencer ID of the second fencer.
+     *
+     * @param fencer2 the second fencer's ID to set
+     */
+    public void setFencer2(int fencer2) {
+        this.fencer2 = fencer2;
+    }
+
+    /**
+     * Gets the score of the first fencer.
+     *
+     * @return the first fencer's score
+     */
+    public int getScore1() {
+        return score1;
+    }
+
+    /**
+     * Sets the score of the first fencer.
+     *
+     * @param score1 the first fencer's score to set
+     */
+    public void setScore1(int score1) {
+        this.score1 = score1;
+    }
+
+    /**
+     * Gets the score of the second fencer.
+     *
+     * @return the second fencer's score
+     */
+    public int getScore2() {
+        return score2;
+    }
+
+    /**
+     * Sets the score of the second fencer.
+     *
+     * @param score2 the second fencer's score to set
+     */
+    public void setScore2(int score2) {
+        this.score2 = score2;
+    }
+
+    /**
+     * Gets the tournament fencer ID of the winner.
+     *
+     * @return the winner's ID, or 0 if there is none yet
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    /**
+     * Sets the tournament fencer ID of the winner.
+     *
+     * @param winner the winner's ID to set
+     */
+    public void setWinner(int winner) {
+        this.winner = winner;
+    }
+}
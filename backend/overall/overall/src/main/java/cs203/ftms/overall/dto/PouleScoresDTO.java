@@ -0,0 +1,137 @@
+package cs203.ftms.overall.dto;
+
+/**
+ * Data Transfer Object (DTO) representing the score table of a single poule in columnar form.
+ * The fencers are listed in display order in parallel arrays, and the scores are held in a flat
+ * row-major array of size n * n: scores[i * n + j] is the number of touches fencer i scored against
+ * fencer j, and the diagonal holds -1. Unlike SinglePouleTableDTO, no cell is formatted or parsed as text.
+ * <p>
+ * Served as {@link #MEDIA_TYPE} JSON or as CBOR (application/cbor). When updating a poule, only the
+ * poule number, fencer IDs and scores are read.
+ */
+public class PouleScoresDTO {
+
+    /**
+     * Media type of the JSON form of a poule score table.
+     */
+    public static final String MEDIA_TYPE = "application/vnd.ftms.poule-scores+json";
+
+    private int pouleNumber;
+    private int[] fencerIds;
+    private String[] fencerNames;
+    private String[] fencerCountries;
+    private int[] scores;
+
+    /**
+     * Default constructor for PouleScoresDTO.
+     */
+    public PouleScoresDTO() {
+    }
+
+    /**
+     * Constructs a PouleScoresDTO with the specified details.
+     *
+     * @param pouleNumber the number of the poule
+     * @param fencerIds the tournament fencer IDs, in display order
+     * @param fencerNames the fencers' names, in display order
+     * @param fencerCountries the fencers' countries, in display order
+     * @param scores the flat row-major score table of size n * n
+     */
+    public PouleScoresDTO(int pouleNumber, int[] fencerIds, String[] fencerNames, String[] fencerCountries, int[] scores) {
+        this.pouleNumber = pouleNumber;
+        this.fencerIds = fencerIds;
+        this.fencerNames = fencerNames;
+        this.fencerCountries = fencerCountries;
+        this.scores = scores;
+    }
+
+    /**
+     * Gets the number of the poule.
+     *
+     * @return the poule number
+     */
+    public int getPouleNumber() {
+        return pouleNumber;
+    }
+
+    /**
+     * Sets the number of the poule.
+     *
+     * @param pouleNumber the poule number to set
+     */
+    public void setPouleNumber(int pouleNumber) {
+        this.pouleNumber = pouleNumber;
+    }
+
+    /**
+     * Gets the tournament fencer IDs, in display order.
+     *
+     * @return the fencer IDs
+     */
+    public int[] getFencerIds() {
+        return fencerIds;
+    }
+
+    /**
+     * Sets the tournament fencer IDs, in display order.
+     *
+     * @param fencerIds the fencer IDs to set
+     */
+    public void setFencerIds(int[] fencerIds) {
+        this.fencerIds = fencerIds;
+    }
+
+    /**
+     * Gets the fencers' names, in display order.
+     *
+     * @return the fencer names
+     */
+    public String[] getFencerNames() {
+        return fencerNames;
+    }
+
+    /**
+     * Sets the fencers' names, in display order.
+     *
+     * @param fencerNames the fencer names to set
+     */
+    public void setFencerNames(String[] fencerNames) {
+        this.fencerNames = fencerNames;
+    }
+
+    /**
+     * Gets the fencers' countries, in display order.
+     *
+     * @return the fencer countries
+     */
+    public String[] getFencerCountries() {
+        return fencerCountries;
+    }
+
+    /**
+     * Sets the fencers' countries, in display order.
+     *
+     * @param fencerCountries the fencer countries to set
+     */
+    public void setFencerCountries(String[] fencerCountries) {
+        this.fencerCountries = fencerCountries;
+    }
+
+    /**
+     * Gets the flat row-major score table.
+     *
+     * @return the scores, n * n entries with -1 on the diagonal
+     */
+    public int[] getScores() {
+        return scores;
+    }
+
+    /**
+     * Sets the flat row-major score table.
+     *
+     * @param scores the scores to set, n * n entries
+     */
+    public void setScores(int[] scores) {
+        this.scores = scores;
+    }
+}
@@ -0,0 +1,75 @@
+package cs203.ftms.overall.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a fencer registered in an event, used by the tournament listings.
+ * Carries the columns of a CleanFencerDTO together with the ID of the event the fencer is registered in.
+ */
+public interface EventFencerSummary {
+
+    /**
+     * @return the ID of the event the fencer is registered in
+     */
+    int getEventId();
+
+    /**
+     * @return the ID of the fencer
+     */
+    int getId();
+
+    /**
+     * @return the name of the fencer
+     */
+    String getName();
+
+    /**
+     * @return the email of the fencer
+     */
+    String getEmail();
+
+    /**
+     * @return the contact number of the fencer
+     */
+    String getContactNo();
+
+    /**
+     * @return the country of the fencer
+     */
+    String getCountry();
+
+    /**
+     * @return the birth date of the fencer
+     */
+    LocalDate getDateOfBirth();
+
+    /**
+     * @return the dominant arm of the fencer
+     */
+    char getDominantArm();
+
+    /**
+     * @return the weapon of the fencer
+     */
+    char getWeapon();
+
+    /**
+     * @return the club of the fencer
+     */
+    String getClub();
+
+    /**
+     * @return the points of the fencer
+     */
+    int getPoints();
+
+    /**
+     * @return the debut year of the fencer
+     */
+    int getDebutYear();
+
+    /**
+     * @return the gender of the fencer
+     */
+    char getGender();
+}
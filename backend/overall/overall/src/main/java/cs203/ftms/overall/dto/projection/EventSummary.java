@@ -0,0 +1,71 @@
+package cs203.ftms.overall.dto.projection;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Read-only projection of an event row used by the tournament listings.
+ * Carries the columns of a CleanEventDTO, apart from its fencers, without loading the Event entity.
+ */
+public interface EventSummary {
+
+    /**
+     * @return the ID of the event
+     */
+    int getId();
+
+    /**
+     * @return the ID of the tournament the event belongs to
+     */
+    int getTournamentId();
+
+    /**
+     * @return the name of the tournament the event belongs to
+     */
+    String getTournamentName();
+
+    /**
+     * @return the gender category of the event
+     */
+    char getGender();
+
+    /**
+     * @return the weapon type of the event
+     */
+    char getWeapon();
+
+    /**
+     * @return the minimum number of participants of the event
+     */
+    int getMinParticipants();
+
+    /**
+     * @return the current number of participants of the event
+     */
+    int getParticipantCount();
+
+    /**
+     * @return the date of the event
+     */
+    LocalDate getDate();
+
+    /**
+     * @return the start time of the event
+     */
+    LocalTime getStartTime();
+
+    /**
+     * @return the end time of the event
+     */
+    LocalTime getEndTime();
+
+    /**
+     * @return the sign-up end date of the tournament the event belongs to
+     */
+    LocalDate getSignupEndDate();
+
+    /**
+     * @return whether the event has ended
+     */
+    boolean getEventEnded();
+}
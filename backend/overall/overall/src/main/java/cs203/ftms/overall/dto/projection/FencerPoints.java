@@ -0,0 +1,17 @@
+package cs203.ftms.overall.dto.projection;
+
+/**
+ * Read-only projection of a fencer's international points, used to build the ranking indexes.
+ */
+public interface FencerPoints {
+
+    /**
+     * @return the ID of the fencer
+     */
+    int getId();
+
+    /**
+     * @return the international points of the fencer
+     */
+    int getPoints();
+}
@@ -0,0 +1,65 @@
+package cs203.ftms.overall.dto.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a tournament row used by the tournament listings.
+ * Carries the columns of a CleanTournamentDTO without loading the Tournament entity or its events.
+ */
+public interface TournamentSummary {
+
+    /**
+     * @return the ID of the tournament
+     */
+    int getId();
+
+    /**
+     * @return the name of the tournament
+     */
+    String getName();
+
+    /**
+     * @return the name of the organiser hosting the tournament
+     */
+    String getOrganiserName();
+
+    /**
+     * @return the sign-up end date of the tournament
+     */
+    LocalDate getSignupEndDate();
+
+    /**
+     * @return the start date of the tournament
+     */
+    LocalDate getStartDate();
+
+    /**
+     * @return the end date of the tournament
+     */
+    LocalDate getEndDate();
+
+    /**
+     * @return the location of the tournament
+     */
+    String getLocation();
+
+    /**
+     * @return the description of the tournament
+     */
+    String getDescription();
+
+    /**
+     * @return the rules of the tournament
+     */
+    String getRules();
+
+    /**
+     * @return the difficulty level of the tournament
+     */
+    char getDifficulty();
+
+    /**
+     * @return the advancement rate of the tournament
+     */
+    int getAdvancementRate();
+}
@@ -0,0 +1,17 @@
+package cs203.ftms.overall.exception;
+
+/**
+ * Exception thrown when a scheduled job's lease has been taken over by another instance
+ * before the job could write its changes.
+ */
+public class LeaseLostException extends RuntimeException {
+
+    /**
+     * Constructs a new LeaseLostException with the specified detail message.
+     *
+     * @param message The detail message, providing information about the cause of the exception.
+     */
+    public LeaseLostException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package cs203.ftms.overall.model.cacherelated;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Represents the version of the cached responses about an event, a tournament, or every event and tournament,
+ * shared by every instance of the application through the database. The version is incremented in the
+ * transaction that changes what the responses show, so every instance sees the new version once that
+ * transaction commits.
+ */
+@Entity
+@Table(name = "cache_version")
+public class CacheVersion {
+
+    /**
+     * Name of what the responses are about, such as "e12" for event 12.
+     */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * Number of times the responses have been invalidated.
+     */
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Default constructor for CacheVersion.
+     */
+    public CacheVersion() {}
+
+    /**
+     * Gets the name of what the responses are about.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of times the responses have been invalidated.
+     *
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+}
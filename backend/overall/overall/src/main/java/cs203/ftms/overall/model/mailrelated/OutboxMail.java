@@ -0,0 +1,336 @@
+package cs203.ftms.overall.model.mailrelated;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Represents an email waiting in, or sent from, the outbound mail queue.
+ * Mails are saved in the transaction of the change they report, and sent later in batches by MailService.
+ * A mail is pending ('P') until it is sent ('S'), or until it has failed every attempt ('F');
+ * failed mails are kept for inspection, and sent mails are purged once they are older than the retention period.
+ * Mails a user is waiting for, such as a password reset, have a higher priority than bulk notices and are sent first.
+ */
+@Entity
+@Table(name = "outbox_mail", indexes = {
+    @Index(name = "idx_outbox_mail_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_outbox_mail_priority", columnList = "status, priority")
+})
+public class OutboxMail {
+
+    /**
+     * Status of a mail that has not been sent yet.
+     */
+    public static final char PENDING = 'P';
+
+    /**
+     * Status of a mail that has been sent.
+     */
+    public static final char SENT = 'S';
+
+    /**
+     * Status of a mail that failed every attempt.
+     */
+    public static final char FAILED = 'F';
+
+    /**
+     * Priority of a mail that a user is waiting for, sent before any bulk notice.
+     */
+    public static final int PRIORITY_USER = 0;
+
+    /**
+     * Priority of a bulk notice, such as the cancellation of an event, sent once no user mail is due.
+     */
+    public static final int PRIORITY_BULK = 1;
+
+    /**
+     * Unique identifier for the mail.
+     * Drawn from a pooled sequence so that the mails of a cancelled event can be inserted in one JDBC batch.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_mail_seq")
+    @SequenceGenerator(name = "outbox_mail_seq", sequenceName = "outbox_mail_seq", allocationSize = 50)
+    private int id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(nullable = false)
+    private char status;
+
+    /**
+     * Priority of the mail: PRIORITY_USER or PRIORITY_BULK. Due mails are sent lowest value first.
+     */
+    @Column(nullable = false)
+    private int priority;
+
+    /**
+     * Number of attempts made to send the mail.
+     */
+    private int attempts;
+
+    /**
+     * Time from which the mail may be sent; pushed back after each failed attempt.
+     */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    /**
+     * Reason the last attempt failed, if it did.
+     */
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    /**
+     * Default constructor for OutboxMail.
+     */
+    public OutboxMail() {}
+
+    /**
+     * Constructs a pending OutboxMail that a user is waiting for and may be sent straight away.
+     *
+     * @param recipient the recipient's email address.
+     * @param subject the subject of the email.
+     * @param content the body content of the email.
+     * @param createdAt the time the mail was queued.
+     */
+    public OutboxMail(String recipient, String subject, String content, LocalDateTime createdAt) {
+        this(recipient, subject, content, createdAt, PRIORITY_USER);
+    }
+
+    /**
+     * Constructs a pending OutboxMail with a priority that may be sent straight away.
+     *
+     * @param recipient the recipient's email address.
+     * @param subject the subject of the email.
+     * @param content the body content of the email.
+     * @param createdAt the time the mail was queued.
+     * @param priority the priority of the mail: PRIORITY_USER or PRIORITY_BULK.
+     */
+    public OutboxMail(String recipient, String subject, String content, LocalDateTime createdAt, int priority) {
+        this.recipient = recipient;
+        this.subject = subject;
+        this.content = content;
+        this.status = PENDING;
+        this.priority = priority;
+        this.nextAttemptAt = createdAt;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the ID of the mail.
+     *
+     * @return the mail ID.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the mail.
+     *
+     * @param id the mail ID to set.
+     */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the recipient's email address.
+     *
+     * @return the recipient.
+     */
+    public String getRecipient() {
+        return recipient;
+    }
+
+    /**
+     * Sets the recipient's email address.
+     *
+     * @param recipient the recipient to set.
+     */
+    public void setRecipient(String recipient) {
+        this.recipient = recipient;
+    }
+
+    /**
+     * Gets the subject of the email.
+     *
+     * @return the subject.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Sets the subject of the email.
+     *
+     * @param subject the subject to set.
+     */
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    /**
+     * Gets the body content of the email.
+     *
+     * @return the content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Sets the body content of the email.
+     *
+     * @param content the content to set.
+     */
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    /**
+     * Gets the status of the mail: PENDING, SENT or FAILED.
+     *
+     * @return the status.
+     */
+    public char getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status of the mail.
+     *
+     * @param status the status to set: PENDING, SENT or FAILED.
+     */
+    public void setStatus(char status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the priority of the mail.
+     *
+     * @return the priority: PRIORITY_USER or PRIORITY_BULK.
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the priority of the mail.
+     *
+     * @param priority the priority to set: PRIORITY_USER or PRIORITY_BULK.
+     */
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * Gets the number of attempts made to send the mail.
+     *
+     * @return the number of attempts.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Sets the number of attempts made to send the mail.
+     *
+     * @param attempts the number of attempts to set.
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the time from which the mail may be sent.
+     *
+     * @return the time of the next attempt.
+     */
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    /**
+     * Sets the time from which the mail may be sent.
+     *
+     * @param nextAttemptAt the time of the next attempt to set.
+     */
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * Gets the time the mail was queued.
+     *
+     * @return the creation time.
+     */
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time the mail was queued.
+     *
+     * @param createdAt the creation time to set.
+     */
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the time the mail was sent.
+     *
+     * @return the sending time, or null if the mail has not been sent.
+     */
+    public LocalDateTime getSentAt() {
+        return sentAt;
+    }
+
+    /**
+     * Sets the time the mail was sent.
+     *
+     * @param sentAt the sending time to set.
+     */
+    public void setSentAt(LocalDateTime sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    /**
+     * Gets the reason the last attempt failed.
+     *
+     * @return the last error, or null if no attempt has failed.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Sets the reason the last attempt failed.
+     *
+     * @param lastError the last error to set.
+     */
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -0,0 +1,100 @@
+package cs203.ftms.overall.model.schedulingrelated;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Represents the lease on a scheduled job, shared by every instance of the application through the database.
+ * An instance may only run the job while it holds the lease, that is after it moved lockedUntil into the future
+ * while the lease was free. Every acquisition increments the fencing token, so an instance whose lease expired
+ * and was taken over can tell that its token is stale before it writes anything.
+ */
+@Entity
+@Table(name = "job_lease")
+public class JobLease {
+
+    /**
+     * Name of the scheduled job.
+     */
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    /**
+     * Instance that acquired the lease last.
+     */
+    @Column(nullable = false)
+    private String owner;
+
+    /**
+     * Fencing token, incremented each time the lease is acquired.
+     */
+    @Column(nullable = false)
+    private long token;
+
+    /**
+     * Time the lease was acquired last.
+     */
+    @Column(name = "locked_at", nullable = false)
+    private LocalDateTime lockedAt;
+
+    /**
+     * Time until which the lease is held; the lease is free from then on.
+     */
+    @Column(name = "locked_until", nullable = false)
+    private LocalDateTime lockedUntil;
+
+    /**
+     * Default constructor for JobLease.
+     */
+    public JobLease() {}
+
+    /**
+     * Gets the name of the scheduled job.
+     *
+     * @return the job name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the instance that acquired the lease last.
+     *
+     * @return the owner.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Gets the fencing token of the last acquisition.
+     *
+     * @return the fencing token.
+     */
+    public long getToken() {
+        return token;
+    }
+
+    /**
+     * Gets the time the lease was acquired last.
+     *
+     * @return the acquisition time.
+     */
+    public LocalDateTime getLockedAt() {
+        return lockedAt;
+    }
+
+    /**
+     * Gets the time until which the lease is held.
+     *
+     * @return the expiry time.
+     */
+    public LocalDateTime getLockedUntil() {
+        return lockedUntil;
+    }
+}
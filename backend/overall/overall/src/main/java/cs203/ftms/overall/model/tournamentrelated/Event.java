@@ -11,6 +11,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -21,7 +22,7 @@ import jakarta.persistence.Table;
  * event type, and the tournament it belongs to.
  */
 @Entity
-@Table(name = "event")
+@Table(name = "event", indexes = @Index(name = "idx_event_gender_weapon", columnList = "gender, weapon"))
 public class Event {
 
     /**
@@ -72,8 +73,10 @@ public class Event {
 
     /**
      * Current number of participants registered for the event.
+     * Only changed by the atomic updates in EventRepository, so saving an event read before
+     * a concurrent registration does not overwrite the registration's count.
      */
-    @Column(name = "participant_count")
+    @Column(name = "participant_count", updatable = false)
     private int participantCount;
 
     /**
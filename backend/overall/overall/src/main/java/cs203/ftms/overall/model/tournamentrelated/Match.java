@@ -13,6 +13,7 @@ import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 /**
@@ -26,11 +27,24 @@ import jakarta.persistence.Table;
 @DiscriminatorValue("M")
 public class Match {
 
+    /**
+     * Name of the sequence match IDs are drawn from.
+     */
+    public static final String ID_SEQUENCE = "fencing_match_seq";
+
+    /**
+     * Number of match IDs taken from the sequence at a time.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Unique identifier for the match.
+     * Drawn from a pooled sequence rather than an identity column, so that IDs are known
+     * before insert and matches created together can be written in JDBC batches.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private int id;
 
     /**
@@ -71,9 +85,9 @@ public class Match {
     /**
      * The event to which this match belongs.
      * Each match must be associated with an event, and one event can have multiple matches.
-     * Fetched eagerly to ensure event details are always available when accessing a match.
+     * Fetched lazily; queries that render the event fetch it explicitly.
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event", nullable = false)
     private Event event;
 
@@ -13,6 +13,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 /**
@@ -23,11 +24,23 @@ import jakarta.persistence.Table;
 @Table(name = "Poule")
 public class Poule implements Comparable<Poule> {
 
+    /**
+     * Name of the sequence poule IDs are drawn from.
+     */
+    public static final String ID_SEQUENCE = "poule_seq";
+
+    /**
+     * Number of poule IDs taken from the sequence at a time.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /**
      * Unique identifier for the poule.
+     * Drawn from a pooled sequence so that the poules of an event can be inserted in one JDBC batch.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private int id;
 
     /**
@@ -40,9 +53,9 @@ public class Poule implements Comparable<Poule> {
     /**
      * The event to which this poule belongs.
      * Each poule must be associated with an event, and one event can have multiple poules.
-     * Fetched eagerly to ensure event details are always available when accessing a poule.
+     * Fetched lazily; queries that render the event fetch it explicitly.
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id", nullable = false)
     private Event event;
 
@@ -13,6 +13,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
@@ -23,7 +24,8 @@ import jakarta.persistence.Table;
  * sign-up period, events, and other attributes.
  */
 @Entity
-@Table(name = "tournament")
+@Table(name = "tournament",
+        indexes = @Index(name = "idx_tournament_start_date_difficulty", columnList = "start_date, difficulty"))
 public class Tournament {
 
     /**
@@ -16,6 +16,7 @@ import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 
 /**
@@ -23,7 +24,8 @@ import jakarta.persistence.Table;
  * containing details about their matches, ranking, and performance in poules.
  */
 @Entity
-@Table(name = "tournament_fencer")
+@Table(name = "tournament_fencer",
+        uniqueConstraints = @UniqueConstraint(name = "uk_tournament_fencer_fencer_event", columnNames = {"fencer_id", "event_id"}))
 public class TournamentFencer {
 
     /**
@@ -36,28 +38,28 @@ public class TournamentFencer {
     /**
      * The fencer participating in the tournament.
      * Represents the actual fencer entity with their personal details.
-     * Fetched eagerly to ensure fencer details are always available.
+     * Fetched lazily; queries that render fencer details fetch it explicitly.
      * Cannot be null as every tournament fencer must be associated with a real fencer.
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "fencer_id", nullable = false)
     private Fencer fencer;
 
     /**
      * The specific event within the tournament that this fencer is participating in.
-     * Fetched eagerly to ensure event details are always available.
+     * Fetched lazily; queries that render event details fetch it explicitly.
      * For example, Men's Foil, Women's Epee, etc.
      */
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "event_id")
     private Event event;
 
     /**
      * Collection of all matches this fencer has participated in during the tournament.
      * Includes both poule matches and direct elimination matches.
-     * Fetched eagerly to ensure match details are immediately available.
+     * Fetched lazily, as no rendering path reads it.
      */
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "tournament_fencer_matches")
     private Set<Match> matches;
 
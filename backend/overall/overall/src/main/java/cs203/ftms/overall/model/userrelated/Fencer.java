@@ -88,11 +88,11 @@ public class Fencer extends User {
     /**
      * Collection of all tournament participations for this fencer.
      * Each entry represents the fencer's profile in a specific tournament event.
-     * Fetched eagerly to ensure tournament history is immediately available.
+     * Fetched lazily; the profiles are read through TournamentFencerRepository queries.
      * Cascade ALL ensures that operations on the fencer cascade to their tournament profiles.
      * For example, if a fencer is deleted, all their tournament profiles are also deleted.
      */
-    @OneToMany(mappedBy = "fencer", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "fencer", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private Set<TournamentFencer> tournamentFencerProfiles;
 
 
@@ -34,7 +34,7 @@ public class Organiser extends User {
     /**
      * Collection of all tournaments created and managed by this organiser.
      * Configured with:
-     * - Eager fetching to ensure tournament data is immediately available
+     * - Lazy fetching; tournaments are read through TournamentRepository queries
      * - Cascade ALL to automatically handle related tournament operations
      * - orphanRemoval to ensure tournaments are deleted if removed from this collection
      * 
@@ -45,7 +45,7 @@ public class Organiser extends User {
      * - Access participant information
      * - Manage tournament schedules
      */
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL, mappedBy = "organiser", orphanRemoval = true)
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL, mappedBy = "organiser", orphanRemoval = true)
     private Set<Tournament> tourHost;
 
 
@@ -10,18 +10,18 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import cs203.ftms.overall.security.model.RefreshToken;
+import cs203.ftms.overall.security.service.PrincipalCacheListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.DiscriminatorColumn;
 import jakarta.persistence.DiscriminatorType;
 import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Inheritance;
 import jakarta.persistence.InheritanceType;
-import jakarta.persistence.OneToOne;
 import jakarta.persistence.Table;
 
 /**
@@ -30,6 +30,7 @@ import jakarta.persistence.Table;
  * interface for authentication.
  */
 @Entity
+@EntityListeners(PrincipalCacheListener.class)
 @Table(name = "user")
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.CHAR)
@@ -139,14 +140,6 @@ public class User implements UserDetails {
     @Column(name = "verification_token_creation")
     private Date verificationTokenCreatedAt;
 
-    /**
-     * The refresh token associated with this user's current session.
-     * Used in the JWT authentication system for generating new access tokens.
-     * One-to-one relationship ensures only one active refresh token per user.
-     */
-    @OneToOne(mappedBy = "user")
-    private RefreshToken refreshToken;
-
 
     /**
      * Default constructor for User.
@@ -370,24 +363,6 @@ public class User implements UserDetails {
         this.locked = locked;
     }
 
-    /**
-     * Gets the refresh token associated with the user.
-     *
-     * @return The user's refresh token.
-     */
-    public RefreshToken getRefreshToken() {
-        return refreshToken;
-    }
-
-    /**
-     * Sets the refresh token associated with the user.
-     *
-     * @param refreshToken The refresh token to set.
-     */
-    public void setRefreshToken(RefreshToken refreshToken) {
-        this.refreshToken = refreshToken;
-    }
-
     /**
      * Compares this user to another object based on ID equality.
      *
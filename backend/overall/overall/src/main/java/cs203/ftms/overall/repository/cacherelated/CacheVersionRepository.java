@@ -0,0 +1,39 @@
+package cs203.ftms.overall.repository.cacherelated;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import cs203.ftms.overall.model.cacherelated.CacheVersion;
+import jakarta.transaction.Transactional;
+
+/**
+ * Repository interface for managing `CacheVersion` entities, the versions of the cached responses.
+ */
+public interface CacheVersionRepository extends JpaRepository<CacheVersion, String> {
+
+    /**
+     * Sums the versions of the given names, counting a name without a version as 0.
+     * Versions only ever increase, so the sum changes whenever any of the versions does.
+     *
+     * @param names the names of the versions.
+     * @return the sum of the versions.
+     */
+    @Query("select coalesce(sum(v.version), 0) from CacheVersion v where v.name in ?1")
+    long sumVersions(Collection<String> names);
+
+    /**
+     * Increments a version, creating it at 1 if it does not exist yet. The row stays locked until the
+     * transaction ends, so the versions are bumped in the order of their names to avoid deadlocks.
+     *
+     * @param name the name of the version.
+     * @return the number of rows affected.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "insert into cache_version (name, version) values (?1, 1) on duplicate key update version = version + 1",
+            nativeQuery = true)
+    int bump(String name);
+}
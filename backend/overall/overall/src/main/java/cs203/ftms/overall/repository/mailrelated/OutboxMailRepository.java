@@ -0,0 +1,46 @@
+package cs203.ftms.overall.repository.mailrelated;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import cs203.ftms.overall.model.mailrelated.OutboxMail;
+
+/**
+ * Repository interface for managing `OutboxMail` entities, the queue of outbound mails.
+ */
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Integer> {
+
+    /**
+     * Finds the pending mails that are due to be sent, highest priority first and then oldest first,
+     * so that a mail a user is waiting for does not wait behind a queue of bulk notices.
+     *
+     * @param now the current time; mails whose next attempt is later are skipped.
+     * @param pageable the maximum number of mails to return.
+     * @return the due mails, by priority and then in the order they were queued.
+     */
+    @Query("select m from OutboxMail m where m.status = 'P' and m.nextAttemptAt <= :now order by m.priority, m.id")
+    List<OutboxMail> findDue(LocalDateTime now, Pageable pageable);
+
+    /**
+     * Deletes the mails that were sent before a time, in one statement.
+     *
+     * @param cutoff the time before which sent mails are deleted.
+     * @return the number of mails deleted.
+     */
+    @Modifying
+    @Query("delete from OutboxMail m where m.status = 'S' and m.sentAt < ?1")
+    int deleteSentBefore(LocalDateTime cutoff);
+
+    /**
+     * Counts the mails with a status.
+     *
+     * @param status the status: PENDING, SENT or FAILED.
+     * @return the number of mails with that status.
+     */
+    long countByStatus(char status);
+}
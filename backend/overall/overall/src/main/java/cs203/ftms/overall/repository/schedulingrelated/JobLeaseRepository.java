@@ -0,0 +1,71 @@
+package cs203.ftms.overall.repository.schedulingrelated;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import cs203.ftms.overall.model.schedulingrelated.JobLease;
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repository interface for managing `JobLease` entities, the leases on scheduled jobs.
+ */
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Acquires the lease on a job if it is free, taking the next fencing token.
+     * The update is a single statement, so when several instances try at once only one of them updates the lease.
+     *
+     * @param name the name of the job.
+     * @param owner the instance acquiring the lease.
+     * @param now the current time; the lease is free if it is held until no later than this.
+     * @param lockedUntil the time until which the lease will be held.
+     * @return 1 if the lease was acquired, 0 if it is held or does not exist yet.
+     */
+    @Modifying
+    @Query("update JobLease l set l.owner = ?2, l.token = l.token + 1, l.lockedAt = ?3, l.lockedUntil = ?4 "
+            + "where l.name = ?1 and l.lockedUntil <= ?3")
+    int acquire(String name, String owner, LocalDateTime now, LocalDateTime lockedUntil);
+
+    /**
+     * Creates the lease on a job, acquired by an instance with the first fencing token.
+     * The insert fails on the primary key if another instance created the lease first.
+     *
+     * @param name the name of the job.
+     * @param owner the instance acquiring the lease.
+     * @param now the current time.
+     * @param lockedUntil the time until which the lease will be held.
+     * @return 1, the number of leases created.
+     */
+    @Modifying
+    @Query(value = "insert into job_lease (name, owner, token, locked_at, locked_until) values (?1, ?2, 1, ?3, ?4)",
+            nativeQuery = true)
+    int create(String name, String owner, LocalDateTime now, LocalDateTime lockedUntil);
+
+    /**
+     * Releases the lease on a job, if it is still held with the given fencing token.
+     *
+     * @param name the name of the job.
+     * @param token the fencing token the lease was acquired with.
+     * @param lockedUntil the time until which the lease stays held, or the current time to free it now.
+     * @return 1 if the lease was released, 0 if it has been taken over since.
+     */
+    @Modifying
+    @Query("update JobLease l set l.lockedUntil = ?3 where l.name = ?1 and l.token = ?2")
+    int release(String name, long token, LocalDateTime lockedUntil);
+
+    /**
+     * Finds the lease on a job if it still has the given fencing token, locking its row until the transaction ends
+     * so that the lease cannot be taken over in the meantime.
+     *
+     * @param name the name of the job.
+     * @param token the fencing token the lease was acquired with.
+     * @return the lease, or empty if it has been taken over since.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<JobLease> findByNameAndToken(String name, long token);
+}
@@ -1,10 +1,16 @@
 package cs203.ftms.overall.repository.tournamentrelated;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import cs203.ftms.overall.dto.projection.EventSummary;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.tournamentrelated.Tournament;
 
@@ -15,6 +21,16 @@ import cs203.ftms.overall.model.tournamentrelated.Tournament;
  */
 public interface EventRepository extends JpaRepository<Event, Integer> {
 
+    /**
+     * Selects the columns of an {@link EventSummary}, to be followed by a where clause on the event e
+     * or its tournament t.
+     */
+    String SUMMARY_SELECT = "select e.id as id, t.id as tournamentId, t.name as tournamentName, e.gender as gender, "
+            + "e.weapon as weapon, e.minParticipants as minParticipants, e.participantCount as participantCount, "
+            + "e.date as date, e.startTime as startTime, e.endTime as endTime, "
+            + "t.signupEndDate as signupEndDate, e.isOver as eventEnded "
+            + "from Event e join e.tournament t ";
+
     /**
      * Finds an event associated with a specific tournament, gender, and weapon type.
      *
@@ -34,6 +50,36 @@ public interface EventRepository extends JpaRepository<Event, Integer> {
      */
     List<Event> findByGenderAndWeapon(char gender, char weapon);
 
+    /**
+     * Finds events matching a specific gender and weapon type whose tournament starts after a given date,
+     * soonest first.
+     *
+     * @param gender the gender category of the events
+     * @param weapon the weapon type of the events
+     * @param date the date the tournament must start after
+     * @param pageable the page of events to return, or Pageable.unpaged() for all of them
+     * @return a list of events matching the criteria
+     */
+    @Query("select e from Event e join e.tournament t "
+            + "where e.gender = ?1 and e.weapon = ?2 and t.startDate > ?3 order by t.startDate, e.id")
+    List<Event> findUpcomingByGenderAndWeapon(char gender, char weapon, LocalDate date, Pageable pageable);
+
+    /**
+     * Finds the events that can be recommended to a fencer: events of the fencer's gender and weapon in
+     * tournaments of the given difficulties that start after a given date, with their tournaments loaded,
+     * soonest tournament first. Served by the tournament (start_date, difficulty) and event (gender, weapon) indexes.
+     *
+     * @param date the date the tournament must start after
+     * @param difficulties the difficulty levels the tournament may have
+     * @param gender the gender category of the events
+     * @param weapon the weapon type of the events
+     * @return a list of events matching the criteria
+     */
+    @Query("select e from Event e join fetch e.tournament t "
+            + "where t.startDate > ?1 and t.difficulty in ?2 and e.gender = ?3 and e.weapon = ?4 "
+            + "order by t.startDate, t.id, e.id")
+    List<Event> findRecommendationCandidates(LocalDate date, Collection<Character> difficulties, char gender, char weapon);
+
     /**
      * Finds all events associated with a specific tournament.
      *
@@ -41,4 +87,66 @@ public interface EventRepository extends JpaRepository<Event, Integer> {
      * @return a list of events associated with the specified tournament
      */
     List<Event> findByTournament(Tournament tournament);
+
+    /**
+     * Finds a summary of every event of the given tournaments, without loading the events or their fencers.
+     *
+     * @param tournamentIds the IDs of the tournaments
+     * @return a list of event summaries for the specified tournaments
+     */
+    @Query(SUMMARY_SELECT + "where t.id in ?1")
+    List<EventSummary> findSummariesByTournamentIds(Collection<Integer> tournamentIds);
+
+    /**
+     * Finds a summary of an event, without loading the event, its tournament or its fencers.
+     *
+     * @param id the ID of the event
+     * @return an Optional containing the event summary if found, or empty if the event does not exist
+     */
+    @Query(SUMMARY_SELECT + "where e.id = ?1")
+    Optional<EventSummary> findSummaryById(int id);
+
+    /**
+     * Finds the events whose tournament's signup ended on a given date and that have fewer participants than
+     * their minimum, loading their tournaments and the tournaments' organisers in the same query.
+     * Events whose poules or matches have already been created are left out, as their organiser has started them.
+     *
+     * @param signupEndDate the date the tournament's signup ended
+     * @return a list of the under-subscribed events
+     */
+    @Query("select e from Event e join fetch e.tournament t join fetch t.organiser "
+            + "where t.signupEndDate = ?1 and e.participantCount < e.minParticipants and e.poules is empty "
+            + "and not exists (select m from Match m where m.event = e)")
+    List<Event> findUnderSubscribedBySignupEndDate(LocalDate signupEndDate);
+
+    /**
+     * Deletes the events with the given IDs in one statement.
+     * The events must have no registrants, poules or matches left.
+     *
+     * @param ids the IDs of the events
+     * @return the number of events deleted
+     */
+    @Modifying
+    @Query("delete from Event e where e.id in ?1")
+    int deleteByIds(Collection<Integer> ids);
+
+    /**
+     * Atomically adds one to the participant count of an event, so concurrent registrations are all counted.
+     *
+     * @param id the ID of the event
+     * @return the number of events updated, 0 if the event does not exist
+     */
+    @Modifying
+    @Query("update Event e set e.participantCount = e.participantCount + 1 where e.id = ?1")
+    int incrementParticipantCount(int id);
+
+    /**
+     * Atomically subtracts one from the participant count of an event.
+     *
+     * @param id the ID of the event
+     * @return the number of events updated, 0 if the event does not exist
+     */
+    @Modifying
+    @Query("update Event e set e.participantCount = e.participantCount - 1 where e.id = ?1")
+    int decrementParticipantCount(int id);
 }
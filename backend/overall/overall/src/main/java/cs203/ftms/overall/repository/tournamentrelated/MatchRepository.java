@@ -1,11 +1,26 @@
 package cs203.ftms.overall.repository.tournamentrelated;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+
 import cs203.ftms.overall.model.tournamentrelated.Match;
+import jakarta.persistence.LockModeType;
 
 /**
  * Repository interface for managing `Match` entities.
  * Extends JpaRepository to provide CRUD operations for `Match` entities.
  */
 public interface MatchRepository extends JpaRepository<Match, Integer> {
+
+    /**
+     * Finds a match by its ID, locking its row until the transaction ends
+     * so that concurrent updates of the match's score are applied one after the other.
+     *
+     * @param id the ID of the match.
+     * @return the match, or empty if it does not exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Match> findLockedById(int id);
 }
@@ -1,5 +1,6 @@
 package cs203.ftms.overall.repository.tournamentrelated;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import cs203.ftms.overall.model.tournamentrelated.Poule;
 import cs203.ftms.overall.model.tournamentrelated.Event;
@@ -24,7 +25,8 @@ public interface PouleRepository extends JpaRepository<Poule, Integer> {
      * Finds all poules associated with a specific event.
      *
      * @param event The event associated with the poules.
-     * @return A list of poules for the specified event.
+     * @return A list of poules for the specified event, with their fencers loaded.
      */
+    @EntityGraph(attributePaths = {"fencers", "fencers.fencer"})
     List<Poule> findByEvent(Event event);
 }
@@ -1,10 +1,19 @@
 package cs203.ftms.overall.repository.tournamentrelated;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import cs203.ftms.overall.dto.projection.EventFencerSummary;
 import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.userrelated.Fencer;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing `TournamentFencer` entities.
@@ -16,10 +25,40 @@ public interface TournamentFencerRepository extends JpaRepository<TournamentFenc
      * Finds all tournament fencers associated with a specific event.
      *
      * @param event The event for which to retrieve tournament fencers.
-     * @return A list of tournament fencers associated with the specified event.
+     * @return A list of tournament fencers associated with the specified event, with their fencers loaded.
      */
+    @EntityGraph(attributePaths = "fencer")
     List<TournamentFencer> findByEvent(Event event);
 
+    /**
+     * Finds the tournament fencers with the given IDs, loading their fencers in the same query.
+     *
+     * @param ids The IDs of the tournament fencers.
+     * @return A list of the tournament fencers found, with their fencers loaded.
+     */
+    @Override
+    @EntityGraph(attributePaths = "fencer")
+    List<TournamentFencer> findAllById(Iterable<Integer> ids);
+
+    /**
+     * Finds a tournament fencer by its ID, locking its row until the transaction ends
+     * so that concurrent changes to its poule standings are applied one after the other.
+     *
+     * @param id The ID of the tournament fencer.
+     * @return The tournament fencer, or empty if it does not exist.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TournamentFencer> findLockedById(int id);
+
+    /**
+     * Finds every tournament profile of a fencer, loading the fencer and the event and tournament of each profile.
+     *
+     * @param fencerId The ID of the fencer.
+     * @return A list of the fencer's tournament profiles.
+     */
+    @Query("select tf from TournamentFencer tf join fetch tf.fencer f join fetch tf.event e join fetch e.tournament where f.id = ?1")
+    List<TournamentFencer> findWithEventByFencerId(int fencerId);
+
     /**
      * Finds a specific tournament fencer by fencer and event.
      *
@@ -28,4 +67,40 @@ public interface TournamentFencerRepository extends JpaRepository<TournamentFenc
      * @return The tournament fencer associated with the specified fencer and event.
      */
     TournamentFencer findByFencerAndEvent(Fencer fencer, Event event);
+
+    /**
+     * Deletes the tournament fencer of a fencer in an event in one statement.
+     * The tournament fencer must not have played any matches.
+     *
+     * @param fencerId The ID of the fencer.
+     * @param eventId The ID of the event.
+     * @return The number of tournament fencers deleted, 0 if the fencer was not registered for the event.
+     */
+    @Modifying
+    @Query("delete from TournamentFencer tf where tf.fencer.id = ?1 and tf.event.id = ?2")
+    int deleteByFencerIdAndEventId(int fencerId, int eventId);
+
+    /**
+     * Finds a summary of every fencer registered in the given events, without loading the tournament fencers.
+     *
+     * @param eventIds The IDs of the events.
+     * @return A list of fencer summaries, each tagged with the ID of its event.
+     */
+    @Query("select e.id as eventId, f.id as id, f.name as name, f.email as email, f.contactNo as contactNo, "
+            + "f.country as country, f.dateOfBirth as dateOfBirth, f.dominantArm as dominantArm, "
+            + "f.weapon as weapon, f.club as club, f.points as points, f.debutYear as debutYear, "
+            + "f.gender as gender "
+            + "from TournamentFencer tf join tf.event e join tf.fencer f where e.id in ?1")
+    List<EventFencerSummary> findFencerSummariesByEventIds(Collection<Integer> eventIds);
+
+    /**
+     * Deletes every tournament fencer registered in the given events in one statement.
+     * The tournament fencers must not have played any matches.
+     *
+     * @param eventIds The IDs of the events.
+     * @return The number of tournament fencers deleted.
+     */
+    @Modifying
+    @Query("delete from TournamentFencer tf where tf.event.id in ?1")
+    int deleteByEventIds(Collection<Integer> eventIds);
 }
@@ -4,11 +4,14 @@ import java.util.List;
 import java.util.Optional;
 import java.time.LocalDate;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import jakarta.transaction.Transactional;
 
+import cs203.ftms.overall.dto.projection.TournamentSummary;
 import cs203.ftms.overall.model.tournamentrelated.Tournament;
 
 /**
@@ -18,6 +21,15 @@ import cs203.ftms.overall.model.tournamentrelated.Tournament;
  */
 public interface TournamentRepository extends JpaRepository<Tournament, Integer> {
 
+    /**
+     * Select clause shared by the tournament summary queries.
+     */
+    String SUMMARY_SELECT = "select t.id as id, t.name as name, o.name as organiserName, "
+            + "t.signupEndDate as signupEndDate, t.startDate as startDate, t.endDate as endDate, "
+            + "t.location as location, t.description as description, t.rules as rules, "
+            + "t.difficulty as difficulty, t.advancementRate as advancementRate "
+            + "from Tournament t left join t.organiser o";
+
     /**
      * Finds a tournament by its name.
      *
@@ -30,8 +42,10 @@ public interface TournamentRepository extends JpaRepository<Tournament, Integer>
      * Finds all tournaments organized by a specific organiser.
      *
      * @param id The ID of the organiser.
-     * @return A list of tournaments organized by the specified organiser.
+     * @return A list of tournaments organized by the specified organiser,
+     *         with their events and registered fencers loaded for rendering.
      */
+    @EntityGraph(attributePaths = {"organiser", "events", "events.fencers", "events.fencers.fencer"})
     List<Tournament> findByOrganiserId(int id);
 
     /**
@@ -51,4 +65,49 @@ public interface TournamentRepository extends JpaRepository<Tournament, Integer>
     @Transactional
     @Query("delete from Tournament t where t.id = ?1")
     void deleteTournamentById(int id);
+
+    /**
+     * Finds a summary of every tournament, without loading its events.
+     *
+     * @param pageable The page of tournaments to return, or Pageable.unpaged() for all of them.
+     * @return A list of tournament summaries.
+     */
+    @Query(SUMMARY_SELECT + " order by t.id")
+    List<TournamentSummary> findAllSummaries(Pageable pageable);
+
+    /**
+     * Finds a summary of every tournament starting after a given date, soonest first.
+     *
+     * @param date The date the tournaments must start after.
+     * @param pageable The page of tournaments to return, or Pageable.unpaged() for all of them.
+     * @return A list of summaries of the tournaments starting after the date.
+     */
+    @Query(SUMMARY_SELECT + " where t.startDate > ?1 order by t.startDate, t.id")
+    List<TournamentSummary> findSummariesByStartDateAfter(LocalDate date, Pageable pageable);
+
+    /**
+     * Finds a summary of every tournament starting before a given date, most recent first.
+     *
+     * @param date The date the tournaments must start before.
+     * @param pageable The page of tournaments to return, or Pageable.unpaged() for all of them.
+     * @return A list of summaries of the tournaments starting before the date.
+     */
+    @Query(SUMMARY_SELECT + " where t.startDate < ?1 order by t.startDate desc, t.id desc")
+    List<TournamentSummary> findSummariesByStartDateBefore(LocalDate date, Pageable pageable);
+
+    /**
+     * Finds all tournaments starting after a given date.
+     *
+     * @param date The date the tournaments must start after.
+     * @return A list of tournaments starting after the date.
+     */
+    List<Tournament> findByStartDateAfter(LocalDate date);
+
+    /**
+     * Finds all tournaments starting before a given date.
+     *
+     * @param date The date the tournaments must start before.
+     * @return A list of tournaments starting before the date.
+     */
+    List<Tournament> findByStartDateBefore(LocalDate date);
 }
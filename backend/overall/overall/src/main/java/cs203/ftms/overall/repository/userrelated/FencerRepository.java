@@ -1,8 +1,11 @@
 package cs203.ftms.overall.repository.userrelated;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+
+import cs203.ftms.overall.dto.projection.FencerPoints;
 import cs203.ftms.overall.model.userrelated.Fencer;
 
 /**
@@ -26,4 +29,13 @@ public interface FencerRepository extends JpaRepository<Fencer, Integer> {
      * @return an Optional containing the Fencer if found, or empty if not found
      */
     Optional<Fencer> findByName(String name);
+
+    /**
+     * Finds the points of every fencer of a weapon and gender, without loading the fencers.
+     *
+     * @param weapon the weapon of the fencers
+     * @param gender the gender of the fencers
+     * @return the ID and points of each matching fencer
+     */
+    List<FencerPoints> findPointsByWeaponAndGender(char weapon, char gender);
 }
@@ -1,32 +1,56 @@
 package cs203.ftms.overall.security.config;
 
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.context.annotation.Bean;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 /**
- * Configuration class for enabling asynchronous processing in the application.
- * Defines a custom thread pool executor for handling mail-related tasks.
+ * Configuration class for the application's background executors.
+ * Defines custom thread pool executors for live score fan-out and the conversion of the poules of large events,
+ * which the services submit work to directly. Nothing uses @Async since mail moved to the scheduled outbox,
+ * so asynchronous method execution is not enabled.
+ * Both keep their platform threads when virtual threads are enabled (spring.threads.virtual.enabled on Java 21),
+ * as one needs ordering and the other is CPU bound.
  */
 @Configuration
-@EnableAsync
 public class AsyncConfig {
     
     /**
-     * Creates a custom thread pool executor for mail-related tasks.
-     * This executor is configured with specific thread pool settings to handle asynchronous operations efficiently.
+     * Creates the executor that sends live score updates to spectators.
+     * A single thread keeps the updates of an event in the order their transactions committed,
+     * and keeps the organiser's scoring request from waiting on spectator connections.
      *
-     * @return an Executor configured for mail processing
+     * @return an Executor configured for live score fan-out
      */
-    @Bean(name = "mailExecutor")
-    public Executor mailExecutor() {
+    @Bean(name = "liveScoreExecutor")
+    public Executor liveScoreExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2); // Minimum number of threads in the pool
-        executor.setMaxPoolSize(4); // Maximum number of threads in the pool
-        executor.setQueueCapacity(50); // Capacity of the task queue
-        executor.setThreadNamePrefix("MailThread-"); // Prefix for thread names
+        executor.setCorePoolSize(1); // One thread, so updates are sent in commit order
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1000); // Capacity of the task queue
+        executor.setThreadNamePrefix("LiveScoreThread-"); // Prefix for thread names
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Creates the executor that converts the poules of an event in parallel.
+     * The work is CPU bound, so the pool has one thread per processor. When the queue is full the
+     * requesting thread converts the poule itself, which bounds the backlog without failing the request.
+     *
+     * @return an Executor configured for per-poule conversion
+     */
+    @Bean(name = "pouleExecutor")
+    public Executor pouleExecutor() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(processors);
+        executor.setMaxPoolSize(processors);
+        executor.setQueueCapacity(500); // Capacity of the task queue
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("PouleThread-"); // Prefix for thread names
         executor.initialize();
         return executor;
     }
@@ -1,6 +1,8 @@
 package cs203.ftms.overall.security.config;
 
 import cs203.ftms.overall.security.service.JwtService;
+import cs203.ftms.overall.security.service.PrincipalCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,26 +32,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final HandlerExceptionResolver handlerExceptionResolver;
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
     /**
      * Constructs a new JwtAuthenticationFilter.
      *
      * @param jwtService            Service for handling JWT operations.
      * @param userDetailsService    Service for loading user details.
+     * @param principalCache        Cache of users already loaded by earlier requests.
      * @param handlerExceptionResolver Resolver for handling exceptions that occur during filtering.
      */
     public JwtAuthenticationFilter(
             JwtService jwtService,
             UserDetailsService userDetailsService,
+            PrincipalCache principalCache,
             HandlerExceptionResolver handlerExceptionResolver
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
         this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
     /**
      * Filters requests to authenticate users based on the JWT token in the "Authorization" header.
+     * The token is parsed once, and the user is served from the principal cache when possible.
      *
      * @param request     HttpServletRequest object containing client request data.
      * @param response    HttpServletResponse object for the response data.
@@ -72,14 +79,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            final Claims claims = jwtService.parseToken(jwt);
+            final String userEmail = claims.getSubject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
             if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = principalCache.get(userEmail);
+                if (userDetails == null) {
+                    userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                    principalCache.put(userDetails);
+                }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -64,10 +64,12 @@ public class SecurityConfiguration {
                         .requestMatchers("/api/v1/tournament/tournament-details/**").permitAll()
                         .requestMatchers("/api/v1/event/event-details/**").permitAll()
                         .requestMatchers("/api/v1/event/get-event-ranking/**").permitAll()
+                        .requestMatchers("/api/v1/event/live-scores/**").permitAll()
                         .requestMatchers("/api/v1/poule/get-poule-table/**").permitAll()
                         .requestMatchers("/api/v1/direct-elimination/get-direct-elimination-matches/**").permitAll()
                         .requestMatchers("/health/simple").permitAll()
                         .requestMatchers("/api/v1/poule/get-poules-result/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
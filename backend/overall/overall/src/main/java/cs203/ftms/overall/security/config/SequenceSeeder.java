@@ -0,0 +1,67 @@
+package cs203.ftms.overall.security.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import cs203.ftms.overall.model.tournamentrelated.Match;
+import cs203.ftms.overall.model.tournamentrelated.Poule;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Component that moves the ID sequences of entities that used to have identity columns past the IDs
+ * already in their tables, at startup and before any request is served.
+ * <p>
+ * MySQL has no sequences, so Hibernate keeps each sequence as a one-row table whose next_val column holds
+ * the next value to hand out. When ddl-auto creates that table on a database that already has rows, next_val
+ * starts at 1 and the first insert would collide with an existing ID. The seeder only ever raises next_val,
+ * so it is safe to run on every startup and on several instances at once.
+ */
+@Component
+public class SequenceSeeder {
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean tableBackedSequences;
+
+    /**
+     * Constructs the sequence seeder. Depending on the entity manager factory makes the seeder run
+     * after the schema, including the sequence tables, has been updated.
+     *
+     * @param jdbcTemplate the JDBC template used to read the IDs and update the sequences.
+     * @param entityManagerFactory the entity manager factory, used to tell whether sequences are backed by tables.
+     */
+    public SequenceSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableBackedSequences = !entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().supportsSequences();
+    }
+
+    /**
+     * Moves every ID sequence past the IDs already in its table.
+     * Databases with native sequences (H2 in tests) only ever had the sequences, so they are left as they are.
+     */
+    @PostConstruct
+    public void seedAll() {
+        if (!tableBackedSequences) {
+            return;
+        }
+        seed(Match.ID_SEQUENCE, "fencing_match", Match.ID_ALLOCATION_SIZE);
+        seed(Poule.ID_SEQUENCE, "poule", Poule.ID_ALLOCATION_SIZE);
+    }
+
+    /**
+     * Moves a table-backed sequence past the IDs already in a table. Hibernate hands out the allocationSize IDs
+     * up to and including the value it reads from next_val, so next_val is raised to MAX(id) + allocationSize
+     * for the first ID handed out to be MAX(id) + 1.
+     *
+     * @param sequence the name of the sequence's table.
+     * @param table the table whose IDs are drawn from the sequence.
+     * @param allocationSize the number of IDs taken from the sequence at a time.
+     * @return the number of sequences raised, 0 if the sequence was already past the IDs.
+     */
+    public int seed(String sequence, String table, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        long nextVal = maxId + allocationSize;
+        return jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?", nextVal, nextVal);
+    }
+}
@@ -2,6 +2,8 @@ package cs203.ftms.overall.security.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.config.PageableHandlerMethodArgumentResolverCustomizer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -36,4 +38,15 @@ public class WebConfig {
             }
         };
     }
+
+    /**
+     * Resolves a Pageable controller argument to Pageable.unpaged() when the request carries no page or size,
+     * so list endpoints only page when the client asks them to.
+     *
+     * @return a customizer that sets the fallback Pageable of the argument resolver.
+     */
+    @Bean
+    public PageableHandlerMethodArgumentResolverCustomizer pageableResolverCustomizer() {
+        return resolver -> resolver.setFallbackPageable(Pageable.unpaged());
+    }
 }
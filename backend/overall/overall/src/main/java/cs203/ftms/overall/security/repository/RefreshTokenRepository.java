@@ -4,6 +4,7 @@ import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import cs203.ftms.overall.model.userrelated.User;
 import cs203.ftms.overall.security.model.RefreshToken;
 
 /**
@@ -19,4 +20,13 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Inte
      * @return an Optional containing the matching RefreshToken if found, or empty otherwise.
      */
     Optional<RefreshToken> findByToken(String token);
+
+    /**
+     * Finds the RefreshToken of a user.
+     * The token is looked up from this side only, so that loading a user does not also load its token.
+     *
+     * @param user the user whose token to find.
+     * @return an Optional containing the user's RefreshToken if found, or empty otherwise.
+     */
+    Optional<RefreshToken> findByUser(User user);
 }
@@ -0,0 +1,167 @@
+package cs203.ftms.overall.security.service;
+
+import java.beans.PropertyDescriptor;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
+
+import cs203.ftms.overall.model.userrelated.User;
+
+/**
+ * Bounded cache of the users that JWT authentication has already loaded, keyed by username (email).
+ * Entries expire after a fixed time to live, and the least recently used entry is evicted once the
+ * cache is full. Entries are also evicted whenever the user's row changes, once the change commits,
+ * see {@link PrincipalCacheListener}, so a password change or profile update is seen on the next request.
+ * <p>
+ * The cache holds its own copy of each user and hands every caller a new copy of it, without the user's
+ * lazy collections. Requests are therefore free to change the principal they are given: neither a change
+ * rolled back with its transaction nor a concurrent request of the same user can reach the cached copy.
+ * A principal may be up to a time to live old, so services that write a user load its current row and
+ * change that, rather than saving the principal.
+ */
+@Service
+public class PrincipalCache {
+    private final long ttl;
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, Entry> entries;
+    private final Map<Integer, String> usernameById = new HashMap<>();
+
+    /**
+     * Constructs a principal cache.
+     *
+     * @param ttl the time to live of an entry, in milliseconds.
+     * @param maxSize the maximum number of users held.
+     */
+    @Autowired
+    public PrincipalCache(@Value("${security.principal-cache.ttl}") long ttl,
+                          @Value("${security.principal-cache.max-size}") int maxSize) {
+        this(ttl, maxSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a principal cache that reads the time from the given clock.
+     *
+     * @param ttl the time to live of an entry, in milliseconds.
+     * @param maxSize the maximum number of users held.
+     * @param clock the source of the current time, in milliseconds.
+     */
+    public PrincipalCache(long ttl, int maxSize, LongSupplier clock) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > PrincipalCache.this.maxSize) {
+                    unindex(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Gets a cached user.
+     *
+     * @param username the username (email) of the user.
+     * @return a copy of the cached user, or null if the user is not cached or its entry has expired.
+     */
+    public synchronized UserDetails get(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            entries.remove(username);
+            unindex(entry);
+            return null;
+        }
+        return copyOf(entry.user());
+    }
+
+    /**
+     * Caches a copy of a user under its username. Later changes to the given user are not seen by the cache.
+     *
+     * @param user the user to cache.
+     */
+    public synchronized void put(UserDetails user) {
+        if (maxSize <= 0) {
+            return;
+        }
+        String username = user.getUsername();
+        Entry previous = entries.put(username, new Entry(copyOf(user), username, clock.getAsLong() + ttl));
+        if (previous != null) {
+            unindex(previous);
+        }
+        if (user instanceof User u) {
+            String stale = usernameById.put(u.getId(), username);
+            if (stale != null && !stale.equals(username)) {
+                entries.remove(stale);
+            }
+        }
+    }
+
+    /**
+     * Evicts the cached entry of a user, whatever username it was cached under.
+     *
+     * @param userId the ID of the user.
+     */
+    public synchronized void evictUser(int userId) {
+        String username = usernameById.remove(userId);
+        if (username != null) {
+            entries.remove(username);
+        }
+    }
+
+    /**
+     * Evicts every cached user.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usernameById.clear();
+    }
+
+    /**
+     * Returns the number of cached users, including entries that have expired but not yet been read.
+     *
+     * @return the number of cached users.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Helper method to drop the ID index of an entry that is being removed
+    private void unindex(Entry entry) {
+        if (entry.user() instanceof User u) {
+            usernameById.remove(u.getId(), entry.username());
+        }
+    }
+
+    // Helper method to copy a user into a new instance of its class, leaving out its collections,
+    // which are lazily loaded and cannot be read once the user's session has closed
+    private static UserDetails copyOf(UserDetails user) {
+        UserDetails copy = BeanUtils.instantiateClass(user.getClass());
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(user.getClass())) {
+            if (property.getReadMethod() != null && property.getWriteMethod() != null
+                    && !Collection.class.isAssignableFrom(property.getPropertyType())) {
+                Object value = ReflectionUtils.invokeMethod(property.getReadMethod(), user);
+                ReflectionUtils.invokeMethod(property.getWriteMethod(), copy, value);
+            }
+        }
+        return copy;
+    }
+
+    private record Entry(UserDetails user, String username, long expiresAt) {
+    }
+}
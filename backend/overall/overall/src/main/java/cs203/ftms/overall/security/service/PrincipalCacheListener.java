@@ -0,0 +1,48 @@
+package cs203.ftms.overall.security.service;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import cs203.ftms.overall.model.userrelated.User;
+import cs203.ftms.overall.service.TransactionCallbacks;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that evicts users from the {@link PrincipalCache} when they change.
+ * Registered on {@link User}, where any update (password, profile, points, lock) evicts the user.
+ * <p>
+ * The listener is called when the change is flushed, before it commits, so the eviction is deferred until the
+ * transaction commits. Evicting at flush time would let a concurrent request of the same user cache the old
+ * committed row again for the whole time to live. The cache holds no collections of the user, so registering
+ * for or unregistering from an event does not evict the fencer.
+ */
+public class PrincipalCacheListener {
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    /**
+     * Constructs the listener. Hibernate creates it through Spring, which supplies the cache.
+     *
+     * @param principalCache provider of the principal cache, which may be absent outside the web application.
+     */
+    public PrincipalCacheListener(ObjectProvider<PrincipalCache> principalCache) {
+        this.principalCache = principalCache;
+    }
+
+    /**
+     * Evicts a user once the transaction that wrote it commits.
+     *
+     * @param user the User that changed.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        PrincipalCache cache = principalCache.getIfAvailable();
+        if (cache == null) {
+            return;
+        }
+        int id = user.getId();
+        TransactionCallbacks.afterCommit(() -> cache.evictUser(id));
+    }
+}
@@ -39,10 +39,7 @@ public class RefreshTokenService {
      * @return the newly created RefreshToken entity.
      */
     public RefreshToken createRefreshToken(User user) {
-        RefreshToken oldRT = user.getRefreshToken();
-        if (oldRT != null) {
-            refreshTokenRepository.delete(oldRT);
-        }
+        refreshTokenRepository.findByUser(user).ifPresent(refreshTokenRepository::delete);
         RefreshToken refreshToken = new RefreshToken(UUID.randomUUID().toString(), Instant.now().plusMillis(expiry), user);
         return refreshTokenRepository.save(refreshToken);
     }
@@ -0,0 +1,31 @@
+package cs203.ftms.overall.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * A utility class for running work that depends on the outcome of the current transaction.
+ */
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {}
+
+    /**
+     * Runs an action once the current transaction commits, or immediately when there is no transaction.
+     * The action is dropped if the transaction rolls back.
+     *
+     * @param action the action to run, such as invalidating a cache or publishing a change.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -2,19 +2,71 @@ package cs203.ftms.overall.service.admin;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.concurrent.CompletableFuture;
+
+import cs203.ftms.overall.model.mailrelated.OutboxMail;
+import cs203.ftms.overall.repository.mailrelated.OutboxMailRepository;
+import cs203.ftms.overall.service.scheduling.JobLeaseService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service class for handling email-related operations.
- * Uses Spring's JavaMailSender to send emails asynchronously.
+ * Mails are queued in the outbox_mail table in the caller's transaction, so a mail is only sent if the change
+ * it reports is committed, and is not lost if the mail server is down. The queue is sent in batches, each over
+ * a single SMTP connection, and a failed mail is retried with exponential backoff until it runs out of attempts.
+ * Mails a user is waiting for are sent before bulk notices, so a password reset does not wait behind the
+ * notices of a night's cancellations. Sent mails are purged daily once they are older than mail.outbox.retention.
+ * <p>
+ * When several instances of the application run, only the one holding the dispatch job's lease sends mails,
+ * so two instances never send the same batch. The batch is sent outside any transaction, and only the mails'
+ * statuses are saved in a short transaction fenced by the lease, so no lock is held while the mail server is slow.
+ * A mail may be sent twice if the application stops, or loses the lease, between sending a batch and saving
+ * its status.
+ * The queue is reported to the metrics registry as mail.outbox.queued, mail.outbox.sent, mail.outbox.retried
+ * and mail.outbox.failed counters, a mail.outbox.pending gauge and a mail.outbox.dispatch timer.
  */
 @Service
 public class MailService {
+    private static final String DISPATCH_JOB = "mail-dispatch";
+    // taken over by another instance this long after the holder stopped mid-dispatch
+    private static final Duration DISPATCH_LEASE_AT_MOST = Duration.ofMinutes(2);
+    private static final String PURGE_JOB = "mail-purge";
+    private static final Duration PURGE_LEASE_AT_MOST = Duration.ofMinutes(30);
+    private static final Duration PURGE_LEASE_AT_LEAST = Duration.ofMinutes(10);
+
     private final JavaMailSender javaMailSender;
+    private final OutboxMailRepository outboxMailRepository;
+    private final JobLeaseService jobLeaseService;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelay;
+    private final long retention;
+
+    private final Counter queued;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer dispatch;
+    private final AtomicLong pending = new AtomicLong();
 
     @Value("${spring.mail.username}")
     private String gmailEmail;
@@ -23,32 +75,145 @@ public class MailService {
     private String gmailPassword;
 
     @Autowired
-    public MailService(JavaMailSender javaMailSender) {
+    public MailService(JavaMailSender javaMailSender, OutboxMailRepository outboxMailRepository, JobLeaseService jobLeaseService,
+            MeterRegistry meterRegistry, @Value("${mail.outbox.batch-size}") int batchSize,
+            @Value("${mail.outbox.max-attempts}") int maxAttempts, @Value("${mail.outbox.retry-delay}") long retryDelay,
+            @Value("${mail.outbox.retention}") long retention) {
         this.javaMailSender = javaMailSender;
+        this.outboxMailRepository = outboxMailRepository;
+        this.jobLeaseService = jobLeaseService;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.retention = retention;
+        this.queued = meterRegistry.counter("mail.outbox.queued");
+        this.sent = meterRegistry.counter("mail.outbox.sent");
+        this.retried = meterRegistry.counter("mail.outbox.retried");
+        this.failed = meterRegistry.counter("mail.outbox.failed");
+        this.dispatch = meterRegistry.timer("mail.outbox.dispatch");
+        meterRegistry.gauge("mail.outbox.pending", pending);
     }
 
     /**
-     * Sends an email asynchronously using the configured mail executor.
+     * Queues an email to be sent by the next dispatch.
+     * Inside a transaction the mail is only queued if the transaction commits.
      *
      * @param mailAddress the recipient's email address
      * @param title the subject of the email
      * @param content the body content of the email
-     * @return a CompletableFuture indicating the asynchronous execution of the email sending task
-     * @throws RuntimeException if sending the email fails
      */
-    @Async("mailExecutor")
-    public CompletableFuture<Void> sendMail(String mailAddress, String title, String content) {
-        return CompletableFuture.runAsync(() -> {
+    public void sendMail(String mailAddress, String title, String content) {
+        outboxMailRepository.save(new OutboxMail(mailAddress, title, content, LocalDateTime.now()));
+        queued.increment();
+    }
+
+    /**
+     * Queues a batch of emails to be sent by the next dispatches, in one batched insert.
+     * Inside a transaction the mails are only queued if the transaction commits.
+     *
+     * @param mails the mails to queue, each created as pending
+     */
+    public void sendMails(List<OutboxMail> mails) {
+        outboxMailRepository.saveAll(mails);
+        queued.increment(mails.size());
+    }
+
+    /**
+     * Scheduled task that sends the next batch of due mails over one SMTP connection.
+     * At most mail.outbox.batch-size mails are sent every mail.outbox.poll-interval, which caps the sending rate.
+     * Skipped if another instance holds the dispatch job's lease.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval}")
+    public void dispatchMails() {
+        jobLeaseService.runWithLease(DISPATCH_JOB, DISPATCH_LEASE_AT_MOST, Duration.ZERO, this::dispatchDueMails);
+    }
+
+    /**
+     * Scheduled task that runs daily at half past midnight to delete the mails sent more than
+     * mail.outbox.retention ago, so that the outbox does not grow without bound.
+     * Failed mails are kept for inspection. Skipped if another instance holds the job's lease.
+     */
+    @Scheduled(cron = "0 30 0 * * ?")
+    public void purgeSentMails() {
+        jobLeaseService.runExclusively(PURGE_JOB, PURGE_LEASE_AT_MOST, PURGE_LEASE_AT_LEAST,
+                () -> outboxMailRepository.deleteSentBefore(LocalDateTime.now().minus(retention, ChronoUnit.MILLIS)));
+    }
+
+    // Helper method to send the next batch of due mails, then save their statuses in a transaction
+    // fenced by the dispatch job's lease
+    private void dispatchDueMails(long token) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMail> due = outboxMailRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (!due.isEmpty()) {
+            dispatch.record(() -> sendBatch(due, now));
+            jobLeaseService.runFenced(DISPATCH_JOB, token, () -> outboxMailRepository.saveAll(due));
+        }
+        pending.set(outboxMailRepository.countByStatus(OutboxMail.PENDING));
+    }
+
+    // Helper method to send a batch of mails and record the outcome of each
+    private void sendBatch(List<OutboxMail> mails, LocalDateTime now) {
+        Map<MimeMessage, OutboxMail> messages = new LinkedHashMap<>();
+        for (OutboxMail mail : mails) {
             try {
-                SimpleMailMessage msg = new SimpleMailMessage();
-                msg.setFrom(gmailEmail);
-                msg.setTo(mailAddress);
-                msg.setSubject(title);
-                msg.setText(content);
-                javaMailSender.send(msg);
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to send email", e);
+                messages.put(createMessage(mail), mail);
+            } catch (MessagingException e) {
+                recordFailure(mail, e, now);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        Map<Object, Exception> failedMessages = Map.of();
+        try {
+            javaMailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // lists the messages that were not sent, including all of them if the server could not be reached
+            failedMessages = e.getFailedMessages();
+        } catch (MailException e) {
+            for (OutboxMail mail : messages.values()) {
+                recordFailure(mail, e, now);
+            }
+            return;
+        }
+
+        for (Map.Entry<MimeMessage, OutboxMail> entry : messages.entrySet()) {
+            Exception e = failedMessages.get(entry.getKey());
+            if (e != null) {
+                recordFailure(entry.getValue(), e, now);
+            } else {
+                entry.getValue().setStatus(OutboxMail.SENT);
+                entry.getValue().setSentAt(now);
+                sent.increment();
             }
-        });
+        }
+    }
+
+    // Helper method to build the message of a queued mail
+    private MimeMessage createMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, StandardCharsets.UTF_8.name());
+        helper.setFrom(gmailEmail);
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getContent());
+        return message;
+    }
+
+    // Helper method to schedule the retry of a failed mail, doubling the delay after each attempt,
+    // or to give up on it once it has used all its attempts
+    private void recordFailure(OutboxMail mail, Exception e, LocalDateTime now) {
+        mail.setAttempts(mail.getAttempts() + 1);
+        String error = String.valueOf(e.getMessage());
+        mail.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+        if (mail.getAttempts() >= maxAttempts) {
+            mail.setStatus(OutboxMail.FAILED);
+            failed.increment();
+            return;
+        }
+        long delay = retryDelay << Math.min(mail.getAttempts() - 1, 20);
+        mail.setNextAttemptAt(now.plus(delay, ChronoUnit.MILLIS));
+        retried.increment();
     }
 }
@@ -0,0 +1,129 @@
+package cs203.ftms.overall.service.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import cs203.ftms.overall.datastructure.EventPointsSnapshot;
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.service.TransactionCallbacks;
+
+/**
+ * Bounded cache of the points snapshots of events, used by the chatbot's predictions.
+ * A snapshot is taken the first time an event is asked for, and kept until a fencer registers for or
+ * unregisters from the event, the event is deleted, or the fencers' points change when an event ends.
+ * Those invalidations only reach the instance that made the change, so snapshots also expire after a fixed
+ * time to live, after which changes made through other instances are picked up. The least recently used
+ * snapshot is evicted once the cache is full.
+ * <p>
+ * Invalidations take effect after the changing transaction commits, and a snapshot taken while an
+ * invalidation happened is not kept, so a snapshot of data read before a commit is never served after it.
+ */
+@Service
+public class EventSnapshotCache {
+    private final long ttl;
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final LinkedHashMap<Integer, Entry> snapshots;
+    private long version;
+
+    /**
+     * Constructs an event snapshot cache.
+     *
+     * @param ttl the time to live of a snapshot, in milliseconds.
+     * @param maxSize the maximum number of snapshots held.
+     */
+    @Autowired
+    public EventSnapshotCache(@Value("${event-snapshot-cache.ttl}") long ttl,
+                              @Value("${event-snapshot-cache.max-size}") int maxSize) {
+        this(ttl, maxSize, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs an event snapshot cache that reads the time from the given clock.
+     *
+     * @param ttl the time to live of a snapshot, in milliseconds.
+     * @param maxSize the maximum number of snapshots held.
+     * @param clock the source of the current time, in milliseconds.
+     */
+    public EventSnapshotCache(long ttl, int maxSize, LongSupplier clock) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                return size() > EventSnapshotCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the snapshot of an event, taking it if it is not cached or its snapshot has expired.
+     *
+     * @param eid the ID of the event.
+     * @param loader loads the event with its registrants; only called if the snapshot is not cached.
+     * @return the snapshot of the event.
+     */
+    public EventPointsSnapshot get(int eid, Supplier<Event> loader) {
+        long loadedAt;
+        synchronized (this) {
+            Entry entry = snapshots.get(eid);
+            if (entry != null && entry.expiresAt() > clock.getAsLong()) {
+                return entry.snapshot();
+            }
+            loadedAt = version;
+        }
+        EventPointsSnapshot snapshot = new EventPointsSnapshot(loader.get().getFencers());
+        synchronized (this) {
+            if (version == loadedAt && maxSize > 0) {
+                snapshots.put(eid, new Entry(snapshot, clock.getAsLong() + ttl));
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Invalidates the snapshot of an event once the current transaction commits.
+     *
+     * @param eid the ID of the event whose registrants changed.
+     */
+    public void invalidateEvent(int eid) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                version++;
+                snapshots.remove(eid);
+            }
+        });
+    }
+
+    /**
+     * Invalidates every snapshot once the current transaction commits.
+     * Used when fencers' points change, as a fencer can be registered for any number of events.
+     */
+    public void invalidateAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                version++;
+                snapshots.clear();
+            }
+        });
+    }
+
+    /**
+     * Returns the number of cached snapshots, including snapshots that have expired but not yet been read.
+     *
+     * @return the number of cached snapshots.
+     */
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+    private record Entry(EventPointsSnapshot snapshot, long expiresAt) {
+    }
+}
@@ -0,0 +1,205 @@
+package cs203.ftms.overall.service.cache;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.repository.cacherelated.CacheVersionRepository;
+
+/**
+ * Read-through cache of the responses of the public read endpoints, keyed by event or tournament ID.
+ * Every event and tournament has a version in the database that the services bump when they change it,
+ * and a cached response is only served while the version it was built at is still current. The version is
+ * also the response's ETag, so a client that sends a current ETag in If-None-Match can be answered with
+ * 304 Not Modified before anything but the version is loaded.
+ * <p>
+ * Versions are bumped in the changing transaction, just before it commits, so every instance of the
+ * application sees the new version, and stops serving the responses it built before, as soon as the change
+ * is visible. A response built from data read before the commit is therefore always tagged with the old version.
+ * Changing an event also bumps its tournament, whose details list the event.
+ */
+@Service
+public class ResponseCache {
+    private static final String ALL = "all";
+
+    private final CacheVersionRepository cacheVersionRepository;
+    private final int maxSize;
+    private final LinkedHashMap<String, Entry> entries;
+
+    /**
+     * Constructs a response cache.
+     *
+     * @param cacheVersionRepository the repository of the versions shared by every instance.
+     * @param maxSize the maximum number of responses held; the least recently used is evicted beyond it.
+     */
+    @Autowired
+    public ResponseCache(CacheVersionRepository cacheVersionRepository,
+                         @Value("${response-cache.max-size}") int maxSize) {
+        this.cacheVersionRepository = cacheVersionRepository;
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the current ETag of the responses about an event.
+     *
+     * @param eid the ID of the event.
+     * @return the quoted ETag.
+     */
+    public String getEventETag(int eid) {
+        return getETag("e" + eid);
+    }
+
+    /**
+     * Gets the current ETag of the responses about a tournament.
+     *
+     * @param tid the ID of the tournament.
+     * @return the quoted ETag.
+     */
+    public String getTournamentETag(int tid) {
+        return getETag("t" + tid);
+    }
+
+    /**
+     * Gets the ETag of one representation of the responses with an ETag, such as one of the media types a URL
+     * can be served in. The representations of a URL must have different ETags, or a client holding one of them
+     * would be answered 304 Not Modified when it asks for another.
+     *
+     * @param eTag the quoted ETag, read from getEventETag or getTournamentETag.
+     * @param representation the name of the representation, such as "cbor".
+     * @return the quoted ETag of the representation.
+     */
+    public static String getRepresentationETag(String eTag, String representation) {
+        return eTag.substring(0, eTag.length() - 1) + "-" + representation + "\"";
+    }
+
+    /**
+     * Gets a cached response, building and caching it if it is missing or was built at an older version.
+     *
+     * @param view the name of the endpoint, such as "poule-table".
+     * @param id the ID of the event or tournament the response is about.
+     * @param eTag the ETag of the response, read from getEventETag or getTournamentETag before building it.
+     * @param loader builds the response; nothing is cached if it throws.
+     * @return the cached or newly built response.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String view, int id, String eTag, Supplier<T> loader) {
+        String key = view + "/" + id;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.eTag().equals(eTag)) {
+                return (T) entry.response();
+            }
+        }
+        T response = loader.get();
+        if (maxSize > 0) {
+            synchronized (this) {
+                entries.put(key, new Entry(eTag, response));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Invalidates the responses about an event and its tournament once the current transaction commits.
+     *
+     * @param event the event that changed.
+     */
+    public void invalidateEvent(Event event) {
+        invalidateEvent(event.getId(), event.getTournament().getId());
+    }
+
+    /**
+     * Invalidates the responses about an event and its tournament once the current transaction commits.
+     *
+     * @param eid the ID of the event that changed.
+     * @param tid the ID of the tournament hosting the event.
+     */
+    public void invalidateEvent(int eid, int tid) {
+        bump("e" + eid, "t" + tid);
+    }
+
+    /**
+     * Invalidates the responses about a tournament once the current transaction commits.
+     *
+     * @param tid the ID of the tournament that changed.
+     */
+    public void invalidateTournament(int tid) {
+        bump("t" + tid);
+    }
+
+    /**
+     * Invalidates every response once the current transaction commits.
+     * Used for changes that can appear in any event, such as a fencer's name.
+     */
+    public void invalidateAll() {
+        bump(ALL);
+    }
+
+    /**
+     * Returns the number of cached responses, including those built at an older version.
+     *
+     * @return the number of cached responses.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Helper method to build an ETag from the global version and the version of an event or tournament
+    private String getETag(String name) {
+        return "\"" + name + "-" + cacheVersionRepository.sumVersions(List.of(ALL, name)) + "\"";
+    }
+
+    // Helper method to bump versions just before the current transaction commits, or immediately outside one
+    private void bump(String... names) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            new TreeSet<>(List.of(names)).forEach(cacheVersionRepository::bump);
+            return;
+        }
+        PendingBumps pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps p && p.isOf(this)) {
+                pending = p;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingBumps();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        Collections.addAll(pending.names, names);
+    }
+
+    // The versions a transaction bumps, bumped once each and in the order of their names,
+    // so that two transactions locking the same versions never wait on each other
+    private class PendingBumps implements TransactionSynchronization {
+        private final SortedSet<String> names = new TreeSet<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            names.forEach(cacheVersionRepository::bump);
+        }
+
+        private boolean isOf(ResponseCache cache) {
+            return ResponseCache.this == cache;
+        }
+    }
+
+    private record Entry(String eTag, Object response) {
+    }
+}
@@ -1,38 +1,37 @@
 package cs203.ftms.overall.service.chatbot;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import cs203.ftms.overall.comparator.TournamentFencerComparator;
+import cs203.ftms.overall.datastructure.EventPointsSnapshot;
+import cs203.ftms.overall.datastructure.PointsDistribution;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.tournamentrelated.Tournament;
-import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
-import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
 
 /**
  * Service class for chatbot-related functionalities.
  * Provides methods to calculate projected points, expected rank,
  * win rates, and recommend suitable tournaments for fencers.
+ * Predictions are made from a cached points snapshot of each event, so each is a binary search
+ * over the registrants' points rather than a sort of the event's fencers.
  */
 @Service
 public class ChatbotService {
-    private final TournamentRepository tournamentRepository;
     private final EventRepository eventRepository;
+    private final EventSnapshotCache eventSnapshotCache;
 
     @Autowired
-    public ChatbotService(TournamentRepository tournamentRepository, EventRepository eventRepository) {
-        this.tournamentRepository = tournamentRepository;
+    public ChatbotService(EventRepository eventRepository, EventSnapshotCache eventSnapshotCache) {
         this.eventRepository = eventRepository;
+        this.eventSnapshotCache = eventSnapshotCache;
     }
 
     /**
@@ -40,49 +39,30 @@ public class ChatbotService {
      *
      * @param eid the ID of the event
      * @param f the fencer participating in the event
-     * @return the projected points earned by the fencer
+     * @return the projected points earned by the fencer, or 0 if the fencer is not expected to earn points
      * @throws EntityDoesNotExistException if the event does not exist
      */
     public int getProjectedPointsEarned(int eid, Fencer f) {
-        Event e = eventRepository.findById(eid).orElseThrow(() -> new EntityDoesNotExistException("Event does not exist!"));
-        int expectedRank = expectedRank(e, f);
-        double numOfFencersThatGetPoints = e.getFencers().size() * 0.8;
-        int totalPoints = getPointsForDistribution(e.getFencers());
-        int projectedPoints = calculatePoints(expectedRank, totalPoints, (int) numOfFencersThatGetPoints);
-        return projectedPoints;
+        EventPointsSnapshot snapshot = getSnapshot(eid);
+        int expectedRank = snapshot.expectedRank(f.getPoints());
+        int numOfFencersThatGetPoints = (int) (snapshot.size() * 0.8);
+        if (expectedRank > numOfFencersThatGetPoints) {
+            return 0;
+        }
+        return calculatePoints(expectedRank, snapshot.getPointsForDistribution(), numOfFencersThatGetPoints);
     }
 
     /**
-     * Calculates the expected rank of a fencer in a specific event.
+     * Calculates the expected rank of a fencer in a specific event,
+     * one more than the number of registrants with more points.
      *
-     * @param e the event to evaluate
+     * @param eid the ID of the event
      * @param f the fencer whose rank is being calculated
      * @return the expected rank of the fencer
+     * @throws EntityDoesNotExistException if the event does not exist
      */
-    public int expectedRank(Event e, Fencer f) {
-        Set<TournamentFencer> t = e.getFencers();
-        List<TournamentFencer> fencers = new ArrayList<>(t);
-        Collections.sort(fencers, new TournamentFencerComparator());
-        for (TournamentFencer tf : fencers) {
-            if (tf.getFencer().getPoints() <= f.getPoints()) {
-                return fencers.indexOf(tf) + 1;
-            }
-        }
-        return fencers.size() + 1;
-    }
-
-    /**
-     * Calculates the points for distribution in an event based on participating fencers.
-     *
-     * @param tfencers the set of fencers participating in the event
-     * @return the total points to be distributed
-     */
-    public int getPointsForDistribution(Set<TournamentFencer> tfencers) {
-        int total = 0;
-        for (TournamentFencer f : tfencers) {
-            total += f.getFencer().getPoints();
-        }
-        return total / 5;
+    public int expectedRank(int eid, Fencer f) {
+        return getSnapshot(eid).expectedRank(f.getPoints());
     }
 
     /**
@@ -94,50 +74,45 @@ public class ChatbotService {
      * @return the points earned by the fencer
      */
     public int calculatePoints(int rank, int totalPoints, int totalFencers) {
-        double numerator = totalPoints * Math.pow(totalFencers - rank + 1, 2);
-        double denominator = sumOfPowers(totalFencers, 2);
-        return (int) (numerator / denominator);
-    }
-
-    private static double sumOfPowers(int n, int exponent) {
-        double sum = 0;
-        for (int i = 1; i <= n; i++) {
-            sum += Math.pow(i, exponent);
-        }
-        return sum;
+        return PointsDistribution.calculatePoints(rank, totalPoints, totalFencers);
     }
 
     /**
-     * Recommends tournaments suitable for a fencer based on their experience, gender, and weapon.
+     * Recommends upcoming tournaments suitable for a fencer based on their experience, gender, and weapon.
+     * The candidate events are narrowed down by the database to upcoming events of the fencer's gender and weapon
+     * in tournaments of a difficulty the fencer is experienced enough for; of these, an event is only recommended
+     * if the fencer is not expected to have a tough fight, unless its tournament is for beginners.
      *
      * @param f the fencer for whom tournaments are recommended
-     * @return a list of tournaments suitable for the fencer
+     * @return a list of tournaments suitable for the fencer, soonest first
      */
     public List<Tournament> getRecommendedTournaments(Fencer f) {
-        char weapon = f.getWeapon();
-        char gender = f.getGender();
         int experience = LocalDate.now().getYear() - f.getDebutYear();
-        return tournamentRepository.findAll().stream()
-                .filter(t -> isTournamentSuitable(t, experience))
-                .filter(t -> t.getEvents().stream()
-                .anyMatch(e -> isEventSuitable(e, gender, weapon, f)))
+        // a tournament has at most one event of each gender and weapon, so each candidate is a different tournament
+        return eventRepository.findRecommendationCandidates(LocalDate.now(), getSuitableDifficulties(experience),
+                f.getGender(), f.getWeapon()).stream()
+                .filter(e -> isEventSuitable(e, f))
+                .map(Event::getTournament)
                 .collect(Collectors.toList());
     }
 
-    private boolean isTournamentSuitable(Tournament t, int experience) {
+    // Helper method to get the tournament difficulties a fencer is experienced enough for
+    private List<Character> getSuitableDifficulties(int experience) {
         if (experience > 5) {
-            return true;
+            return List.of('A', 'B', 'I');
         } else if (experience > 3) {
-            return t.getDifficulty() != 'A';
+            return List.of('B', 'I');
         }
-        return t.getDifficulty() == 'B';
+        return List.of('B');
     }
 
-    private boolean isEventSuitable(Event e, char gender, char weapon, Fencer f) {
-        if (calculateWinrate(e.getId(), f) == 3) {
-            return e.getTournament().getDifficulty() == 'B';
+    // Helper method to check whether a candidate event is not a tough fight for the fencer,
+    // or is in a beginner tournament
+    private boolean isEventSuitable(Event e, Fencer f) {
+        if (e.getTournament().getDifficulty() == 'B') {
+            return true;
         }
-        return e.getGender() == gender && e.getWeapon() == weapon && calculateWinrate(e.getId(), f) < 3;
+        return calculateWinrate(eventSnapshotCache.get(e.getId(), () -> e), f) != 3;
     }
 
     /**
@@ -166,17 +141,21 @@ public class ChatbotService {
      * @throws EntityDoesNotExistException if the event does not exist
      */
     public int calculateWinrate(int eid, Fencer f) {
-        int ifFencerInEvent = 1;
+        return calculateWinrate(getSnapshot(eid), f);
+    }
 
-        Event e = eventRepository.findById(eid).orElseThrow(() -> new EntityDoesNotExistException("Event does not exist!"));
+    // Helper method to get the points snapshot of an event, loading the event if it is not cached
+    private EventPointsSnapshot getSnapshot(int eid) {
+        return eventSnapshotCache.get(eid,
+                () -> eventRepository.findById(eid).orElseThrow(() -> new EntityDoesNotExistException("Event does not exist!")));
+    }
 
-        for (TournamentFencer tf : e.getFencers()) {
-            if (tf.getFencer().getId() == f.getId()) {
-                ifFencerInEvent = 0;
-            }
-        }
-        int expectedRank = expectedRank(e, f);
-        int totalFencers = e.getFencers().size() + ifFencerInEvent;
+    // Helper method to calculate the win rate category of a fencer from an event's snapshot,
+    // counting the fencer among the registrants if not registered yet
+    private int calculateWinrate(EventPointsSnapshot snapshot, Fencer f) {
+        int ifFencerInEvent = snapshot.contains(f.getId()) ? 0 : 1;
+        int expectedRank = snapshot.expectedRank(f.getPoints());
+        int totalFencers = snapshot.size() + ifFencerInEvent;
         if (totalFencers == 1 || expectedRank <= totalFencers / 10) {
             return 1;
         } else if (expectedRank <= totalFencers / 2) {
@@ -1,78 +1,123 @@
 package cs203.ftms.overall.service.event;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import cs203.ftms.overall.dto.projection.EventFencerSummary;
+import cs203.ftms.overall.model.mailrelated.OutboxMail;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.tournamentrelated.Tournament;
-import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
-import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
-import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
+import cs203.ftms.overall.security.service.PrincipalCache;
 import cs203.ftms.overall.service.admin.MailService;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
+import cs203.ftms.overall.service.cache.ResponseCache;
+import cs203.ftms.overall.service.scheduling.JobLeaseService;
 
 /**
  * Scheduler component for managing event-related tasks.
  * Responsible for checking if events have sufficient participants 
  * and handling event cancellations.
+ * All the events cancelled in a night are cancelled together in one transaction with a fixed number of
+ * statements, whatever the number of events and registrants: one query for the events, one for their
+ * registrants, one bulk delete each for the registrations and the events, and one batch of queued mails.
+ * When several instances of the application run, only the one that acquires the job's lease cancels the events.
  */
 @Component
 public class EventScheduler {
-    private final TournamentRepository tournamentRepository;
+    private static final String CANCELLATION_TITLE = "Event Cancellation";
+    private static final String CANCELLATION_JOB = "event-cancellation";
+    // held long enough for instances whose clocks differ by a few minutes not to run the job twice a night
+    private static final Duration CANCELLATION_LEASE_AT_MOST = Duration.ofMinutes(30);
+    private static final Duration CANCELLATION_LEASE_AT_LEAST = Duration.ofMinutes(10);
+
     private final EventRepository eventRepository;
-    private final EventService eventService;
+    private final TournamentFencerRepository tournamentFencerRepository;
     private final MailService mailService;
+    private final ResponseCache responseCache;
+    private final EventSnapshotCache eventSnapshotCache;
+    private final PrincipalCache principalCache;
+    private final JobLeaseService jobLeaseService;
 
-    public EventScheduler(TournamentRepository tournamentRepository, EventRepository eventRepository, EventService eventService, MailService mailService) {
-        this.tournamentRepository = tournamentRepository;
+    public EventScheduler(EventRepository eventRepository, TournamentFencerRepository tournamentFencerRepository, MailService mailService, ResponseCache responseCache, EventSnapshotCache eventSnapshotCache, PrincipalCache principalCache, JobLeaseService jobLeaseService) {
         this.eventRepository = eventRepository;
-        this.eventService = eventService;
+        this.tournamentFencerRepository = tournamentFencerRepository;
         this.mailService = mailService;
+        this.responseCache = responseCache;
+        this.eventSnapshotCache = eventSnapshotCache;
+        this.principalCache = principalCache;
+        this.jobLeaseService = jobLeaseService;
     }
 
     /**
      * Scheduled task that runs daily at midnight to check if events
      * have sufficient participants and cancels those that do not.
+     * The registrants and organisers of the cancelled events are notified by mail once the cancellation commits.
+     * Skipped if another instance holds the job's lease.
      */
     @Scheduled(cron = "0 0 0 * * ?")
     public void checkEventHasEnoughParticipants() {
-        List<Tournament> tournaments = tournamentRepository.findBySignupEndDate(LocalDate.now().minusDays(1));
-        for (Tournament tournament : tournaments) {
-            for (Event event : tournament.getEvents()) {
-                if (event.getParticipantCount() < event.getMinParticipants()) {
-                    handleEventCancellation(tournament, event);
-                }
-            }
-        }
+        jobLeaseService.runExclusively(CANCELLATION_JOB, CANCELLATION_LEASE_AT_MOST, CANCELLATION_LEASE_AT_LEAST,
+                this::cancelUnderSubscribedEvents);
     }
 
-    private void handleEventCancellation(Tournament tournament, Event event) {
-        notifyFencers(event);
-        eventRepository.delete(event);
-        notifyOrganiser(tournament, event);
-    }
+    // Helper method to cancel the events whose signup ended yesterday without enough participants,
+    // in the transaction fenced by the job's lease
+    private void cancelUnderSubscribedEvents() {
+        List<Event> events = eventRepository.findUnderSubscribedBySignupEndDate(LocalDate.now().minusDays(1));
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<Integer, Event> eventsById = new HashMap<>();
+        for (Event event : events) {
+            eventsById.put(event.getId(), event);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxMail> mails = new ArrayList<>();
+        for (EventFencerSummary fencer : tournamentFencerRepository.findFencerSummariesByEventIds(eventsById.keySet())) {
+            mails.add(createFencerMail(fencer, eventsById.get(fencer.getEventId()), now));
+            // the bulk delete bypasses the listener that evicts a fencer whose registrations changed
+            principalCache.evictUser(fencer.getId());
+        }
+        for (Event event : events) {
+            mails.add(createOrganiserMail(event.getTournament(), event, now));
+        }
 
-    private void notifyFencers(Event event) {
-        for (TournamentFencer tfencer : event.getFencers()) {
-            Fencer fencer = tfencer.getFencer();
-            eventService.unregisterEvent(event.getId(), fencer);
-            String content = String.format(
-                "Dear %s,\n\nWe regret to inform you that the event you registered for %s (%s %s) has been cancelled due to insufficient participants. We hope to see you in future events.\n\nBest Regards,\nFTMS",
-                fencer.getName(), event.getTournament().getName(), getGenderString(event.getGender()), getWeaponString(event.getWeapon())
-            );
-            mailService.sendMail(fencer.getEmail(), "Event Cancellation", content);
+        tournamentFencerRepository.deleteByEventIds(eventsById.keySet());
+        eventRepository.deleteByIds(eventsById.keySet());
+        mailService.sendMails(mails);
+        for (Event event : events) {
+            responseCache.invalidateEvent(event.getId(), event.getTournament().getId());
+            eventSnapshotCache.invalidateEvent(event.getId());
         }
     }
 
-    private void notifyOrganiser(Tournament tournament, Event event) {
+    // Helper method to create the mail telling a registrant that an event was cancelled
+    private OutboxMail createFencerMail(EventFencerSummary fencer, Event event, LocalDateTime now) {
+        String content = String.format(
+            "Dear %s,\n\nWe regret to inform you that the event you registered for %s (%s %s) has been cancelled due to insufficient participants. We hope to see you in future events.\n\nBest Regards,\nFTMS",
+            fencer.getName(), event.getTournament().getName(), getGenderString(event.getGender()), getWeaponString(event.getWeapon())
+        );
+        return new OutboxMail(fencer.getEmail(), CANCELLATION_TITLE, content, now, OutboxMail.PRIORITY_BULK);
+    }
+
+    // Helper method to create the mail telling an organiser that an event was cancelled
+    private OutboxMail createOrganiserMail(Tournament tournament, Event event, LocalDateTime now) {
         String content = String.format(
             "Dear %s,\n\nWe regret to inform you that the event %s (%s %s) has been cancelled due to insufficient participants. Sorry for the inconvenience caused.\n\nBest Regards,\nFTMS",
             tournament.getOrganiser().getName(), tournament.getName(), getGenderString(event.getGender()), getWeaponString(event.getWeapon())
         );
-        mailService.sendMail(tournament.getOrganiser().getEmail(), "Event Cancellation", content);
+        return new OutboxMail(tournament.getOrganiser().getEmail(), CANCELLATION_TITLE, content, now, OutboxMail.PRIORITY_BULK);
     }
 
     private String getGenderString(char gender) {
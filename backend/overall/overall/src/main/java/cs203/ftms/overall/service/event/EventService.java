@@ -7,16 +7,22 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import cs203.ftms.overall.comparator.TournamentFencerComparator;
+import cs203.ftms.overall.datastructure.PointsDistribution;
 import cs203.ftms.overall.dto.CreateEventDTO;
 import cs203.ftms.overall.dto.UpdateEventDTO;
 import cs203.ftms.overall.dto.clean.CleanEventDTO;
 import cs203.ftms.overall.dto.clean.CleanFencerDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentFencerDTO;
+import cs203.ftms.overall.dto.projection.EventSummary;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.exception.EventAlreadyExistsException;
 import cs203.ftms.overall.exception.EventCannotEndException;
@@ -34,8 +40,11 @@ import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.fencer.FencerService;
 import cs203.ftms.overall.validation.OtherValidations;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 
 /**
@@ -51,17 +60,24 @@ public class EventService {
     private final FencerService fencerService;
     private final DirectEliminationMatchRepository directEliminationMatchRepository; 
     private final TournamentFencerRepository tournamentFencerRepository;
+    private final EntityManager entityManager;
+    private final ResponseCache responseCache;
+    private final EventSnapshotCache eventSnapshotCache;
 
     @Autowired
     public EventService(TournamentRepository tournamentRepository, EventRepository eventRepository, UserRepository userRepository, 
                         FencerService fencerService, DirectEliminationMatchRepository directEliminationMatchRepository, 
-                        TournamentFencerRepository tournamentFencerRepository) {
+                        TournamentFencerRepository tournamentFencerRepository, EntityManager entityManager,
+                        ResponseCache responseCache, EventSnapshotCache eventSnapshotCache) {
         this.tournamentRepository = tournamentRepository;
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
         this.fencerService = fencerService; 
         this.directEliminationMatchRepository = directEliminationMatchRepository; 
         this.tournamentFencerRepository = tournamentFencerRepository;
+        this.entityManager = entityManager;
+        this.responseCache = responseCache;
+        this.eventSnapshotCache = eventSnapshotCache;
     }
 
     /**
@@ -72,14 +88,19 @@ public class EventService {
      * @return a list of future events matching the criteria
      */
     public List<Event> getFutureEventsByGenderAndWeapon(char gender, char weapon) {
-        List<Event> events = eventRepository.findByGenderAndWeapon(gender, weapon);
-        List<Event> eventsToReturn = new ArrayList<>();
-        for (Event e : events) {
-            if (e.getTournament().getStartDate().isAfter(LocalDate.now())) {
-                eventsToReturn.add(e);
-            }
-        }
-        return eventsToReturn;
+        return getFutureEventsByGenderAndWeapon(gender, weapon, Pageable.unpaged());
+    }
+
+    /**
+     * Retrieves a page of future events for a specific gender and weapon, soonest first.
+     *
+     * @param gender   the gender of the events to retrieve
+     * @param weapon   the weapon type of the events to retrieve
+     * @param pageable the page of events to retrieve
+     * @return a list of future events matching the criteria
+     */
+    public List<Event> getFutureEventsByGenderAndWeapon(char gender, char weapon, Pageable pageable) {
+        return eventRepository.findUpcomingByGenderAndWeapon(gender, weapon, LocalDate.now(), pageable);
     }
 
     /**
@@ -150,6 +171,7 @@ public class EventService {
             eventRepository.save(event);
             events.add(event);
         }
+        responseCache.invalidateTournament(tid);
         return events;
     }
 
@@ -178,6 +200,8 @@ public class EventService {
         tournament.setEvents(events);
         tournamentRepository.save(tournament);
         eventRepository.delete(event);
+        responseCache.invalidateEvent(event);
+        eventSnapshotCache.invalidateEvent(eid);
     }
 
     // Helper method to validate the tournament
@@ -223,6 +247,7 @@ public class EventService {
         validateEventOver(event);
         OtherValidations.validUpdateEventDate(dto.getDate(), event.getTournament());
         updateEventDetails(event, dto);
+        responseCache.invalidateEvent(event);
         return eventRepository.save(event);
     }
 
@@ -257,26 +282,29 @@ public class EventService {
 
     /**
      * Registers a fencer for a specific event.
+     * The registration is an atomic increment of the participant count, which locks the event's row and so
+     * orders concurrent registrations for it, then a single insert of the fencer's tournament profile, which the
+     * unique (fencer, event) constraint rejects if the fencer is already registered. Concurrent registrations for a
+     * popular event therefore neither double-register a fencer, lose a count, nor deadlock on the event's row.
+     * Neither the event's fencers nor the fencer's profiles are loaded.
      *
      * @param eid the ID of the event
      * @param f   the fencer to register
      * @return true if the registration is successful, false otherwise
+     * @throws EntityDoesNotExistException if the event does not exist
      * @throws SignUpDateOverException if the signup deadline for the event has passed
      * @throws FencerAlreadyRegisteredForEventException if the fencer is already registered for the event
      * @throws FencerProfileMismatchException if the fencer's profile (gender or weapon) does not match the event
      */
     @Transactional
     public boolean registerEvent(int eid, Fencer f) {
-        Event event = getEvent(eid);
+        EventSummary event = eventRepository.findSummaryById(eid)
+                .orElseThrow(() -> new EntityDoesNotExistException("Event does not exist!"));
 
-        if (event.getTournament().getSignupEndDate().isBefore(LocalDate.now())) {
+        if (event.getSignupEndDate().isBefore(LocalDate.now())) {
             throw new SignUpDateOverException("Sign up date is over!");
         }
 
-        if (tournamentFencerRepository.findByFencerAndEvent(f, event) != null) {
-            throw new FencerAlreadyRegisteredForEventException("Fencer already registered for event!");
-        }
-
         if (event.getWeapon() != f.getWeapon()) {
             throw new FencerProfileMismatchException("Fencer's weapon does not match the event's weapon!");
         }
@@ -285,31 +313,35 @@ public class EventService {
             throw new FencerProfileMismatchException("Fencer's gender does not match the event's gender!");
         }
 
-        TournamentFencer tf = new TournamentFencer(f, event);
-        Set<TournamentFencer> fencers = event.getFencers();
-        fencers.add(tf);
-        event.setFencers(fencers);
-        event.setParticipantCount(event.getParticipantCount() + 1);
-
-        Set<TournamentFencer> fencerTFs = f.getTournamentFencerProfiles();
-        fencerTFs.add(tf);
-        f.setTournamentFencerProfiles(fencerTFs);
-
-        Fencer nf = userRepository.save(f);
+        // updated first, so the event's row is locked exclusively before the insert's foreign key check
+        // takes a shared lock on it, which two registrations could not both upgrade without deadlocking
+        if (eventRepository.incrementParticipantCount(eid) == 0) {
+            return false;
+        }
 
-        if (nf != null) {
-            Event tc = eventRepository.save(event);
-            return tc != null;
+        TournamentFencer ntf;
+        try {
+            ntf = tournamentFencerRepository.save(new TournamentFencer(f, entityManager.getReference(Event.class, eid)));
+        } catch (DataIntegrityViolationException e) {
+            // rolls back the increment along with the transaction
+            throw new FencerAlreadyRegisteredForEventException("Fencer already registered for event!");
         }
-        return false;
+        if (isLoaded(f.getTournamentFencerProfiles())) {
+            f.getTournamentFencerProfiles().add(ntf);
+        }
+
+        responseCache.invalidateEvent(eid, event.getTournamentId());
+        eventSnapshotCache.invalidateEvent(eid);
+        return true;
     }
 
     /**
      * Unregisters a fencer from a specific event.
+     * The participant count is only decremented when the fencer's tournament profile was deleted.
      *
      * @param eid the ID of the event
      * @param f   the fencer to unregister
-     * @return true if the unregistration is successful, false otherwise
+     * @return true if the unregistration is successful, false if the fencer was not registered
      * @throws SignUpDateOverException if the signup deadline for the event has passed
      */
     @Transactional
@@ -319,23 +351,26 @@ public class EventService {
             throw new SignUpDateOverException("Sign up date is over!");
         }
         Set<TournamentFencer> fencers = event.getFencers();
-        fencers.removeIf(tf -> tf.getFencer().equals(f));
+        fencers.removeIf(tf -> tf.getFencer().getId() == f.getId());
         event.setFencers(fencers);
-        event.setParticipantCount(event.getParticipantCount() - 1);
 
-        Set<TournamentFencer> fencerTFs = f.getTournamentFencerProfiles();
-        fencerTFs.removeIf(tf -> tf.getEvent().equals(event));
-        f.setTournamentFencerProfiles(fencerTFs);
+        if (isLoaded(f.getTournamentFencerProfiles())) {
+            f.getTournamentFencerProfiles().removeIf(tf -> tf.getEvent().getId() == event.getId());
+        }
 
-        tournamentFencerRepository.delete(tournamentFencerRepository.findByFencerAndEvent(f, event));
+        // only the unregistration that deleted the row decrements, so repeated or concurrent ones count once
+        if (tournamentFencerRepository.deleteByFencerIdAndEventId(f.getId(), eid) == 0) {
+            return false;
+        }
+        responseCache.invalidateEvent(event);
+        eventSnapshotCache.invalidateEvent(eid);
 
-        Fencer nf = userRepository.save(f);
+        return eventRepository.decrementParticipantCount(eid) != 0;
+    }
 
-        if (nf != null) {
-            Event tc = eventRepository.save(event);
-            return tc != null;
-        }
-        return false;
+    // Helper method to check whether a lazy collection of a possibly detached entity has been loaded
+    private boolean isLoaded(Set<TournamentFencer> tfs) {
+        return tfs != null && Hibernate.isInitialized(tfs);
     }
 
     /**
@@ -360,6 +395,7 @@ public class EventService {
      * @param o   the organiser performing the operation
      * @throws EventCannotEndException if the event cannot be ended due to unfulfilled prerequisites
      */
+    @Transactional
     public void endTournamentEvent(int eid, Organiser o) throws EventCannotEndException {
         Event event = eventRepository.findById(eid)
                 .orElseThrow(() -> new EntityDoesNotExistException("Event does not exist!"));
@@ -383,10 +419,15 @@ public class EventService {
         updateInternationalRank(event);
         event.setOver(true);
         eventRepository.save(event);
+        // The fencers' new points are shown in every event they are registered for
+        responseCache.invalidateAll();
+        eventSnapshotCache.invalidateAll();
     }
 
     /**
      * Updates the international rank of all participants in an event.
+     * Every fencer's new points are computed in memory first, then the fencers and their
+     * tournament profiles are written as one JDBC batch per table.
      *
      * @param event the event for which ranks are updated
      */
@@ -395,13 +436,35 @@ public class EventService {
         List<TournamentFencer> tfs = getTournamentRanks(event.getId());
         double numOfFencersThatGetPoints = tfs.size() * 0.8;
         int totalPoints = getPointsForDistribution(event.getFencers());
-        for (int i = 0; i < (int) numOfFencersThatGetPoints; i++) {
-            int points = calculatePoints(i, totalPoints, (int) numOfFencersThatGetPoints);
-            TournamentFencer tf = tfs.get(i);
+        PointsDistribution distribution = new PointsDistribution(totalPoints, (int) numOfFencersThatGetPoints);
+        List<TournamentFencer> rankedFencers = tfs.subList(0, distribution.size());
+        List<Fencer> fencers = new ArrayList<>(distribution.size());
+        for (int i = 0; i < distribution.size(); i++) {
+            TournamentFencer tf = rankedFencers.get(i);
             Fencer fencer = tf.getFencer();
-            fencer.setPoints(points + fencer.getPoints());
+            int oldPoints = fencer.getPoints();
+            fencer.setPoints(distribution.pointsFor(i) + oldPoints);
             tf.setPointsAfterEvent(fencer.getPoints());
-            userRepository.save(fencer);
+            fencers.add(fencer);
+            fencerService.updateRankingPoints(fencer);
+        }
+        userRepository.saveAll(fencers);
+        tournamentFencerRepository.saveAll(rankedFencers);
+        flushInOneBatch(fencers.size());
+    }
+
+    // Helper method to flush pending updates with a JDBC batch large enough to hold all of them
+    private void flushInOneBatch(int statementsPerTable) {
+        if (statementsPerTable == 0) {
+            return;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Integer batchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(statementsPerTable);
+        try {
+            session.flush();
+        } finally {
+            session.setJdbcBatchSize(batchSize);
         }
     }
 
@@ -428,17 +491,6 @@ public class EventService {
      * @return the calculated points for the fencer
      */
     public int calculatePoints(int rank, int totalPoints, int totalFencers) {
-        double numerator = totalPoints * Math.pow(totalFencers - rank + 1, 2);
-        double denominator = sumOfPowers(totalFencers, 2);
-        return (int) (numerator / denominator);
-    }
-
-    // Helper method to calculate the sum of powers
-    private static double sumOfPowers(int n, int exponent) {
-        double sum = 0;
-        for (int i = 1; i <= n; i++) {
-            sum += Math.pow(i, exponent);
-        }
-        return sum;
+        return PointsDistribution.calculatePoints(rank, totalPoints, totalFencers);
     }
 }
@@ -4,28 +4,38 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
-import cs203.ftms.overall.comparator.FencerPointsComparator;
+import cs203.ftms.overall.datastructure.RankingIndex;
 import cs203.ftms.overall.dto.CompleteFencerProfileDTO;
 import cs203.ftms.overall.dto.UpdateFencerProfileDTO;
 import cs203.ftms.overall.dto.clean.CleanFencerDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentFencerDTO;
+import cs203.ftms.overall.dto.projection.FencerPoints;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.model.userrelated.User;
-import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
 import cs203.ftms.overall.repository.userrelated.FencerRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
+import cs203.ftms.overall.service.TransactionCallbacks;
 import cs203.ftms.overall.service.authentication.AuthenticationService;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.validation.OtherValidations;
+import jakarta.persistence.EntityNotFoundException;
 
 /**
  * Service class for managing fencer-related operations.
@@ -35,18 +45,49 @@ import cs203.ftms.overall.validation.OtherValidations;
 public class FencerService {
     private final UserRepository userRepository; 
     private final FencerRepository fencerRepository;
-    private final EventRepository eventRepository;
+    private final TournamentFencerRepository tournamentFencerRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationService authenticationService;
+    private final ResponseCache responseCache;
+    private final long rankingIndexTtl;
+    private final LongSupplier clock;
+    private final Map<Integer, RankingEntry> rankingIndexes = new ConcurrentHashMap<>();
+    // number of ranking changes made, read around each build to tell whether the build may have missed one
+    private final AtomicLong rankingChanges = new AtomicLong();
 
     @Autowired
-    public FencerService(UserRepository userRepository, FencerRepository fencerRepository, EventRepository eventRepository, 
-                         PasswordEncoder passwordEncoder, AuthenticationService authenticationService) {
+    public FencerService(UserRepository userRepository, FencerRepository fencerRepository, 
+                         TournamentFencerRepository tournamentFencerRepository, PasswordEncoder passwordEncoder, 
+                         AuthenticationService authenticationService, ResponseCache responseCache,
+                         @Value("${ranking-index.ttl}") long rankingIndexTtl) {
+        this(userRepository, fencerRepository, tournamentFencerRepository, passwordEncoder, authenticationService,
+                responseCache, rankingIndexTtl, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs a fencer service whose ranking indexes read the time from the given clock.
+     *
+     * @param userRepository the repository of users.
+     * @param fencerRepository the repository of fencers.
+     * @param tournamentFencerRepository the repository of fencers' tournament profiles.
+     * @param passwordEncoder the encoder of new passwords.
+     * @param authenticationService the service that checks a user's current password.
+     * @param responseCache the cache of public responses that show fencers' details.
+     * @param rankingIndexTtl the time after which a ranking index is rebuilt from the database, in milliseconds.
+     * @param clock the source of the current time, in milliseconds.
+     */
+    public FencerService(UserRepository userRepository, FencerRepository fencerRepository,
+                         TournamentFencerRepository tournamentFencerRepository, PasswordEncoder passwordEncoder,
+                         AuthenticationService authenticationService, ResponseCache responseCache,
+                         long rankingIndexTtl, LongSupplier clock) {
         this.userRepository = userRepository; 
         this.fencerRepository = fencerRepository;
-        this.eventRepository = eventRepository;
+        this.tournamentFencerRepository = tournamentFencerRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationService = authenticationService;
+        this.responseCache = responseCache;
+        this.rankingIndexTtl = rankingIndexTtl;
+        this.clock = clock;
     }
 
     /**
@@ -85,35 +126,66 @@ public class FencerService {
     /**
      * Completes a fencer's profile with additional details.
      *
-     * @param f the Fencer whose profile is to be completed
+     * The fencer is reloaded, so that the profile is completed on its current row rather than on the given principal.
+     *
+     * @param principal the Fencer whose profile is to be completed
      * @param dto the DTO containing additional profile details
      * @return the updated Fencer entity
      * @throws MethodArgumentNotValidException if the debut year is invalid
      */
-    public Fencer completeProfile(Fencer f, CompleteFencerProfileDTO dto) throws MethodArgumentNotValidException {
+    public Fencer completeProfile(Fencer principal, CompleteFencerProfileDTO dto) throws MethodArgumentNotValidException {
+        Fencer f = reloadFencer(principal);
         OtherValidations.validDebutYear(f, dto.getDebutYear());
+        char oldWeapon = f.getWeapon();
+        char oldGender = f.getGender();
         f.setClub(dto.getClub());
         f.setDebutYear(dto.getDebutYear());
         f.setDominantArm(dto.getDominantArm());
         f.setGender(dto.getGender());
         f.setWeapon(dto.getWeapon());
-        return userRepository.save(f);
+        Fencer saved = userRepository.save(f);
+        responseCache.invalidateAll();
+        if (oldWeapon != f.getWeapon() || oldGender != f.getGender()) {
+            int id = f.getId();
+            int points = f.getPoints();
+            char weapon = f.getWeapon();
+            char gender = f.getGender();
+            TransactionCallbacks.afterCommit(() -> {
+                updateRankingIndex(oldWeapon, oldGender, index -> index.remove(id));
+                updateRankingIndex(weapon, gender, index -> index.put(id, points));
+            });
+        }
+        return saved;
     }
 
     /**
      * Retrieves the international rank of a fencer.
+     * The rank is looked up by ID in the ranking index of the fencer's weapon and gender,
+     * so it does not depend on the points held by the given fencer being current.
      *
      * @param f the Fencer whose rank is to be retrieved
      * @return the international rank, or -1 if the fencer is not ranked
      */
     public int getInternationalRank(Fencer f) {
-        List<Fencer> fencers = getFilterdInternationalRank(f.getWeapon(), f.getGender());
-        for (int i = 1; i <= fencers.size(); i++) {
-            if (fencers.get(i - 1).equals(f)) {
-                return i;
-            }
+        RankingIndex index = getRankingIndex(f.getWeapon(), f.getGender());
+        synchronized (index) {
+            return index.rankOf(f.getId());
         }
-        return -1;
+    }
+
+    /**
+     * Moves a fencer within this instance's ranking of its weapon and gender after its points have changed.
+     * Inside a transaction the ranking is only updated once the transaction commits.
+     * Other instances see the change once their ranking index is rebuilt.
+     *
+     * @param f the Fencer whose points have changed, holding its new points
+     */
+    public void updateRankingPoints(Fencer f) {
+        int id = f.getId();
+        int newPoints = f.getPoints();
+        char weapon = f.getWeapon();
+        char gender = f.getGender();
+        TransactionCallbacks.afterCommit(() -> updateRankingIndex(weapon, gender, index -> index.put(id, newPoints)));
     }
 
     /**
@@ -129,18 +201,21 @@ public class FencerService {
         if (verifiedUser == null) {
             return "old password is incorrect";
         }
-        u.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(u);
+        verifiedUser.setPassword(passwordEncoder.encode(newPassword));
+        userRepository.save(verifiedUser);
         return "password changed successfully";
     }
 
     /**
      * Updates a fencer's profile with new details.
      *
-     * @param f the Fencer whose profile is to be updated
+     * The fencer is reloaded, so that the profile is updated on its current row rather than on the given principal.
+     *
+     * @param principal the Fencer whose profile is to be updated
      * @param dto the DTO containing the updated profile details
      */
-    public void updateProfile(Fencer f, UpdateFencerProfileDTO dto) {
+    public void updateProfile(Fencer principal, UpdateFencerProfileDTO dto) {
+        Fencer f = reloadFencer(principal);
         f.setClub(dto.getClub());
         f.setContactNo(dto.getContactNo());
         f.setCountry(dto.getCountry());
@@ -148,6 +223,8 @@ public class FencerService {
         f.setName(dto.getName());
         f.setDominantArm(dto.getDominantArm());
         userRepository.save(f);
+        // The fencer's details are shown in the cached responses of every event it is registered for
+        responseCache.invalidateAll();
     }
     
     /**
@@ -158,7 +235,7 @@ public class FencerService {
      */
     public List<TournamentFencer> getFencerPastEventsProfiles(Fencer f) {
         List<TournamentFencer> profiles = new ArrayList<>();
-        for (TournamentFencer tf : f.getTournamentFencerProfiles()) {
+        for (TournamentFencer tf : getTournamentFencerProfiles(f)) {
             if (tf.getEvent().getDate().isBefore(LocalDate.now())) {
                 profiles.add(tf);
             }
@@ -174,8 +251,8 @@ public class FencerService {
      */
     public List<Event> getFencerEvents(Fencer f) {
         List<Event> events = new ArrayList<>();
-        for (TournamentFencer tf : f.getTournamentFencerProfiles()) {
-            events.add(eventRepository.findById(tf.getEvent().getId()).orElse(null));
+        for (TournamentFencer tf : getTournamentFencerProfiles(f)) {
+            events.add(tf.getEvent());
         }
         events.sort(Comparator.comparing(Event::getDate));
         return events;
@@ -189,8 +266,8 @@ public class FencerService {
      */
     public List<Event> getFencerUpcomingEvents(Fencer f) {
         List<Event> events = new ArrayList<>();
-        for (TournamentFencer tf : f.getTournamentFencerProfiles()) {
-            Event e = eventRepository.findById(tf.getEvent().getId()).orElse(null);
+        for (TournamentFencer tf : getTournamentFencerProfiles(f)) {
+            Event e = tf.getEvent();
             if (e.getDate().isAfter(LocalDate.now())) {
                 events.add(e);
             }
@@ -207,8 +284,8 @@ public class FencerService {
      */
     public List<Event> getFencerPastEvents(Fencer f) {
         List<Event> events = new ArrayList<>();
-        for (TournamentFencer tf : f.getTournamentFencerProfiles()) {
-            Event e = eventRepository.findById(tf.getEvent().getId()).orElse(null);
+        for (TournamentFencer tf : getTournamentFencerProfiles(f)) {
+            Event e = tf.getEvent();
             if (e.getDate().isBefore(LocalDate.now()) || e.isOver()) {
                 events.add(e);
             }
@@ -225,17 +302,90 @@ public class FencerService {
      * @return a sorted list of Fencers based on points
      */
     public List<Fencer> getFilterdInternationalRank(char weapon, char gender) {
-        List<Fencer> fencers = fencerRepository.findAll();
-        Collections.sort(fencers, new FencerPointsComparator());
-        List<Fencer> filteredFencers = new ArrayList<>();
-        for (Fencer f : fencers) {
-            if (f.getWeapon() == weapon && f.getGender() == gender) {
-                filteredFencers.add(f);
+        RankingIndex index = getRankingIndex(weapon, gender);
+        int[] ids;
+        synchronized (index) {
+            ids = index.topK(index.size());
+        }
+        List<Integer> idList = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            idList.add(id);
+        }
+        Map<Integer, Fencer> fencersById = new HashMap<>(ids.length * 2);
+        for (Fencer f : fencerRepository.findAllById(idList)) {
+            fencersById.put(f.getId(), f);
+        }
+        List<Fencer> rankedFencers = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Fencer f = fencersById.get(id);
+            if (f != null) {
+                rankedFencers.add(f);
             }
         }
-        return filteredFencers;
+        return rankedFencers;
     }
 
+    // Helper method to get the ranking index of a weapon and gender, building it on first use and rebuilding it
+    // once it is older than its time to live, so that points changed by other instances are picked up.
+    // The index is built outside the map's lock, so the query does not block the indexes of other keys,
+    // and is only published if no other thread published a current index in the meantime
+    private RankingIndex getRankingIndex(char weapon, char gender) {
+        int key = rankingKey(weapon, gender);
+        long now = clock.getAsLong();
+        RankingEntry entry = rankingIndexes.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.index();
+        }
+        long changesBefore = rankingChanges.get();
+        RankingIndex index = loadRankingIndex(weapon, gender);
+        return rankingIndexes.compute(key, (k, current) -> {
+            if (current != null && current.expiresAt() > now) {
+                return current;
+            }
+            // a change made while the index was built may be missing from it, so it expires at once
+            long expiresAt = rankingChanges.get() == changesBefore ? now + rankingIndexTtl : now;
+            return new RankingEntry(index, expiresAt);
+        }).index();
+    }
+
+    // Helper method to build the ranking index of a weapon and gender from the fencers' current points
+    private RankingIndex loadRankingIndex(char weapon, char gender) {
+        List<FencerPoints> rows = fencerRepository.findPointsByWeaponAndGender(weapon, gender);
+        int[] ids = new int[rows.size()];
+        int[] points = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            ids[i] = rows.get(i).getId();
+            points[i] = rows.get(i).getPoints();
+        }
+        return new RankingIndex(ids, points);
+    }
+
+    // Helper method to apply a change to a ranking index, if that index has already been built.
+    // The change is counted first and applied under the map's lock, so an index being built either sees
+    // the count change and expires, or is published before the change and has it applied
+    private void updateRankingIndex(char weapon, char gender, Consumer<RankingIndex> change) {
+        rankingChanges.incrementAndGet();
+        rankingIndexes.computeIfPresent(rankingKey(weapon, gender), (k, entry) -> {
+            synchronized (entry.index()) {
+                change.accept(entry.index());
+            }
+            return entry;
+        });
+    }
+
+    // Helper method to load the current row of a fencer, so that changes are not made to the principal of a request
+    private Fencer reloadFencer(Fencer principal) {
+        return fencerRepository.findById(principal.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Fencer with id " + principal.getId() + " not found"));
+    }
+
+    // Helper method to combine a weapon and gender into one map key
+    private static int rankingKey(char weapon, char gender) {
+        return (weapon << 16) | gender;
+    }
+
+    private record RankingEntry(RankingIndex index, long expiresAt) {}
+
     /**
      * Retrieves a fencer's past event points as DTOs.
      *
@@ -243,8 +393,7 @@ public class FencerService {
      * @return a list of CleanTournamentFencerDTO for past events
      */
     public List<CleanTournamentFencerDTO> getFencerPastEventsPoints(Fencer f) {
-        Set<TournamentFencer> tfs = f.getTournamentFencerProfiles();
-        List<TournamentFencer> tfList = new ArrayList<>(tfs);
+        List<TournamentFencer> tfList = getTournamentFencerProfiles(f);
         Collections.sort(tfList, (a, b) -> a.getEvent().getDate().compareTo(b.getEvent().getDate()));
         List<CleanTournamentFencerDTO> res = new ArrayList<>();
         for (TournamentFencer tf : tfList) {
@@ -254,4 +403,9 @@ public class FencerService {
         }
         return res;
     }
+
+    // Helper method to load a fencer's tournament profiles together with their events and tournaments in one query
+    private List<TournamentFencer> getTournamentFencerProfiles(Fencer f) {
+        return new ArrayList<>(tournamentFencerRepository.findWithEventByFencerId(f.getId()));
+    }
 }
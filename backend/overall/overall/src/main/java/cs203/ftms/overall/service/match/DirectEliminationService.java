@@ -10,9 +10,10 @@ import org.springframework.stereotype.Service;
 
 import cs203.ftms.overall.comparator.TournamentFencerComparator;
 import cs203.ftms.overall.comparator.TournamentFencerPouleComparator;
-import cs203.ftms.overall.datastructure.CustomMatchHeap;
+import cs203.ftms.overall.datastructure.BracketTree;
 import cs203.ftms.overall.dto.DirectEliminationBracketDTO;
 import cs203.ftms.overall.dto.DirectEliminationBracketFencerDTO;
+import cs203.ftms.overall.dto.LiveScoreDTO;
 import cs203.ftms.overall.dto.UpdateDirectEliminationMatchDTO;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.exception.PouleMatchesNotDoneException;
@@ -26,6 +27,7 @@ import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.repository.tournamentrelated.DirectEliminationMatchRepository;
 import cs203.ftms.overall.repository.tournamentrelated.MatchRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
 import jakarta.transaction.Transactional;
 
@@ -41,15 +43,19 @@ public class DirectEliminationService {
     private final MatchRepository matchRepository;
     private final TournamentFencerRepository tournamentFencerRepository;
     private final DirectEliminationMatchRepository directEliminationMatchRepository;
+    private final LiveScoreService liveScoreService;
+    private final ResponseCache responseCache;
 
     @Autowired
-    public DirectEliminationService(EventService eventService, PouleService pouleService, MatchService matchService, MatchRepository matchRepository, TournamentFencerRepository tournamentFencerRepository, DirectEliminationMatchRepository directEliminationMatchRepository) {
+    public DirectEliminationService(EventService eventService, PouleService pouleService, MatchService matchService, MatchRepository matchRepository, TournamentFencerRepository tournamentFencerRepository, DirectEliminationMatchRepository directEliminationMatchRepository, LiveScoreService liveScoreService, ResponseCache responseCache) {
         this.eventService = eventService;
         this.pouleService = pouleService;
         this.matchService = matchService;
         this.matchRepository = matchRepository;
         this.tournamentFencerRepository = tournamentFencerRepository;
         this.directEliminationMatchRepository = directEliminationMatchRepository;
+        this.liveScoreService = liveScoreService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -93,7 +99,7 @@ public class DirectEliminationService {
     }
 
     /**
-     * Creates all DE matches for an event and initializes the match heap.
+     * Creates all DE matches for an event and initializes the bracket.
      *
      * @param eid       the event ID
      * @param organiser the organiser performing the operation
@@ -116,23 +122,44 @@ public class DirectEliminationService {
             }
         }
 
-        CustomMatchHeap heap = createAndSaveMatches(event);
         Map<String, List<TournamentFencer>> mappings = pouleService.getFencersAfterPoules(event);
         List<TournamentFencer> fencers = getSortedFencers(mappings);
         int bypassSize = mappings.get("Bypass").size();
 
-        populateInitialDEMatches(fencers, heap, bypassSize);
+        // build the whole tableau in memory, byes included, then write it out in batches
+        BracketTree bracket = new BracketTree(noOfDEMatches(event));
+        DirectEliminationMatch[] matches = createMatches(event, bracket);
+        populateInitialDEMatches(fencers, bracket, matches, bypassSize);
+        saveMatches(bracket, matches);
+        tournamentFencerRepository.saveAll(fencers);
+        responseCache.invalidateEvent(event);
     }
 
-    // Helper method to create and save DE matches
-    private CustomMatchHeap createAndSaveMatches(Event event) {
-        int matchCount = noOfDEMatches(event);
-        CustomMatchHeap heap = new CustomMatchHeap();
-        for (int i = 0; i < matchCount; i++) {
-            Match match = heap.insert(new DirectEliminationMatch(event));
-            matchRepository.save(match);
+    // Helper method to create the DE matches in memory, indexed by their slot in the bracket
+    private DirectEliminationMatch[] createMatches(Event event, BracketTree bracket) {
+        DirectEliminationMatch[] matches = new DirectEliminationMatch[bracket.size() + 1];
+        for (int slot = 1; slot <= bracket.size(); slot++) {
+            DirectEliminationMatch dm = new DirectEliminationMatch(event);
+            dm.setRoundOf(bracket.roundOf(slot));
+            matches[slot] = dm;
+        }
+        return matches;
+    }
+
+    // Helper method to save the DE matches one round at a time, starting from the final,
+    // so that every match already knows the ID of its next match when it is saved
+    private void saveMatches(BracketTree bracket, DirectEliminationMatch[] matches) {
+        for (int level = 0; level < bracket.depth(); level++) {
+            List<DirectEliminationMatch> round = new ArrayList<>(1 << level);
+            for (int slot = bracket.levelStart(level); slot <= bracket.levelEnd(level); slot++) {
+                matches[slot].setNextMatchId(bracket.getNextMatchId(slot));
+                round.add(matches[slot]);
+            }
+            matchRepository.saveAll(round);
+            for (int slot = bracket.levelStart(level); slot <= bracket.levelEnd(level); slot++) {
+                bracket.setMatchId(slot, matches[slot].getId());
+            }
         }
-        return heap;
     }
 
     // Helper method to sort fencers after poules
@@ -145,21 +172,24 @@ public class DirectEliminationService {
     }
 
     /**
-     * Populates the initial DE matches using the match heap and fencers.
+     * Seeds the fencers into the first round of the bracket and advances fencers with a bye into the second round.
+     * Only the given match and fencer objects are updated; nothing is saved.
      *
      * @param tfencers   the list of tournament fencers
-     * @param heap       the match heap
+     * @param bracket    the bracket the DE matches are placed in
+     * @param matches    the DE matches, indexed by their slot in the bracket
      * @param bypassSize the number of fencers bypassing the initial round
      */
-    @Transactional
-    public void populateInitialDEMatches(List<TournamentFencer> tfencers, CustomMatchHeap heap, int bypassSize) {
-        int lastLevel = (int) (Math.log(heap.size() + 1) / Math.log(2)) - 1;
-        List<Match> matches = heap.getLevel(lastLevel);
+    public void populateInitialDEMatches(List<TournamentFencer> tfencers, BracketTree bracket, DirectEliminationMatch[] matches, int bypassSize) {
+        if (bracket.size() == 0) {
+            return;
+        }
+        int lastLevel = bracket.lastLevel();
         int[] matchArray = generateMatchArray(lastLevel, tfencers.size());
 
-        int matchCount = 0;
+        int slot = bracket.levelStart(lastLevel);
         for (int i = 0; i < matchArray.length; i += 2) {
-            DirectEliminationMatch dm = (DirectEliminationMatch) matches.get(matchCount);
+            DirectEliminationMatch dm = matches[slot];
             TournamentFencer tf1 = tfencers.get(matchArray[i] - 1);
             dm.setFencer1(tf1.getId());
             tf1.addMatch(dm);
@@ -168,14 +198,10 @@ public class DirectEliminationService {
                 TournamentFencer tf2 = tfencers.get(matchArray[i + 1] - 1);
                 dm.setFencer2(tf2.getId());
                 tf2.addMatch(dm);
-                tournamentFencerRepository.save(tf2);
             } else {
-                updateNextMatch(tf1, dm);
+                updateNextMatch(tf1, matches[bracket.parent(slot)]);
             }
-
-            tournamentFencerRepository.save(tf1);
-            matchRepository.save(dm);
-            matchCount++;
+            slot++;
         }
     }
 
@@ -199,22 +225,19 @@ public class DirectEliminationService {
         return matchArray;
     }
 
-    // Helper method to update the next match
-    private void updateNextMatch(TournamentFencer tf1, DirectEliminationMatch dm) {
-        int nextMatchId = dm.getNextMatchId();
-        DirectEliminationMatch nextMatch = (DirectEliminationMatch) matchRepository.findById(nextMatchId)
-                .orElseThrow(() -> new EntityDoesNotExistException("Match does not exist!"));
+    // Helper method to advance a fencer with a bye into the next match
+    private void updateNextMatch(TournamentFencer tf1, DirectEliminationMatch nextMatch) {
         tf1.addMatch(nextMatch);
         if (nextMatch.getFencer1() == -1) {
             nextMatch.setFencer1(tf1.getId());
         } else {
             nextMatch.setFencer2(tf1.getId());
         }
-        matchRepository.save(nextMatch);
     }
 
     /**
      * Updates a specific DE match with new scores and updates the next match with the winner.
+     * The match, and the next match it fills in, are pushed to the event's live score subscribers after commit.
      *
      * @param eid       the event ID
      * @param dto       the DTO containing updated match details
@@ -238,9 +261,17 @@ public class DirectEliminationService {
 
         TournamentFencer winner = tournamentFencerRepository.findById(dm.getWinner())
                 .orElseThrow(() -> new EntityDoesNotExistException("Tournament Fencer does not exist!"));
-        updateNextMatchWithWinner(dm, winner, fencer1, fencer2);
+        DirectEliminationMatch nextMatch = updateNextMatchWithWinner(dm, winner, fencer1, fencer2);
 
         tournamentFencerRepository.save(winner);
+        responseCache.invalidateEvent(event);
+
+        List<LiveScoreDTO> scores = new ArrayList<>(2);
+        scores.add(liveScoreService.getLiveScoreDTO(eid, 0, dm));
+        if (nextMatch != null) {
+            scores.add(liveScoreService.getLiveScoreDTO(eid, 0, nextMatch));
+        }
+        liveScoreService.publish(eid, scores);
     }
 
     // Helper method to get the DE match
@@ -273,8 +304,8 @@ public class DirectEliminationService {
         }
     }
 
-    // Helper method to update the next match with the winner
-    private void updateNextMatchWithWinner(DirectEliminationMatch dm, TournamentFencer winner, TournamentFencer fencer1, TournamentFencer fencer2) {
+    // Helper method to update the next match with the winner, returning the next match or null after the final
+    private DirectEliminationMatch updateNextMatchWithWinner(DirectEliminationMatch dm, TournamentFencer winner, TournamentFencer fencer1, TournamentFencer fencer2) {
         if (dm.getRoundOf() != 2) {
             DirectEliminationMatch nextMatch = (DirectEliminationMatch) matchRepository.findById(dm.getNextMatchId())
                     .orElseThrow(() -> new EntityDoesNotExistException("Match does not exist!"));
@@ -285,7 +316,9 @@ public class DirectEliminationService {
             }
             matchRepository.save(nextMatch);
             winner.addMatch(nextMatch);
+            return nextMatch;
         }
+        return null;
     }
 
     /**
@@ -295,8 +328,25 @@ public class DirectEliminationService {
      * @return a DirectEliminationBracketDTO containing match details
      */
     public DirectEliminationBracketDTO getDirectEliminationBracketDTO(DirectEliminationMatch m) {
+        return buildDirectEliminationBracketDTO(m, matchService.getFencersInMatch(m));
+    }
+
+    /**
+     * Creates a Direct Elimination Bracket Data Transfer Object (DTO) for a given match,
+     * resolving its fencers from a pre-loaded lookup.
+     *
+     * @param m       the Direct Elimination Match
+     * @param fencers the lookup returned by {@link MatchService#getFencersInMatches}
+     * @return a DirectEliminationBracketDTO containing match details
+     */
+    public DirectEliminationBracketDTO getDirectEliminationBracketDTO(DirectEliminationMatch m, Map<Integer, TournamentFencer> fencers) {
+        return buildDirectEliminationBracketDTO(m, matchService.getFencersInMatch(m, fencers));
+    }
+
+    // Helper method to build the bracket DTO from the resolved fencers of a match
+    private DirectEliminationBracketDTO buildDirectEliminationBracketDTO(DirectEliminationMatch m, List<TournamentFencer> fencerList) {
         String roundText = getRoundText(m.getRoundOf());
-        DirectEliminationBracketFencerDTO[] fencersDTO = getFencersDTO(m);
+        DirectEliminationBracketFencerDTO[] fencersDTO = getFencersDTO(m, fencerList);
         return new DirectEliminationBracketDTO(m.getId(), roundText, m.getNextMatchId(), roundText, null, null, fencersDTO);
     }
 
@@ -311,10 +361,10 @@ public class DirectEliminationService {
     }
 
     // Helper method to get the fencers DTO
-    private DirectEliminationBracketFencerDTO[] getFencersDTO(DirectEliminationMatch m) {
-        DirectEliminationBracketFencerDTO[] fencersDTO = new DirectEliminationBracketFencerDTO[matchService.getFencersInMatch(m).size()];
+    private DirectEliminationBracketFencerDTO[] getFencersDTO(DirectEliminationMatch m, List<TournamentFencer> fencerList) {
+        DirectEliminationBracketFencerDTO[] fencersDTO = new DirectEliminationBracketFencerDTO[fencerList.size()];
         int fencerCount = 0;
-        for (TournamentFencer tf : matchService.getFencersInMatch(m)) {
+        for (TournamentFencer tf : fencerList) {
             int score = (fencerCount == 0) ? m.getScore1() : m.getScore2();
             fencersDTO[fencerCount] = getDirectEliminationBracketFencerDTO(tf, m.getWinner(), score);
             fencerCount++;
@@ -344,8 +394,9 @@ public class DirectEliminationService {
     public List<DirectEliminationBracketDTO> generateDirectEliminationBracketDTOs(int eid) {
         Event event = eventService.getEvent(eid);
         List<DirectEliminationMatch> matches = directEliminationMatchRepository.findByEvent(event);
+        Map<Integer, TournamentFencer> fencers = matchService.getFencersInMatches(matches);
         return matches.stream()
-                .map(this::getDirectEliminationBracketDTO)
+                .map(m -> getDirectEliminationBracketDTO(m, fencers))
                 .collect(Collectors.toList());
     }
 
@@ -357,7 +408,7 @@ public class DirectEliminationService {
      */
     public List<TournamentFencer> getTournamentRanks(int eid) {
         Event event = eventService.getEvent(eid);
-        List<TournamentFencer> tfs = new ArrayList<>(event.getFencers());
+        List<TournamentFencer> tfs = new ArrayList<>(tournamentFencerRepository.findByEvent(event));
         tfs.sort(new TournamentFencerComparator());
         return tfs;
     }
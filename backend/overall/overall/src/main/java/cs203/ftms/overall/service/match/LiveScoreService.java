@@ -0,0 +1,164 @@
+package cs203.ftms.overall.service.match;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import cs203.ftms.overall.dto.LiveScoreDTO;
+import cs203.ftms.overall.model.tournamentrelated.Match;
+import cs203.ftms.overall.service.TransactionCallbacks;
+
+/**
+ * Service class for pushing live score updates to the spectators of an event over server-sent events.
+ * Spectators subscribe per event and receive a "score" event holding a list of LiveScoreDTOs each time
+ * bouts of the event change. Each update is serialised once and sent to every subscriber after the
+ * transaction that made the change has committed.
+ * <p>
+ * Subscribers are held in memory by the instance they connected to, and an update is only sent by the
+ * instance that made the change. When several instances run behind a load balancer, spectators only
+ * receive the updates made through their own instance, so the load balancer should route an event's
+ * subscriptions and score updates to the same instance, or updates should be fanned out through a
+ * channel shared by every instance. Spectators who miss updates still see them by reloading the poule table.
+ */
+@Service
+public class LiveScoreService {
+    private final long emitterTimeout;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Map<Integer, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs the live score service.
+     *
+     * @param emitterTimeout the time after which a subscription is closed, in milliseconds; clients reconnect
+     * @param objectMapper the mapper used to serialise updates
+     * @param executor the executor that sends updates to subscribers
+     */
+    @Autowired
+    public LiveScoreService(@Value("${live-score.emitter-timeout}") long emitterTimeout, ObjectMapper objectMapper,
+                            @Qualifier("liveScoreExecutor") Executor executor) {
+        this.emitterTimeout = emitterTimeout;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes to the live score updates of an event.
+     *
+     * @param eid the ID of the event
+     * @return the emitter that streams the updates
+     */
+    public SseEmitter subscribe(int eid) {
+        return addSubscriber(eid, new SseEmitter(emitterTimeout));
+    }
+
+    /**
+     * Registers an emitter for the live score updates of an event.
+     * The emitter is removed once it completes, times out or fails.
+     *
+     * @param eid the ID of the event
+     * @param emitter the emitter to register
+     * @return the registered emitter
+     */
+    public SseEmitter addSubscriber(int eid, SseEmitter emitter) {
+        subscribers.compute(eid, (k, emitters) -> {
+            Set<SseEmitter> res = emitters == null ? new CopyOnWriteArraySet<>() : emitters;
+            res.add(emitter);
+            return res;
+        });
+        emitter.onCompletion(() -> removeSubscriber(eid, emitter));
+        emitter.onTimeout(() -> removeSubscriber(eid, emitter));
+        emitter.onError(e -> removeSubscriber(eid, emitter));
+        return emitter;
+    }
+
+    /**
+     * Returns the number of subscribers to an event.
+     *
+     * @param eid the ID of the event
+     * @return the number of subscribers
+     */
+    public int getSubscriberCount(int eid) {
+        Set<SseEmitter> emitters = subscribers.get(eid);
+        return emitters == null ? 0 : emitters.size();
+    }
+
+    /**
+     * Publishes changed bouts to the subscribers of an event.
+     * Inside a transaction the update is sent only after it commits, and is dropped if it rolls back.
+     *
+     * @param eid the ID of the event
+     * @param scores the changed bouts
+     */
+    public void publish(int eid, List<LiveScoreDTO> scores) {
+        if (scores.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> dispatch(eid, scores));
+    }
+
+    /**
+     * Converts a bout into a LiveScoreDTO.
+     *
+     * @param eid the ID of the event
+     * @param pouleNumber the number of the poule of the bout, or 0 for a direct elimination bout
+     * @param m the bout
+     * @return a LiveScoreDTO holding the bout's fencers, scores and winner
+     */
+    public LiveScoreDTO getLiveScoreDTO(int eid, int pouleNumber, Match m) {
+        return new LiveScoreDTO(eid, pouleNumber, m.getId(), m.getFencer1(), m.getFencer2(), m.getScore1(), m.getScore2(), m.getWinner());
+    }
+
+    // Helper method to serialise an update once and hand the fan-out to the executor
+    private void dispatch(int eid, List<LiveScoreDTO> scores) {
+        Set<SseEmitter> emitters = subscribers.get(eid);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(scores);
+        } catch (JsonProcessingException e) {
+            return;
+        }
+        try {
+            executor.execute(() -> send(eid, emitters, data));
+        } catch (RejectedExecutionException e) {
+            // The executor is saturated; the update is dropped, as clients can reload the full table or bracket
+        }
+    }
+
+    // Helper method to send a serialised update to every subscriber, removing those that have gone away
+    private void send(int eid, Set<SseEmitter> emitters, String data) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("score").data(data, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                removeSubscriber(eid, emitter);
+            }
+        }
+    }
+
+    // Helper method to remove a subscriber, and its event's entry once the event has none left
+    private void removeSubscriber(int eid, SseEmitter emitter) {
+        subscribers.computeIfPresent(eid, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
@@ -1,7 +1,12 @@
 package cs203.ftms.overall.service.match;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -70,6 +75,52 @@ public class MatchService {
         return fencer;
     } 
     
+    /**
+     * Retrieves every fencer participating in a collection of matches with a single query.
+     * The returned lookup is meant to be built once per request and passed to
+     * {@link #getFencersInMatch(Match, Map)} and {@link #getCleanMatchDTO(Match, char, Map)}.
+     *
+     * @param matches the match entities
+     * @return a map from tournament fencer ID to TournamentFencer for every fencer in the matches
+     * @throws EntityDoesNotExistException if any of the fencers does not exist
+     */
+    public Map<Integer, TournamentFencer> getFencersInMatches(Collection<? extends Match> matches) {
+        Set<Integer> fencerIds = new LinkedHashSet<>();
+        for (Match m : matches) {
+            addFencerId(fencerIds, m.getFencer1());
+            addFencerId(fencerIds, m.getFencer2());
+        }
+
+        Map<Integer, TournamentFencer> fencers = new HashMap<>(fencerIds.size() * 2);
+        if (fencerIds.isEmpty()) {
+            return fencers;
+        }
+        for (TournamentFencer tf : tournamentFencerRepository.findAllById(fencerIds)) {
+            fencers.put(tf.getId(), tf);
+        }
+        if (fencers.size() != fencerIds.size()) {
+            throw new EntityDoesNotExistException("Tournament Fencer does not exist!");
+        }
+        return fencers;
+    }
+
+    /**
+     * Retrieves the list of fencers participating in a given match from a pre-loaded lookup.
+     *
+     * @param m the match entity
+     * @param fencers the lookup returned by {@link #getFencersInMatches(Collection)}
+     * @return a list of TournamentFencer objects representing the fencers in the match
+     * @throws EntityDoesNotExistException if a fencer of the match is missing from the lookup
+     */
+    public List<TournamentFencer> getFencersInMatch(Match m, Map<Integer, TournamentFencer> fencers) {
+        List<TournamentFencer> fencerList = new ArrayList<>(2);
+
+        addFencerToList(fencerList, m.getFencer1(), fencers);
+        addFencerToList(fencerList, m.getFencer2(), fencers);
+
+        return fencerList;
+    }
+
     /**
      * Creates a clean match DTO from a given match entity and match type.
      *
@@ -78,8 +129,24 @@ public class MatchService {
      * @return a CleanMatchDTO containing cleaned match details
      */
     public CleanMatchDTO getCleanMatchDTO(Match m, char matchType) {
-        List<TournamentFencer> fencerList = getFencersInMatch(m);
-        
+        return buildCleanMatchDTO(m, matchType, getFencersInMatch(m));
+    }
+
+    /**
+     * Creates a clean match DTO from a given match entity and match type,
+     * resolving its fencers from a pre-loaded lookup.
+     *
+     * @param m the match entity
+     * @param matchType the type of the match (e.g., poule, elimination)
+     * @param fencers the lookup returned by {@link #getFencersInMatches(Collection)}
+     * @return a CleanMatchDTO containing cleaned match details
+     */
+    public CleanMatchDTO getCleanMatchDTO(Match m, char matchType, Map<Integer, TournamentFencer> fencers) {
+        return buildCleanMatchDTO(m, matchType, getFencersInMatch(m, fencers));
+    }
+
+    // Helper method for building a clean match DTO from the resolved fencers of a match
+    private CleanMatchDTO buildCleanMatchDTO(Match m, char matchType, List<TournamentFencer> fencerList) {
         CleanTournamentFencerDTO ctf1 = fencerList.size() > 0 ? eventService.getCleanTournamentFencerDTO(fencerList.get(0)) : null;
         CleanTournamentFencerDTO ctf2 = fencerList.size() > 1 ? eventService.getCleanTournamentFencerDTO(fencerList.get(1)) : null;
 
@@ -102,4 +169,22 @@ public class MatchService {
             fencerList.add(fencer);
         }
     }
+
+    // Helper method for adding a fencer from a pre-loaded lookup to a list
+    private void addFencerToList(List<TournamentFencer> fencerList, int fencerId, Map<Integer, TournamentFencer> fencers) {
+        if (fencerId != -1) {
+            TournamentFencer fencer = fencers.get(fencerId);
+            if (fencer == null) {
+                throw new EntityDoesNotExistException("Tournament Fencer does not exist!");
+            }
+            fencerList.add(fencer);
+        }
+    }
+
+    // Helper method for collecting the ID of a fencer in a match
+    private void addFencerId(Set<Integer> fencerIds, int fencerId) {
+        if (fencerId != -1) {
+            fencerIds.add(fencerId);
+        }
+    }
 }
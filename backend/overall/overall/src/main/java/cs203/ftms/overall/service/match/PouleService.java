@@ -13,24 +13,35 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import cs203.ftms.overall.comparator.TournamentFencerComparator;
 import cs203.ftms.overall.comparator.TournamentFencerPouleComparator;
+import cs203.ftms.overall.datastructure.PouleScoreMatrix;
 import cs203.ftms.overall.dto.CreatePoulesDTO;
+import cs203.ftms.overall.dto.LiveScoreDTO;
 import cs203.ftms.overall.dto.PouleResultsDTO;
+import cs203.ftms.overall.dto.PouleScoresDTO;
 import cs203.ftms.overall.dto.PouleTableDTO;
 import cs203.ftms.overall.dto.SinglePouleTableDTO;
+import cs203.ftms.overall.dto.UpdatePouleMatchDTO;
 import cs203.ftms.overall.dto.clean.CleanMatchDTO;
 import cs203.ftms.overall.dto.clean.CleanPouleDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentFencerDTO;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.exception.SignUpDateNotOverException;
 import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Match;
 import cs203.ftms.overall.model.tournamentrelated.Poule;
 import cs203.ftms.overall.model.tournamentrelated.PouleMatch;
 import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
@@ -39,6 +50,7 @@ import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
 import cs203.ftms.overall.repository.tournamentrelated.MatchRepository;
 import cs203.ftms.overall.repository.tournamentrelated.PouleRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
 import cs203.ftms.overall.validation.OtherValidations;
 import jakarta.transaction.Transactional;
@@ -55,21 +67,31 @@ public class PouleService {
     private final PouleRepository pouleRepository;
     private final TournamentFencerRepository tournamentFencerRepository;
     private final MatchRepository matchRepository;
+    private final LiveScoreService liveScoreService;
+    private final ResponseCache responseCache;
+    private final Executor pouleExecutor;
 
     // constants for recommendPoules
     private static final int MIN_FENCERS_PER_POULE = 5;
     private static final int MAX_FENCERS_PER_POULE = 15;
 
+    // events with at least this many poules have their poules converted in parallel
+    private static final int PARALLEL_POULE_THRESHOLD = 8;
+
     @Autowired
     public PouleService(MatchService matchService, EventService eventService, EventRepository eventRepository,
             PouleRepository pouleRepository, TournamentFencerRepository tournamentFencerRepository,
-            MatchRepository matchRepository) {
+            MatchRepository matchRepository, LiveScoreService liveScoreService, ResponseCache responseCache,
+            @Qualifier("pouleExecutor") Executor pouleExecutor) {
         this.matchService = matchService;
         this.eventService = eventService;
         this.eventRepository = eventRepository;
         this.pouleRepository = pouleRepository;
         this.tournamentFencerRepository = tournamentFencerRepository;
         this.matchRepository = matchRepository;
+        this.liveScoreService = liveScoreService;
+        this.responseCache = responseCache;
+        this.pouleExecutor = pouleExecutor;
     }
     
     /**
@@ -79,8 +101,9 @@ public class PouleService {
      * @return a CleanPouleDTO object with the necessary details
      */
     public CleanPouleDTO getCleanPouleDTO(Poule p) {
-        List<CleanMatchDTO> cleanMatches = convertPouleMatches(p);
-        List<CleanTournamentFencerDTO> cleanFencers = convertTournamentFencers(p);
+        PouleScoreMatrix matrix = new PouleScoreMatrix(getSortedFencers(p), p.getPouleMatches());
+        List<CleanTournamentFencerDTO> cleanFencers = convertTournamentFencers(matrix);
+        List<CleanMatchDTO> cleanMatches = convertPouleMatches(p, matrix, cleanFencers);
         String eventName = buildEventName(p);
 
         return new CleanPouleDTO(
@@ -92,18 +115,38 @@ public class PouleService {
                 cleanFencers);
     }
 
-    // Helper method to convert a poule into a list of matches
-    private List<CleanMatchDTO> convertPouleMatches(Poule p) {
-        return p.getPouleMatches().stream()
-                .map(pm -> matchService.getCleanMatchDTO(pm, 'P'))
-                .collect(Collectors.toList());
+    // Helper method to convert a poule into a list of matches, resolving fencers through the score matrix
+    private List<CleanMatchDTO> convertPouleMatches(Poule p, PouleScoreMatrix matrix,
+            List<CleanTournamentFencerDTO> cleanFencers) {
+        List<CleanMatchDTO> cleanMatches = new ArrayList<>();
+        List<PouleMatch> unresolved = new ArrayList<>();
+        for (PouleMatch pm : p.getPouleMatches()) {
+            int i = matrix.indexOf(pm.getFencer1());
+            int j = matrix.indexOf(pm.getFencer2());
+            if (i == -1 || j == -1) {
+                unresolved.add(pm);
+                continue;
+            }
+            cleanMatches.add(new CleanMatchDTO(pm.getId(), cleanFencers.get(i), pm.getScore1(),
+                    cleanFencers.get(j), pm.getScore2(), pm.getWinner(), 'P'));
+        }
+
+        if (!unresolved.isEmpty()) {
+            Map<Integer, TournamentFencer> fencers = matchService.getFencersInMatches(unresolved);
+            for (PouleMatch pm : unresolved) {
+                cleanMatches.add(matchService.getCleanMatchDTO(pm, 'P', fencers));
+            }
+        }
+        return cleanMatches;
     }
 
-    // Helper method to convert a poule into a list of tournament fencers
-    private List<CleanTournamentFencerDTO> convertTournamentFencers(Poule p) {
-        return p.getFencers().stream()
-                .map(eventService::getCleanTournamentFencerDTO)
-                .collect(Collectors.toList());
+    // Helper method to convert the fencers of a score matrix into a list of tournament fencers
+    private List<CleanTournamentFencerDTO> convertTournamentFencers(PouleScoreMatrix matrix) {
+        List<CleanTournamentFencerDTO> cleanFencers = new ArrayList<>(matrix.size());
+        for (int i = 0; i < matrix.size(); i++) {
+            cleanFencers.add(eventService.getCleanTournamentFencerDTO(matrix.getFencer(i)));
+        }
+        return cleanFencers;
     }
 
     // Helper method to build the event name for a poule
@@ -192,11 +235,15 @@ public class PouleService {
             return getExistingPoules(event);
         }
 
-        Poule[] poules = createAndSavePoules(event, dto.getPouleCount());
+        // distribute the fencers in memory, then write poules and fencer assignments in batches
+        Poule[] poules = buildPoules(event, dto.getPouleCount());
         List<TournamentFencer> sortedFencers = getSortedFencers(event);
 
         assignFencersToPoules(poules, sortedFencers);
+        pouleRepository.saveAll(Arrays.asList(poules));
+        tournamentFencerRepository.saveAll(sortedFencers);
         savePoulesAndEvent(event, poules);
+        responseCache.invalidateEvent(event);
 
         return getCleanPoules(poules);
     }
@@ -208,20 +255,14 @@ public class PouleService {
 
     // Helper method to get existing poules for an event
     private Set<CleanPouleDTO> getExistingPoules(Event event) {
-        Set<CleanPouleDTO> cleanPoules = new LinkedHashSet<>();
-        for (Poule poule : event.getPoules()) {
-            cleanPoules.add(getCleanPouleDTO(poule));
-        }
-        return cleanPoules;
+        return new LinkedHashSet<>(convertPoules(new ArrayList<>(event.getPoules()), this::getCleanPouleDTO));
     }
 
-    // Helper method to create and save poules for an event
-    private Poule[] createAndSavePoules(Event event, int pouleCount) {
+    // Helper method to create the poules for an event in memory
+    private Poule[] buildPoules(Event event, int pouleCount) {
         Poule[] poules = new Poule[pouleCount];
         for (int i = 0; i < pouleCount; i++) {
-            Poule poule = new Poule(i + 1, event);
-            poules[i] = poule;
-            pouleRepository.save(poule);
+            poules[i] = new Poule(i + 1, event);
         }
         return poules;
     }
@@ -241,9 +282,7 @@ public class PouleService {
         for (TournamentFencer fencer : fencers) {
             Poule poule = poules[i % pouleCount];
             poule.getFencers().add(fencer);
-            pouleRepository.save(poule);
             fencer.setPoule(poule);
-            tournamentFencerRepository.save(fencer);
             i++;
         }
     }
@@ -272,34 +311,114 @@ public class PouleService {
      */
     public Set<CleanPouleDTO> getPoulesOfEvent(int eid) {
         Event event = eventService.getEvent(eid);
-        Set<Poule> poules = event.getPoules();
-        Set<CleanPouleDTO> cleanPoules = new HashSet<>();
-        for (Poule poule : poules) {
-            cleanPoules.add(getCleanPouleDTO(poule));
-        }
-        return cleanPoules;
+        List<Poule> poules = pouleRepository.findByEvent(event);
+        return new HashSet<>(convertPoules(poules, this::getCleanPouleDTO));
     }
 
     /**
      * Creates or retrieves a table for poules within an event.
+     * When only reading, the poules of a large event are converted in parallel.
      *
      * @param eid      the ID of the event
      * @param createPM whether to create poule matches during table generation
      * @return a PouleTableDTO representing the table for all poules
      */
+    @Transactional
     public PouleTableDTO getPouleTable(int eid, boolean createPM) {
         Event event = eventService.getEvent(eid);
         List<Poule> poules = getPoulesByEvent(event);
         PouleTableDTO pouleTableDTO = new PouleTableDTO();
 
-        for (Poule poule : poules) {
-            Map<String, String> pouleMap = createPouleMap(poule, createPM);
-            pouleTableDTO.addPouleTable(pouleMap);
+        if (createPM) {
+            // creating matches writes through this thread's persistence context, so the poules are done in turn
+            for (Poule poule : poules) {
+                pouleTableDTO.addPouleTable(createPouleMap(poule, true));
+            }
+            responseCache.invalidateEvent(event);
+            return pouleTableDTO;
         }
 
+        for (Map<String, String> pouleMap : convertPoules(poules, poule -> createPouleMap(poule, false))) {
+            pouleTableDTO.addPouleTable(pouleMap);
+        }
         return pouleTableDTO;
     }
 
+    /**
+     * Retrieves the score table of every poule of an event in columnar form.
+     * Each poule's fencers are listed in the same order as in getPouleTable, with the scores as one flat array.
+     *
+     * @param eid the ID of the event
+     * @return a list of PouleScoresDTOs, ordered by poule number
+     */
+    public List<PouleScoresDTO> getPouleScores(int eid) {
+        Event event = eventService.getEvent(eid);
+        List<Poule> poules = getPoulesByEvent(event);
+        return convertPoules(poules,
+                poule -> getPouleScoresDTO(poule, new PouleScoreMatrix(getSortedFencers(poule), poule.getPouleMatches())));
+    }
+
+    // Helper method to convert each poule, returning the results in the order of the poules.
+    // Poules are independent, so from PARALLEL_POULE_THRESHOLD poules on they are converted concurrently on the
+    // poule executor, after everything the conversion reads has been loaded on this thread: the persistence context
+    // is not thread safe, so the workers only read entities that are already initialised.
+    private <T> List<T> convertPoules(List<Poule> poules, Function<Poule, T> converter) {
+        List<T> res = new ArrayList<>(poules.size());
+        if (poules.size() < PARALLEL_POULE_THRESHOLD) {
+            for (Poule poule : poules) {
+                res.add(converter.apply(poule));
+            }
+            return res;
+        }
+
+        for (Poule poule : poules) {
+            initializePoule(poule);
+        }
+        List<CompletableFuture<T>> futures = new ArrayList<>(poules.size());
+        for (Poule poule : poules) {
+            futures.add(CompletableFuture.supplyAsync(() -> converter.apply(poule), pouleExecutor));
+        }
+        try {
+            for (CompletableFuture<T> future : futures) {
+                res.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return res;
+    }
+
+    // Helper method to load the event, matches and fencers of a poule on the calling thread
+    private void initializePoule(Poule poule) {
+        Hibernate.initialize(poule.getEvent());
+        Hibernate.initialize(poule.getPouleMatches());
+        for (TournamentFencer tf : poule.getFencers()) {
+            Hibernate.initialize(tf.getFencer());
+        }
+    }
+
+    // Helper method to copy a poule's score matrix into a PouleScoresDTO
+    private PouleScoresDTO getPouleScoresDTO(Poule poule, PouleScoreMatrix matrix) {
+        int n = matrix.size();
+        int[] fencerIds = new int[n];
+        String[] fencerNames = new String[n];
+        String[] fencerCountries = new String[n];
+        int[] scores = new int[n * n];
+        for (int i = 0; i < n; i++) {
+            TournamentFencer tf = matrix.getFencer(i);
+            fencerIds[i] = tf.getId();
+            fencerNames[i] = tf.getFencer().getName();
+            fencerCountries[i] = tf.getFencer().getCountry();
+            for (int j = 0; j < n; j++) {
+                scores[i * n + j] = matrix.getScore(i, j);
+            }
+        }
+        return new PouleScoresDTO(poule.getPouleNumber(), fencerIds, fencerNames, fencerCountries, scores);
+    }
+
     // Helper method to get poules by event
     private List<Poule> getPoulesByEvent(Event event) {
         List<Poule> poules = pouleRepository.findByEvent(event);
@@ -310,13 +429,14 @@ public class PouleService {
     // Helper method to create a map for a poule
     private Map<String, String> createPouleMap(Poule poule, boolean createPM) {
         List<TournamentFencer> fencers = getSortedFencers(poule);
-        Map<String, String> pouleMap = new LinkedHashMap<>();
+        PouleScoreMatrix matrix = new PouleScoreMatrix(fencers, poule.getPouleMatches());
+        if (createPM) {
+            handleCreatePouleMatches(matrix, poule, fencers);
+        }
 
-        for (int i = 0; i < fencers.size(); i++) {
-            TournamentFencer tf1 = fencers.get(i);
-            String key = createPouleKey(tf1);
-            String value = createPouleValue(fencers, tf1, i, createPM, poule);
-            pouleMap.put(key, value);
+        Map<String, String> pouleMap = new LinkedHashMap<>();
+        for (int i = 0; i < matrix.size(); i++) {
+            pouleMap.put(createPouleKey(matrix.getFencer(i)), createPouleValue(matrix, i));
         }
 
         return pouleMap;
@@ -331,68 +451,53 @@ public class PouleService {
 
     // Helper method to create a key for the poule map
     private String createPouleKey(TournamentFencer tf1) {
-        return String.format("%s (%s) -- %d", tf1.getFencer().getName(), tf1.getFencer().getCountry(), tf1.getId());
+        return tf1.getFencer().getName() + " (" + tf1.getFencer().getCountry() + ") -- " + tf1.getId();
     }
 
-    // Helper method to create a value for the poule map
-    private String createPouleValue(List<TournamentFencer> fencers, TournamentFencer tf1, int i, boolean createPM,
-            Poule poule) {
+    // Helper method to create a value for the poule map from row i of the score matrix
+    private String createPouleValue(PouleScoreMatrix matrix, int i) {
         StringBuilder value = new StringBuilder();
-
-        for (int j = 0; j < fencers.size(); j++) {
-            if (i == j) {
-                value.append("-1,");
-            } else {
-                TournamentFencer tf2 = fencers.get(j);
-                if (createPM) {
-                    handleCreatePouleMatch(tf1, tf2, poule, i, j, value);
-                } else {
-                    handleExistingPouleMatch(tf1, tf2, poule, i, j, value);
-                }
+        for (int j = 0; j < matrix.size(); j++) {
+            if (j > 0) {
+                value.append(',');
             }
+            value.append(matrix.getScore(i, j));
         }
-
-        if (value.length() > 0) {
-            value.setLength(value.length() - 1);
-        }
-
         return value.toString();
     }
 
-    // Helper method to create a poule match
-    private void handleCreatePouleMatch(TournamentFencer tf1, TournamentFencer tf2, Poule poule, int i, int j,
-            StringBuilder value) {
-        if (i < j) {
-            createPouleMatch(tf1.getId(), tf2.getId(), poule.getId());
+    // Helper method to create the missing poule matches of every pair of fencers and place them in the matrix;
+    // the matches are built in memory and saved, along with the fencers' match links, in one batch each
+    private void handleCreatePouleMatches(PouleScoreMatrix matrix, Poule poule, List<TournamentFencer> fencers) {
+        int n = matrix.size();
+        List<PouleMatch> pouleMatches = new ArrayList<>(n * (n - 1) / 2);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (matrix.getBout(i, j) == null) {
+                    pouleMatches.add(buildPouleMatch(poule, matrix.getFencer(i), matrix.getFencer(j)));
+                }
+            }
+        }
+        if (pouleMatches.isEmpty()) {
+            return;
         }
-        value.append("0,");
-    }
-
-    // Helper method to get existing poule matches
-    private void handleExistingPouleMatch(TournamentFencer tf1, TournamentFencer tf2, Poule poule, int i, int j,
-            StringBuilder value) {
-        Set<PouleMatch> pouleMatches = poule.getPouleMatches();
 
+        matchRepository.saveAll(pouleMatches);
+        tournamentFencerRepository.saveAll(fencers);
         for (PouleMatch pouleMatch : pouleMatches) {
-            TournamentFencer ptf1 = matchService.getFencer1(pouleMatch);
-            TournamentFencer ptf2 = matchService.getFencer2(pouleMatch);
-
-            if (i < j) {
-                appendPouleMatchScore(tf1, tf2, value, pouleMatch, ptf1, ptf2);
-            } else {
-                appendPouleMatchScore(tf2, tf1, value, pouleMatch, ptf2, ptf1);
-            }
+            matrix.addBout(pouleMatch);
         }
     }
 
-    // Helper method to append poule match scores
-    private void appendPouleMatchScore(TournamentFencer tf1, TournamentFencer tf2, StringBuilder value,
-            PouleMatch pouleMatch, TournamentFencer ptf1, TournamentFencer ptf2) {
-        if (ptf1.getId() == tf1.getId() && ptf2.getId() == tf2.getId()) {
-            value.append(String.format("%d,", pouleMatch.getScore1()));
-        } else if (ptf1.getId() == tf2.getId() && ptf2.getId() == tf1.getId()) {
-            value.append(String.format("%d,", pouleMatch.getScore2()));
-        }
+    // Helper method to build a poule match between two fencers and link it to the poule and both fencers
+    private PouleMatch buildPouleMatch(Poule poule, TournamentFencer fencer1, TournamentFencer fencer2) {
+        PouleMatch pouleMatch = new PouleMatch(poule);
+        pouleMatch.setFencer1(fencer1.getId());
+        pouleMatch.setFencer2(fencer2.getId());
+        poule.getPouleMatches().add(pouleMatch);
+        fencer1.addMatch(pouleMatch);
+        fencer2.addMatch(pouleMatch);
+        return pouleMatch;
     }
 
     /**
@@ -412,6 +517,7 @@ public class PouleService {
         PouleMatch pouleMatch = createAndSavePouleMatch(poule, fid1, fid2);
         updatePouleWithMatch(poule, pouleMatch);
         updateFencersWithMatch(fencer1, fencer2, pouleMatch);
+        responseCache.invalidateEvent(poule.getEvent());
 
         return pouleMatch;
     }
@@ -453,8 +559,82 @@ public class PouleService {
         tournamentFencerRepository.save(fencer2);
     }
 
+    /**
+     * Updates the score of a single poule match.
+     * Only the two fencers of the match are touched: the previous result of the match, if any,
+     * is taken out of their poule points and wins before the new result is added. The match and both fencers
+     * are locked first, so concurrent updates of bouts that share a fencer do not lose each other's changes.
+     * The match is published to the event's live score subscribers if its result changed.
+     *
+     * @param eid the ID of the event
+     * @param dto the DTO containing the match ID and new scores
+     * @param o   the organiser initiating the request
+     * @return the updated PouleMatch
+     * @throws EntityDoesNotExistException if the match does not exist or is not a poule match of the event
+     */
+    @Transactional
+    public PouleMatch updatePouleMatch(int eid, UpdatePouleMatchDTO dto, Organiser o) {
+        Event event = eventService.getEvent(eid);
+        eventService.validateOrganiser(event, o);
+        PouleMatch pouleMatch = getPouleMatch(dto.getMatchId(), eid);
+        // locked in ID order, so that concurrent updates of bouts sharing a fencer wait for each other
+        // instead of losing one of their changes, and cannot deadlock
+        int firstId = Math.min(pouleMatch.getFencer1(), pouleMatch.getFencer2());
+        TournamentFencer first = getLockedTournamentFencer(firstId);
+        TournamentFencer second = getLockedTournamentFencer(Math.max(pouleMatch.getFencer1(), pouleMatch.getFencer2()));
+        TournamentFencer fencer1 = pouleMatch.getFencer1() == firstId ? first : second;
+        TournamentFencer fencer2 = fencer1 == first ? second : first;
+        List<PouleMatch> bouts = List.of(pouleMatch);
+        int[] previousResults = getBoutResults(bouts);
+
+        revertPouleMatchResult(pouleMatch, fencer1, fencer2);
+        pouleMatch.setScore1(dto.getScore1());
+        pouleMatch.setScore2(dto.getScore2());
+        applyPouleMatchResult(pouleMatch, fencer1, fencer2);
+
+        matchRepository.save(pouleMatch);
+        tournamentFencerRepository.saveAll(List.of(fencer1, fencer2));
+        responseCache.invalidateEvent(event);
+        liveScoreService.publish(eid, getChangedBouts(eid, pouleMatch.getPoule().getPouleNumber(), bouts, previousResults));
+        return pouleMatch;
+    }
+
+    // Helper method to get and lock a poule match and check that it belongs to the event
+    private PouleMatch getPouleMatch(int matchId, int eid) {
+        Match match = matchRepository.findLockedById(matchId)
+                .orElseThrow(() -> new EntityDoesNotExistException("Match does not exist!"));
+        if (!(match instanceof PouleMatch) || match.getEvent().getId() != eid) {
+            throw new EntityDoesNotExistException("Poule match does not exist in this event!");
+        }
+        return (PouleMatch) match;
+    }
+
+    // Helper method to get and lock a tournament fencer whose standings are about to change
+    private TournamentFencer getLockedTournamentFencer(int id) {
+        return tournamentFencerRepository.findLockedById(id)
+                .orElseThrow(() -> new EntityDoesNotExistException("Tournament Fencer does not exist!"));
+    }
+
+    // Helper method to take a previously recorded match result back out of both fencers' standings
+    private void revertPouleMatchResult(PouleMatch pouleMatch, TournamentFencer fencer1, TournamentFencer fencer2) {
+        if (pouleMatch.getWinner() == -1) {
+            return;
+        }
+        fencer1.setPoulePoints(fencer1.getPoulePoints() - pouleMatch.getScore1());
+        fencer2.setPoulePoints(fencer2.getPoulePoints() - pouleMatch.getScore2());
+
+        if (pouleMatch.getWinner() == fencer1.getId()) {
+            fencer1.setPouleWins(fencer1.getPouleWins() - 1);
+        } else if (pouleMatch.getWinner() == fencer2.getId()) {
+            fencer2.setPouleWins(fencer2.getPouleWins() - 1);
+        }
+    }
+
     /**
      * Updates the results of a poule table based on the provided data.
+     * The standings of every fencer in the poule are recomputed from all of its matches,
+     * so this also serves to correct standings that have drifted from the recorded scores.
+     * The bouts whose scores or winner changed are pushed to the event's live score subscribers after commit.
      *
      * @param eid the ID of the event
      * @param dto the DTO containing updated poule table data
@@ -469,82 +649,149 @@ public class PouleService {
         eventService.validateOrganiser(event, o);
         Poule poule = getPouleByEventAndNumber(event, dto.getPouleNumber());
         Map<String, String> newPouleTable = dto.getSingleTable();
-        List<TournamentFencer> fencers = getSortedFencers(poule);
-
-        for (TournamentFencer tf : poule.getFencers()) {
-            tf.setPoulePoints(0);
-            tf.setPouleWins(0);
-        }
+        PouleScoreMatrix matrix = new PouleScoreMatrix(getSortedFencers(poule), poule.getPouleMatches());
+        List<PouleMatch> bouts = matrix.getBouts();
+        int[] previousResults = getBoutResults(bouts);
 
         for (int i = 0; i < newPouleTable.size(); i++) {
-            TournamentFencer tf1 = fencers.get(i);
-            String key = createPouleKey(tf1);
+            String key = createPouleKey(matrix.getFencer(i));
             String[] values = newPouleTable.get(key).split(",");
-            updatePouleMatches(poule, fencers, tf1, values, i);
+            updatePouleMatchScores(matrix, values, i);
         }
 
-        updateAllPouleMatches(poule);
+        savePouleScores(event, poule, matrix, bouts, previousResults);
         return true;
     }
 
-    // Helper method to get a poule by event and number
-    private Poule getPouleByEventAndNumber(Event event, int pouleNumber) {
-        return pouleRepository.findByEventAndPouleNumber(event, pouleNumber).get(0);
+    /**
+     * Updates the results of a poule from a columnar score table.
+     * Row r of the table holds the scores of the fencer dto.getFencerIds()[r], so the rows may come in any order,
+     * but every fencer of the poule must have exactly one row. The standings are then recomputed as in updatePouleTable.
+     *
+     * @param eid the ID of the event
+     * @param dto the DTO containing the poule number, fencer IDs and flat score table
+     * @param o   the organiser initiating the request
+     * @return true if the update was successful
+     * @throws MethodArgumentNotValidException if a score is out of range
+     * @throws IllegalArgumentException if the fencers or the size of the table do not match the poule
+     */
+    @Transactional
+    public boolean updatePouleScores(int eid, PouleScoresDTO dto, Organiser o) throws MethodArgumentNotValidException {
+        Event event = eventService.getEvent(eid);
+        eventService.validateOrganiser(event, o);
+        Poule poule = getPouleByEventAndNumber(event, dto.getPouleNumber());
+        PouleScoreMatrix matrix = new PouleScoreMatrix(getSortedFencers(poule), poule.getPouleMatches());
+        int[] index = getRowIndexes(matrix, dto);
+        List<PouleMatch> bouts = matrix.getBouts();
+        int[] previousResults = getBoutResults(bouts);
+
+        // validate the whole table before writing any score, as the checked exception does not roll back
+        int n = index.length;
+        int[] scores = dto.getScores();
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                if (r != c) {
+                    OtherValidations.validPoulePoint(scores[r * n + c]);
+                }
+            }
+        }
+        for (int r = 0; r < n; r++) {
+            for (int c = 0; c < n; c++) {
+                if (r != c) {
+                    matrix.setScore(index[r], index[c], scores[r * n + c]);
+                }
+            }
+        }
+
+        savePouleScores(event, poule, matrix, bouts, previousResults);
+        return true;
     }
 
-    // Helper method to update poule matches
-    private void updatePouleMatches(Poule poule, List<TournamentFencer> fencers, TournamentFencer tf1, String[] values,
-            int i) throws MethodArgumentNotValidException {
-        for (int j = 0; j < fencers.size(); j++) {
-            TournamentFencer tf2 = fencers.get(j);
-            if (i != j) {
-                updatePouleMatchScores(poule, tf1, tf2, values[j], i, j);
+    // Helper method to map each row of a columnar score table to the index of its fencer in the matrix
+    private int[] getRowIndexes(PouleScoreMatrix matrix, PouleScoresDTO dto) {
+        int n = matrix.size();
+        int[] fencerIds = dto.getFencerIds();
+        if (fencerIds == null || fencerIds.length != n || dto.getScores() == null || dto.getScores().length != n * n) {
+            throw new IllegalArgumentException("Poule table does not match the fencers of the poule!");
+        }
+        int[] index = new int[n];
+        boolean[] seen = new boolean[n];
+        for (int r = 0; r < n; r++) {
+            index[r] = matrix.indexOf(fencerIds[r]);
+            if (index[r] == -1 || seen[index[r]]) {
+                throw new IllegalArgumentException("Poule table does not match the fencers of the poule!");
             }
+            seen[index[r]] = true;
         }
+        return index;
     }
 
-    // Helper method to update poule match scores
-    private void updatePouleMatchScores(Poule poule, TournamentFencer tf1, TournamentFencer tf2, String value, int i,
-            int j) throws MethodArgumentNotValidException {
-        Set<PouleMatch> pouleMatches = poule.getPouleMatches();
-
-        for (PouleMatch pouleMatch : pouleMatches) {
-            TournamentFencer ptf1 = matchService.getFencer1(pouleMatch);
-            TournamentFencer ptf2 = matchService.getFencer2(pouleMatch);
+    // Helper method to recompute the standings of a poule from its updated matrix, save them,
+    // and publish the bouts whose results changed
+    private void savePouleScores(Event event, Poule poule, PouleScoreMatrix matrix, List<PouleMatch> bouts,
+                                 int[] previousResults) {
+        for (TournamentFencer tf : poule.getFencers()) {
+            tf.setPoulePoints(0);
+            tf.setPouleWins(0);
+        }
+        updateAllPouleMatches(matrix);
+        responseCache.invalidateEvent(event);
+        liveScoreService.publish(event.getId(), getChangedBouts(event.getId(), poule.getPouleNumber(), bouts, previousResults));
+    }
+
+    // Helper method to record the scores and winner of each bout, three entries per bout
+    private int[] getBoutResults(List<PouleMatch> bouts) {
+        int[] results = new int[bouts.size() * 3];
+        for (int k = 0; k < bouts.size(); k++) {
+            PouleMatch pouleMatch = bouts.get(k);
+            results[3 * k] = pouleMatch.getScore1();
+            results[3 * k + 1] = pouleMatch.getScore2();
+            results[3 * k + 2] = pouleMatch.getWinner();
+        }
+        return results;
+    }
 
-            if (i < j) {
-                if (ptf1.getId() == tf1.getId() && ptf2.getId() == tf2.getId()) {
-                    savePouleMatchScore(value, pouleMatch, 1);
-                    break;
-                }
-            } else {
-                if (ptf1.getId() == tf2.getId() && ptf2.getId() == tf1.getId()) {
-                    savePouleMatchScore(value, pouleMatch, 2);
-                    break;
-                }
+    // Helper method to build the live score updates of the bouts whose recorded results changed
+    private List<LiveScoreDTO> getChangedBouts(int eid, int pouleNumber, List<PouleMatch> bouts, int[] previousResults) {
+        int[] results = getBoutResults(bouts);
+        List<LiveScoreDTO> changed = new ArrayList<>();
+        for (int k = 0; k < bouts.size(); k++) {
+            if (results[3 * k] != previousResults[3 * k] || results[3 * k + 1] != previousResults[3 * k + 1]
+                    || results[3 * k + 2] != previousResults[3 * k + 2]) {
+                changed.add(liveScoreService.getLiveScoreDTO(eid, pouleNumber, bouts.get(k)));
             }
         }
+        return changed;
+    }
+
+    // Helper method to get a poule by event and number
+    private Poule getPouleByEventAndNumber(Event event, int pouleNumber) {
+        return pouleRepository.findByEventAndPouleNumber(event, pouleNumber).get(0);
     }
 
-    // Helper method to update and save poule match score
-    private void savePouleMatchScore(String scoreStr, PouleMatch pouleMatch, int index)
+    // Helper method to write row i of the submitted table into the score matrix
+    private void updatePouleMatchScores(PouleScoreMatrix matrix, String[] values, int i)
             throws MethodArgumentNotValidException {
-        int score = OtherValidations.validPoulePoint(scoreStr);
-        if (index == 1) {
-            pouleMatch.setScore1(score);
-        } else if (index == 2) {
-            pouleMatch.setScore2(score);
+        for (int j = 0; j < matrix.size(); j++) {
+            if (i != j && matrix.getBout(i, j) != null) {
+                matrix.setScore(i, j, OtherValidations.validPoulePoint(values[j]));
+            }
         }
-        matchRepository.save(pouleMatch);
     }
 
     // Helper method to update all poule matches
-    private void updateAllPouleMatches(Poule poule) {
-
-        for (PouleMatch pouleMatch : poule.getPouleMatches()) {
-            updateTournamentFencerPoulePoints(pouleMatch);
-            matchRepository.save(pouleMatch);
+    private void updateAllPouleMatches(PouleScoreMatrix matrix) {
+        List<PouleMatch> pouleMatches = matrix.getBouts();
+        for (PouleMatch pouleMatch : pouleMatches) {
+            applyPouleMatchResult(pouleMatch, matrix.getFencerById(pouleMatch.getFencer1()),
+                    matrix.getFencerById(pouleMatch.getFencer2()));
         }
+        matchRepository.saveAll(pouleMatches);
+        List<TournamentFencer> fencers = new ArrayList<>(matrix.size());
+        for (int i = 0; i < matrix.size(); i++) {
+            fencers.add(matrix.getFencer(i));
+        }
+        tournamentFencerRepository.saveAll(fencers);
     }
 
     // Helper method to update tournament fencer poule points
@@ -552,6 +799,14 @@ public class PouleService {
         TournamentFencer fencer1 = matchService.getFencer1(pouleMatch);
         TournamentFencer fencer2 = matchService.getFencer2(pouleMatch);
 
+        applyPouleMatchResult(pouleMatch, fencer1, fencer2);
+        tournamentFencerRepository.save(fencer1);
+        tournamentFencerRepository.save(fencer2);
+        return pouleMatch;
+    }
+
+    // Helper method to add a match's result to both fencers and set its winner
+    private void applyPouleMatchResult(PouleMatch pouleMatch, TournamentFencer fencer1, TournamentFencer fencer2) {
         fencer1.setPoulePoints(fencer1.getPoulePoints() + pouleMatch.getScore1());
         fencer2.setPoulePoints(fencer2.getPoulePoints() + pouleMatch.getScore2());
 
@@ -564,9 +819,6 @@ public class PouleService {
         } else {
             pouleMatch.setWinner(0);
         }
-        tournamentFencerRepository.save(fencer1);
-        tournamentFencerRepository.save(fencer2);
-        return pouleMatch;
     }
 
     /**
@@ -625,12 +877,25 @@ public class PouleService {
     }
 
 
+    /**
+     * Sets the tournament rank of each fencer to its position in the list, saving only the fencers whose rank changed.
+     * The event's cached responses are invalidated if any rank changed.
+     *
+     * @param tfs the fencers of one event, in rank order
+     */
     @Transactional
     public void updateTournamentFencerRanks(List<TournamentFencer> tfs) {
+        boolean changed = false;
         for (int i = 1; i <= tfs.size(); i++) {
             TournamentFencer tf = tfs.get(i - 1);
-            tf.setTournamentRank(i);
-            tournamentFencerRepository.save(tf);
+            if (tf.getTournamentRank() != i) {
+                tf.setTournamentRank(i);
+                tournamentFencerRepository.save(tf);
+                changed = true;
+            }
+        }
+        if (changed) {
+            responseCache.invalidateEvent(tfs.get(0).getEvent());
         }
     }
 
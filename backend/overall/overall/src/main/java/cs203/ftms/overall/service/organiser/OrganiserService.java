@@ -17,6 +17,7 @@ import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
 import cs203.ftms.overall.repository.userrelated.OrganiserRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
 import cs203.ftms.overall.service.authentication.AuthenticationService;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import jakarta.persistence.EntityNotFoundException;
 
 /**
@@ -30,16 +31,18 @@ public class OrganiserService {
     private final OrganiserRepository organiserRepository;
     private final UserRepository userRepository;
     private final AuthenticationService authenticationService;
+    private final ResponseCache responseCache;
 
     @Autowired
     public OrganiserService(TournamentRepository tournamentRepository, PasswordEncoder passwordEncoder, 
                             UserRepository userRepository, OrganiserRepository organiserRepository, 
-                            AuthenticationService authenticationService) {
+                            AuthenticationService authenticationService, ResponseCache responseCache) {
         this.tournamentRepository = tournamentRepository;
         this.passwordEncoder = passwordEncoder;
         this.userRepository = userRepository;
         this.organiserRepository = organiserRepository;
         this.authenticationService = authenticationService;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -88,23 +91,29 @@ public class OrganiserService {
         if (verifiedUser == null) {
             return "old password is incorrect";
         }
-        u.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(u);
+        verifiedUser.setPassword(passwordEncoder.encode(newPassword));
+        userRepository.save(verifiedUser);
         return "password changed successfully";
     }
 
     /**
      * Updates the profile of an organiser with new details.
      *
-     * @param o the Organiser whose profile is to be updated
+     * The organiser is reloaded, so that the profile is updated on its current row rather than on the given principal.
+     *
+     * @param principal the Organiser whose profile is to be updated
      * @param dto the DTO containing updated profile details
      */
-    public void updateProfile(Organiser o, UpdateOrganiserProfileDTO dto) {
+    public void updateProfile(Organiser principal, UpdateOrganiserProfileDTO dto) {
+        Organiser o = organiserRepository.findById(principal.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Organiser with id " + principal.getId() + " not found"));
         o.setContactNo(dto.getContactNo());
         o.setCountry(dto.getCountry());
         o.setEmail(dto.getEmail());
         o.setName(dto.getName());
         userRepository.save(o);
+        // The organiser's name is shown in the cached details of its tournaments
+        responseCache.invalidateAll();
     }
 
     /**
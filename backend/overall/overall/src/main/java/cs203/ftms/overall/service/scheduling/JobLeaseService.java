@@ -0,0 +1,168 @@
+package cs203.ftms.overall.service.scheduling;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.OptionalLong;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cs203.ftms.overall.exception.LeaseLostException;
+import cs203.ftms.overall.repository.schedulingrelated.JobLeaseRepository;
+
+/**
+ * Service class that lets exactly one instance of the application run each scheduled job, when several
+ * instances share the database. Each job has a lease in the job_lease table; an instance runs the job only
+ * if it acquires the lease, and skips the run otherwise.
+ * <p>
+ * A lease is held for at most a given time, after which another instance may take it over if the holder died.
+ * It is also held for at least a given time, so an instance whose clock runs a little behind does not run a
+ * job again just after another instance finished it. The job's writes are made in a transaction that first
+ * checks, and locks, the lease's fencing token, so an instance that stalled past the lease's expiry and lost
+ * it to another instance writes nothing.
+ */
+@Service
+public class JobLeaseService {
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Supplier<LocalDateTime> clock;
+
+    /**
+     * Constructs the job lease service.
+     *
+     * @param jobLeaseRepository the repository of leases.
+     * @param transactionManager the transaction manager, used to run each step in its own transaction.
+     * @param nodeId the name of this instance, recorded as the owner of the leases it acquires.
+     */
+    @Autowired
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager,
+            @Value("${scheduling.node-id}") String nodeId) {
+        this(jobLeaseRepository, transactionManager, nodeId, LocalDateTime::now);
+    }
+
+    /**
+     * Constructs a job lease service that reads the time from the given clock.
+     *
+     * @param jobLeaseRepository the repository of leases.
+     * @param transactionManager the transaction manager, used to run each step in its own transaction.
+     * @param nodeId the name of this instance, recorded as the owner of the leases it acquires.
+     * @param clock the source of the current time.
+     */
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager,
+            String nodeId, Supplier<LocalDateTime> clock) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
+
+    /**
+     * Runs a job if this instance acquires its lease, in a transaction fenced by the lease's token,
+     * then releases the lease.
+     *
+     * @param job the name of the job.
+     * @param atMost the longest time the lease is held, after which another instance may take it over;
+     *               longer than the job is expected to run.
+     * @param atLeast the shortest time the lease is held from when it was acquired, even if the job finishes sooner.
+     * @param task the job.
+     * @return true if this instance ran the job, false if another instance holds the lease.
+     * @throws LeaseLostException if the lease was taken over before the job's transaction started.
+     */
+    public boolean runExclusively(String job, Duration atMost, Duration atLeast, Runnable task) {
+        return runWithLease(job, atMost, atLeast, token -> runFenced(job, token, task));
+    }
+
+    /**
+     * Runs a job if this instance acquires its lease, then releases the lease. The job runs outside any
+     * transaction and is given the lease's fencing token, so that it can do slow work, such as calling
+     * another server, without holding a lock, and make its writes in short transactions through runFenced.
+     *
+     * @param job the name of the job.
+     * @param atMost the longest time the lease is held, after which another instance may take it over;
+     *               longer than the job is expected to run.
+     * @param atLeast the shortest time the lease is held from when it was acquired, even if the job finishes sooner.
+     * @param task the job, given the fencing token the lease was acquired with.
+     * @return true if this instance ran the job, false if another instance holds the lease.
+     */
+    public boolean runWithLease(String job, Duration atMost, Duration atLeast, LongConsumer task) {
+        LocalDateTime start = clock.get();
+        OptionalLong token = tryAcquire(job, atMost);
+        if (token.isEmpty()) {
+            return false;
+        }
+        try {
+            task.accept(token.getAsLong());
+        } finally {
+            LocalDateTime end = clock.get();
+            LocalDateTime minimum = start.plus(atLeast);
+            release(job, token.getAsLong(), end.isAfter(minimum) ? end : minimum);
+        }
+        return true;
+    }
+
+    /**
+     * Tries to acquire the lease on a job, creating the lease the first time the job runs.
+     *
+     * @param job the name of the job.
+     * @param atMost the longest time the lease is held.
+     * @return the fencing token of the acquisition, or empty if another instance holds the lease.
+     */
+    public OptionalLong tryAcquire(String job, Duration atMost) {
+        LocalDateTime now = clock.get();
+        LocalDateTime until = now.plus(atMost);
+        try {
+            return transactionTemplate.execute(status -> {
+                if (jobLeaseRepository.acquire(job, nodeId, now, until) == 1) {
+                    return OptionalLong.of(jobLeaseRepository.findById(job).orElseThrow().getToken());
+                }
+                if (jobLeaseRepository.existsById(job)) {
+                    return OptionalLong.empty();
+                }
+                // a plain insert rather than save, which would merge into a lease another instance just created
+                jobLeaseRepository.create(job, nodeId, now, until);
+                return OptionalLong.of(1);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another instance created the lease first
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Runs a job's writes in a transaction that first checks that the lease still has the given fencing token.
+     * The lease's row stays locked until the transaction ends, so it cannot be taken over while the job writes.
+     *
+     * @param job the name of the job.
+     * @param token the fencing token the lease was acquired with.
+     * @param task the job.
+     * @throws LeaseLostException if the lease has been taken over since it was acquired with the token.
+     */
+    public void runFenced(String job, long token, Runnable task) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (jobLeaseRepository.findByNameAndToken(job, token).isEmpty()) {
+                throw new LeaseLostException("Lease on " + job + " has been taken over!");
+            }
+            task.run();
+        });
+    }
+
+    /**
+     * Releases the lease on a job, unless it has been taken over since it was acquired with the given token.
+     *
+     * @param job the name of the job.
+     * @param token the fencing token the lease was acquired with.
+     * @param until the time until which the lease stays held; the current time frees it now.
+     */
+    public void release(String job, long token, LocalDateTime until) {
+        transactionTemplate.executeWithoutResult(status -> jobLeaseRepository.release(job, token, until));
+    }
+}
@@ -2,17 +2,24 @@ package cs203.ftms.overall.service.tournament;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import cs203.ftms.overall.dto.CreateTournamentDTO;
 import cs203.ftms.overall.dto.clean.CleanEventDTO;
+import cs203.ftms.overall.dto.clean.CleanFencerDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentDTO;
+import cs203.ftms.overall.dto.projection.EventFencerSummary;
+import cs203.ftms.overall.dto.projection.EventSummary;
+import cs203.ftms.overall.dto.projection.TournamentSummary;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.exception.TournamentAlreadyStartedException;
 import cs203.ftms.overall.model.tournamentrelated.Event;
@@ -21,8 +28,10 @@ import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
 import cs203.ftms.overall.validation.OtherValidations;
 import jakarta.transaction.Transactional;
@@ -37,14 +46,19 @@ public class TournamentService {
     private final EventService eventService;
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
+    private final TournamentFencerRepository tournamentFencerRepository;
+    private final ResponseCache responseCache;
 
     @Autowired
     public TournamentService(TournamentRepository tournamentRepository, EventService eventService,
-                             EventRepository eventRepository, UserRepository userRepository) {
+                             EventRepository eventRepository, UserRepository userRepository,
+                             TournamentFencerRepository tournamentFencerRepository, ResponseCache responseCache) {
         this.tournamentRepository = tournamentRepository;
         this.eventService = eventService;
         this.eventRepository = eventRepository;
         this.userRepository = userRepository;
+        this.tournamentFencerRepository = tournamentFencerRepository;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -69,6 +83,93 @@ public class TournamentService {
                                       t.getRules(), cleanEvents, t.getDifficulty(), t.getAdvancementRate());
     }
 
+    /**
+     * Retrieves all tournaments as CleanTournamentDTOs.
+     * Tournaments, events and fencers are each read with a single projection query,
+     * so the number of queries does not grow with the number of tournaments or registrations.
+     *
+     * @param pageable the page of tournaments to retrieve, or Pageable.unpaged() for all of them
+     * @return a list of CleanTournamentDTOs for every tournament
+     */
+    public List<CleanTournamentDTO> getAllCleanTournamentDTOs(Pageable pageable) {
+        return getCleanTournamentDTOs(tournamentRepository.findAllSummaries(pageable));
+    }
+
+    /**
+     * Retrieves upcoming tournaments as CleanTournamentDTOs, using the same projection queries
+     * as {@link #getAllCleanTournamentDTOs(Pageable)}, soonest first.
+     *
+     * @param pageable the page of tournaments to retrieve, or Pageable.unpaged() for all of them
+     * @return a list of CleanTournamentDTOs for tournaments starting after today
+     */
+    public List<CleanTournamentDTO> getUpcomingCleanTournamentDTOs(Pageable pageable) {
+        return getCleanTournamentDTOs(tournamentRepository.findSummariesByStartDateAfter(LocalDate.now(), pageable));
+    }
+
+    /**
+     * Retrieves past tournaments as CleanTournamentDTOs, using the same projection queries
+     * as {@link #getAllCleanTournamentDTOs(Pageable)}, most recent first.
+     *
+     * @param pageable the page of tournaments to retrieve, or Pageable.unpaged() for all of them
+     * @return a list of CleanTournamentDTOs for tournaments that started before today
+     */
+    public List<CleanTournamentDTO> getPastCleanTournamentDTOs(Pageable pageable) {
+        return getCleanTournamentDTOs(tournamentRepository.findSummariesByStartDateBefore(LocalDate.now(), pageable));
+    }
+
+    // Helper method to assemble CleanTournamentDTOs from tournament summaries with one query for
+    // the events of all tournaments and one for the fencers of all events
+    private List<CleanTournamentDTO> getCleanTournamentDTOs(List<TournamentSummary> tournaments) {
+        List<CleanTournamentDTO> result = new ArrayList<>(tournaments.size());
+        if (tournaments.isEmpty()) {
+            return result;
+        }
+
+        List<Integer> tournamentIds = new ArrayList<>(tournaments.size());
+        for (TournamentSummary t : tournaments) {
+            tournamentIds.add(t.getId());
+        }
+        List<EventSummary> events = eventRepository.findSummariesByTournamentIds(tournamentIds);
+        Map<Integer, List<CleanFencerDTO>> fencersByEvent = getCleanFencersByEvent(events);
+
+        Map<Integer, List<CleanEventDTO>> eventsByTournament = new HashMap<>();
+        for (EventSummary e : events) {
+            List<CleanFencerDTO> fencers = fencersByEvent.getOrDefault(e.getId(), new ArrayList<>());
+            eventsByTournament.computeIfAbsent(e.getTournamentId(), id -> new ArrayList<>())
+                    .add(new CleanEventDTO(e.getId(), e.getGender(), e.getWeapon(), e.getTournamentName(), fencers,
+                                           e.getMinParticipants(), e.getParticipantCount(), e.getDate(), e.getStartTime(),
+                                           e.getEndTime(), e.getSignupEndDate(), e.getEventEnded()));
+        }
+
+        for (TournamentSummary t : tournaments) {
+            List<CleanEventDTO> cleanEvents = eventsByTournament.getOrDefault(t.getId(), new ArrayList<>());
+            result.add(new CleanTournamentDTO(t.getId(), t.getName(), t.getOrganiserName(), t.getSignupEndDate(),
+                                              t.getStartDate(), t.getEndDate(), t.getLocation(), t.getDescription(),
+                                              t.getRules(), cleanEvents, t.getDifficulty(), t.getAdvancementRate()));
+        }
+        return result;
+    }
+
+    // Helper method to group the registered fencers of the given events by event ID
+    private Map<Integer, List<CleanFencerDTO>> getCleanFencersByEvent(List<EventSummary> events) {
+        Map<Integer, List<CleanFencerDTO>> fencersByEvent = new HashMap<>();
+        if (events.isEmpty()) {
+            return fencersByEvent;
+        }
+
+        List<Integer> eventIds = new ArrayList<>(events.size());
+        for (EventSummary e : events) {
+            eventIds.add(e.getId());
+        }
+        for (EventFencerSummary f : tournamentFencerRepository.findFencerSummariesByEventIds(eventIds)) {
+            fencersByEvent.computeIfAbsent(f.getEventId(), id -> new ArrayList<>())
+                    .add(new CleanFencerDTO(f.getId(), f.getName(), f.getEmail(), f.getContactNo(), f.getCountry(),
+                                            f.getDateOfBirth(), f.getDominantArm(), f.getWeapon(), f.getClub(),
+                                            f.getPoints(), f.getDebutYear(), f.getGender()));
+        }
+        return fencersByEvent;
+    }
+
     /**
      * Retrieves a Tournament entity by its ID.
      *
@@ -125,6 +226,7 @@ public class TournamentService {
         validateEventsDates(tournament, dto);
 
         updateTournamentDetails(tournament, dto);
+        invalidateTournamentAndEvents(tournament);
         return tournamentRepository.save(tournament);
     }
 
@@ -134,14 +236,7 @@ public class TournamentService {
      * @return a list of upcoming Tournament entities
      */
     public List<Tournament> getUpcomingTournaments() {
-        List<Tournament> tList = tournamentRepository.findAll();
-        List<Tournament> upcomingTournaments = new ArrayList<>();
-        for (Tournament t : tList) {
-            if (t.getStartDate().isAfter(LocalDate.now())) {
-                upcomingTournaments.add(t);
-            }
-        }
-        return upcomingTournaments;
+        return tournamentRepository.findByStartDateAfter(LocalDate.now());
     }
 
     /**
@@ -150,14 +245,7 @@ public class TournamentService {
      * @return a list of past Tournament entities
      */
     public List<Tournament> getPastTournaments() {
-        List<Tournament> tList = tournamentRepository.findAll();
-        List<Tournament> pastTournaments = new ArrayList<>();
-        for (Tournament t : tList) {
-            if (t.getStartDate().isBefore(LocalDate.now())) {
-                pastTournaments.add(t);
-            }
-        }
-        return pastTournaments;
+        return tournamentRepository.findByStartDateBefore(LocalDate.now());
     }
 
     /**
@@ -172,10 +260,19 @@ public class TournamentService {
         validateOrganiser(tournament, organiser);
         validateTournamentNotStarted(tournament);
         unregisterAllFencers(tournament);
-        removeFromOrganiser(tournament, organiser);
+        removeFromOrganiser(tournament);
+        invalidateTournamentAndEvents(tournament);
         deleteTournamentAndEvents(tournament);
     }
 
+    // Invalidates the cached responses of the tournament and of its events, which show its name and dates
+    private void invalidateTournamentAndEvents(Tournament tournament) {
+        responseCache.invalidateTournament(tournament.getId());
+        for (Event event : tournament.getEvents()) {
+            responseCache.invalidateEvent(event.getId(), tournament.getId());
+        }
+    }
+
     // Validates that the organiser matches the tournament organiser
     private void validateOrganiser(Tournament tournament, Organiser organiser) {
         if (tournament.getOrganiser().getId() != organiser.getId()) {
@@ -236,7 +333,9 @@ public class TournamentService {
     }
 
     // Removes the tournament from the organiser
-    private void removeFromOrganiser(Tournament tournament, Organiser organiser) {
+    // The tournament's own organiser is used, as the requesting principal may be detached with its tournaments unloaded
+    private void removeFromOrganiser(Tournament tournament) {
+        Organiser organiser = tournament.getOrganiser();
         Set<Tournament> tourHost = organiser.getTourHost();
         tourHost.removeIf(t -> t.getId() == tournament.getId());
         organiser.setTourHost(tourHost);
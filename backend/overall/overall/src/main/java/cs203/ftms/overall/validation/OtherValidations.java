@@ -132,8 +132,19 @@ public class OtherValidations {
             bindingResult.addError(new FieldError("pouleScore", "pouleScore", "The poule score must be an integer within 0 to 5."));
             throw new MethodArgumentNotValidException(null, bindingResult);
         }
+        return validPoulePoint(score);
+    }
+
+    /**
+     * Validates that a poule score is between 0 and 5.
+     *
+     * @param score The score to validate.
+     * @return The validated score.
+     * @throws MethodArgumentNotValidException if the score is out of the range 0-5.
+     */
+    public static int validPoulePoint(int score) throws MethodArgumentNotValidException {
         if (score < 0 || score > 5) {
-            BindingResult bindingResult = new BeanPropertyBindingResult(scoreStr, "Poule Score");
+            BindingResult bindingResult = new BeanPropertyBindingResult(score, "Poule Score");
             bindingResult.addError(new FieldError("pouleScore", "pouleScore", "The poule score must be an integer within 0 to 5."));
             throw new MethodArgumentNotValidException(null, bindingResult);
         }
@@ -2,14 +2,22 @@ package cs203.ftms.overall;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyChar;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,21 +25,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import cs203.ftms.overall.datastructure.PointsDistribution;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.tournamentrelated.Tournament;
 import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
-import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
 import cs203.ftms.overall.repository.userrelated.FencerRepository;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
 import cs203.ftms.overall.service.chatbot.ChatbotService;
 
 class ChatbotServiceTest {
 
-    @Mock
-    private TournamentRepository tournamentRepository;
+    private static final long TTL = 60000;
 
     @Mock
     private EventRepository eventRepository;
@@ -39,6 +48,11 @@ class ChatbotServiceTest {
     @Mock
     private FencerRepository fencerRepository;
 
+    private final AtomicLong now = new AtomicLong();
+
+    @Spy
+    private EventSnapshotCache eventSnapshotCache = new EventSnapshotCache(TTL, 100, now::get);
+
     @InjectMocks
     private ChatbotService chatbotService;
 
@@ -69,7 +83,7 @@ class ChatbotServiceTest {
         fencer.setGender('M');
 
         List<Tournament> tournaments = createMockTournaments();
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        stubRecommendationCandidates(tournaments);
         when(fencerRepository.findById(1)).thenReturn(Optional.of(fencer));
         when(eventRepository.findById(1)).thenReturn(Optional.of(createMockEvent(1, 'M', 'F')));
         when(eventRepository.findById(2)).thenReturn(Optional.of(createMockEvent(2, 'M', 'F')));
@@ -105,11 +119,11 @@ class ChatbotServiceTest {
         fencer.setWeapon('F');
         fencer.setClub("Best Club");
         fencer.setPoints(100);
-        fencer.setDebutYear(2020); // Experience is 5 years
+        fencer.setDebutYear(LocalDate.now().getYear() - 4); // Experience is 4 years
         fencer.setGender('M');
 
         List<Tournament> tournaments = createMockTournaments();
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        stubRecommendationCandidates(tournaments);
         when(fencerRepository.findById(1)).thenReturn(Optional.of(fencer));
         when(eventRepository.findById(1)).thenReturn(Optional.of(createMockEvent(1, 'M', 'F')));
         when(eventRepository.findById(2)).thenReturn(Optional.of(createMockEvent(2, 'M', 'F')));
@@ -145,11 +159,11 @@ class ChatbotServiceTest {
         fencer.setWeapon('F');
         fencer.setClub("Best Club");
         fencer.setPoints(100);
-        fencer.setDebutYear(2023); // Experience is less than 3 years
+        fencer.setDebutYear(LocalDate.now().getYear() - 2); // Experience is less than 3 years
         fencer.setGender('M');
 
         List<Tournament> tournaments = createMockTournaments();
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        stubRecommendationCandidates(tournaments);
         when(fencerRepository.findById(1)).thenReturn(Optional.of(fencer));
         when(eventRepository.findById(1)).thenReturn(Optional.of(createMockEvent(1, 'M', 'F')));
         when(eventRepository.findById(2)).thenReturn(Optional.of(createMockEvent(2, 'M', 'F')));
@@ -183,11 +197,11 @@ class ChatbotServiceTest {
         fencer.setWeapon('S');
         fencer.setClub("Best Club");
         fencer.setPoints(100);
-        fencer.setDebutYear(2023); // Experience is less than 3 years
+        fencer.setDebutYear(LocalDate.now().getYear() - 2); // Experience is less than 3 years
         fencer.setGender('M');
 
         List<Tournament> tournaments = createMockTournaments();
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        stubRecommendationCandidates(tournaments);
         when(fencerRepository.findById(1)).thenReturn(Optional.of(fencer));
         when(eventRepository.findById(1)).thenReturn(Optional.of(createMockEvent(1, 'M', 'F')));
         when(eventRepository.findById(2)).thenReturn(Optional.of(createMockEvent(2, 'M', 'F')));
@@ -220,11 +234,11 @@ class ChatbotServiceTest {
         fencer.setWeapon('F');
         fencer.setClub("Best Club");
         fencer.setPoints(100);
-        fencer.setDebutYear(2023); // Experience is less than 3 years
+        fencer.setDebutYear(LocalDate.now().getYear() - 2); // Experience is less than 3 years
         fencer.setGender('W');
 
         List<Tournament> tournaments = createMockTournaments();
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        stubRecommendationCandidates(tournaments);
         when(fencerRepository.findById(1)).thenReturn(Optional.of(fencer));
         when(eventRepository.findById(1)).thenReturn(Optional.of(createMockEvent(1, 'M', 'F')));
         when(eventRepository.findById(2)).thenReturn(Optional.of(createMockEvent(2, 'M', 'F')));
@@ -257,11 +271,11 @@ class ChatbotServiceTest {
         fencer.setWeapon('F');
         fencer.setClub("Best Club");
         fencer.setPoints(1);
-        fencer.setDebutYear(2023); // Experience is less than 3 years
+        fencer.setDebutYear(LocalDate.now().getYear() - 2); // Experience is less than 3 years
         fencer.setGender('M');
 
         List<Tournament> tournaments = createMockTournaments();
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        stubRecommendationCandidates(tournaments);
         when(fencerRepository.findById(1)).thenReturn(Optional.of(fencer));
         when(eventRepository.findById(1)).thenReturn(Optional.of(createMockEvent(1, 'M', 'F')));
         when(eventRepository.findById(2)).thenReturn(Optional.of(createMockEvent(2, 'M', 'F')));
@@ -277,10 +291,50 @@ class ChatbotServiceTest {
     }
 
 
+    /**
+     * Tests that the candidate events are queried for upcoming tournaments of the difficulties the fencer
+     * is experienced enough for, with the fencer's gender and weapon.
+     */
+    @Test
+    void getRecommendedTournaments_QueriesUpcomingCandidatesOfSuitableDifficulties() {
+        // Arrange
+        Fencer fencer = new Fencer();
+        fencer.setId(11);
+        fencer.setWeapon('E');
+        fencer.setPoints(100);
+        fencer.setDebutYear(LocalDate.now().getYear() - 4);
+        fencer.setGender('W');
+        stubRecommendationCandidates(createMockTournaments());
+
+        // Act
+        chatbotService.getRecommendedTournaments(fencer);
+
+        // Assert
+        verify(eventRepository, times(1)).findRecommendationCandidates(LocalDate.now(), List.of('B', 'I'), 'W', 'E');
+    }
+
+    // Helper method to answer the recommendation candidate query from the given tournaments, as the database would
+    @SuppressWarnings("unchecked")
+    private void stubRecommendationCandidates(List<Tournament> tournaments) {
+        when(eventRepository.findRecommendationCandidates(any(), anyCollection(), anyChar(), anyChar()))
+                .thenAnswer(invocation -> {
+                    LocalDate date = invocation.getArgument(0);
+                    Collection<Character> difficulties = invocation.getArgument(1);
+                    char gender = invocation.getArgument(2);
+                    char weapon = invocation.getArgument(3);
+                    return tournaments.stream()
+                            .filter(t -> t.getStartDate().isAfter(date) && difficulties.contains(t.getDifficulty()))
+                            .flatMap(t -> t.getEvents().stream())
+                            .filter(e -> e.getGender() == gender && e.getWeapon() == weapon)
+                            .collect(Collectors.toList());
+                });
+    }
+
     private List<Tournament> createMockTournaments() {
         Event event1 = createMockEvent(1, 'M', 'F');
         Tournament tournament1 = new Tournament();
         tournament1.setDifficulty('A');
+        tournament1.setStartDate(LocalDate.now().plusDays(1));
         Set<Event> events1 = new HashSet<>();
         events1.add(event1);
         tournament1.setEvents(events1);
@@ -289,6 +343,7 @@ class ChatbotServiceTest {
         Event event2 = createMockEvent(2, 'M', 'F');
         Tournament tournament2 = new Tournament();
         tournament2.setDifficulty('B');
+        tournament2.setStartDate(LocalDate.now().plusDays(2));
         Set<Event> events2 = new HashSet<>();
         events2.add(event2);
         tournament2.setEvents(events2);
@@ -297,6 +352,7 @@ class ChatbotServiceTest {
         Event event3 = createMockEvent(3, 'M', 'F');
         Tournament tournament3 = new Tournament();
         tournament3.setDifficulty('I');
+        tournament3.setStartDate(LocalDate.now().plusDays(3));
         Set<Event> events3 = new HashSet<>();
         events3.add(event3);
         tournament3.setEvents(events3);
@@ -422,10 +478,11 @@ class ChatbotServiceTest {
         fencer.setGender('M');
 
         Event event = createMockEvent(1, 'M', 'F');
+        // four registrants ahead of the fencer, who is expected to finish fifth of ten
+        event.getFencers().stream().limit(4).forEach(tf -> tf.getFencer().setPoints(200));
         when(eventRepository.findById(1)).thenReturn(Optional.of(event));
 
         ChatbotService spyChatbotService = Mockito.spy(chatbotService);
-        Mockito.doReturn(5).when(spyChatbotService).expectedRank(event, fencer);
 
         // Act
         String result = spyChatbotService.getWinrate(1, fencer);
@@ -487,17 +544,12 @@ class ChatbotServiceTest {
         Event event = createMockEvent(1, 'M', 'F');
         when(eventRepository.findById(1)).thenReturn(Optional.of(event));
 
-        // Mock methods used in getProjectedPointsEarned
-        ChatbotService spyChatbotService = Mockito.spy(chatbotService);
-        Mockito.doReturn(1).when(spyChatbotService).expectedRank(event, fencer);
-        Mockito.doReturn(100).when(spyChatbotService).getPointsForDistribution(event.getFencers());
-        Mockito.doReturn(20).when(spyChatbotService).calculatePoints(1, 100, 8);
-
         // Act
-        int result = spyChatbotService.getProjectedPointsEarned(1, fencer);
+        int result = chatbotService.getProjectedPointsEarned(1, fencer);
 
         // Assert
-        assertEquals(20, result);
+        // first of the 8 fencers earning points, sharing a fifth of the registrants' 990 points
+        assertEquals(PointsDistribution.calculatePoints(1, 198, 8), result);
     }
 
     /**
@@ -511,14 +563,8 @@ class ChatbotServiceTest {
         Event event = createMockEventWithNoFencers(1, 'M', 'F');
         when(eventRepository.findById(1)).thenReturn(Optional.of(event));
 
-        // Mock methods used in getProjectedPointsEarned
-        ChatbotService spyChatbotService = Mockito.spy(chatbotService);
-        Mockito.doReturn(1).when(spyChatbotService).expectedRank(event, fencer);
-        Mockito.doReturn(0).when(spyChatbotService).getPointsForDistribution(event.getFencers());
-        Mockito.doReturn(0).when(spyChatbotService).calculatePoints(1, 0, 0);
-
         // Act
-        int result = spyChatbotService.getProjectedPointsEarned(1, fencer);
+        int result = chatbotService.getProjectedPointsEarned(1, fencer);
 
         // Assert
         assertEquals(0, result);
@@ -531,23 +577,67 @@ class ChatbotServiceTest {
     @Test
     void getProjectedPointsEarned_ExpectedRankGreaterThanTotalFencers() {
         // Arrange
-        Fencer fencer = createMockFencer(1, 100);
+        Fencer fencer = createMockFencer(11, 1); // Below all 10 registrants, so expected rank 11
         Event event = createMockEvent(1, 'M', 'F');
         when(eventRepository.findById(1)).thenReturn(Optional.of(event));
 
-        // Mock methods used in getProjectedPointsEarned
-        ChatbotService spyChatbotService = Mockito.spy(chatbotService);
-        Mockito.doReturn(11).when(spyChatbotService).expectedRank(event, fencer); // Rank greater than total fencers
-        Mockito.doReturn(100).when(spyChatbotService).getPointsForDistribution(event.getFencers());
-        Mockito.doReturn(0).when(spyChatbotService).calculatePoints(11, 100, 8);
-
         // Act
-        int result = spyChatbotService.getProjectedPointsEarned(1, fencer);
+        int result = chatbotService.getProjectedPointsEarned(1, fencer);
 
         // Assert
         assertEquals(0, result);
     }
 
+    /**
+     * Tests that an event's snapshot is loaded once and reused by later predictions,
+     * and taken again once a registration invalidates it.
+     */
+    @Test
+    void getProjectedPointsEarned_CachedSnapshot_ReloadedAfterInvalidation() {
+        // Arrange
+        Fencer fencer = createMockFencer(11, 100);
+        Event event = createMockEvent(1, 'M', 'F');
+        when(eventRepository.findById(1)).thenReturn(Optional.of(event));
+
+        // Act & Assert
+        assertEquals(1, chatbotService.expectedRank(1, fencer));
+        assertEquals(1, chatbotService.calculateWinrate(1, fencer));
+        verify(eventRepository, times(1)).findById(1);
+
+        TournamentFencer registrant = new TournamentFencer();
+        registrant.setFencer(createMockFencer(12, 500));
+        event.getFencers().add(registrant);
+        assertEquals(1, chatbotService.expectedRank(1, fencer));
+
+        eventSnapshotCache.invalidateEvent(1);
+        assertEquals(2, chatbotService.expectedRank(1, fencer));
+        verify(eventRepository, times(2)).findById(1);
+    }
+
+    /**
+     * Tests that an event's snapshot is taken again once its time to live has passed,
+     * so that a registration made through another instance is eventually seen.
+     */
+    @Test
+    void getProjectedPointsEarned_CachedSnapshot_ReloadedAfterTtl() {
+        // Arrange
+        Fencer fencer = createMockFencer(11, 100);
+        Event event = createMockEvent(1, 'M', 'F');
+        when(eventRepository.findById(1)).thenReturn(Optional.of(event));
+        assertEquals(1, chatbotService.expectedRank(1, fencer));
+
+        TournamentFencer registrant = new TournamentFencer();
+        registrant.setFencer(createMockFencer(12, 500));
+        event.getFencers().add(registrant);
+
+        // Act & Assert
+        now.addAndGet(TTL - 1);
+        assertEquals(1, chatbotService.expectedRank(1, fencer));
+        now.incrementAndGet();
+        assertEquals(2, chatbotService.expectedRank(1, fencer));
+        verify(eventRepository, times(2)).findById(1);
+    }
+
     /**
      * Tests the scenario where the event does not exist in the repository.
      * Verifies that an EntityDoesNotExistException is thrown when the event is not found.
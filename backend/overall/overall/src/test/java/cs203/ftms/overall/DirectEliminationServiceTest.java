@@ -1,9 +1,12 @@
 package cs203.ftms.overall;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -13,16 +16,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
 
 import cs203.ftms.overall.dto.DirectEliminationBracketDTO;
 import cs203.ftms.overall.dto.DirectEliminationBracketFencerDTO;
+import cs203.ftms.overall.dto.LiveScoreDTO;
 import cs203.ftms.overall.dto.UpdateDirectEliminationMatchDTO;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.model.tournamentrelated.DirectEliminationMatch;
 import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Poule;
+import cs203.ftms.overall.model.tournamentrelated.PouleMatch;
 import cs203.ftms.overall.model.tournamentrelated.Tournament;
 import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
@@ -32,8 +43,10 @@ import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
 import cs203.ftms.overall.repository.tournamentrelated.MatchRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
 import cs203.ftms.overall.repository.userrelated.FencerRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
 import cs203.ftms.overall.service.match.DirectEliminationService;
+import cs203.ftms.overall.service.match.LiveScoreService;
 import cs203.ftms.overall.service.match.MatchService;
 import cs203.ftms.overall.service.match.PouleService;
 
@@ -63,6 +76,12 @@ public class DirectEliminationServiceTest {
     @Mock
     private MatchService matchService;
 
+    @Mock
+    private LiveScoreService liveScoreService;
+
+    @Mock
+    private ResponseCache responseCache;
+
     @InjectMocks
     private DirectEliminationService directEliminationService;
 
@@ -227,6 +246,59 @@ public class DirectEliminationServiceTest {
         assertEquals(score2, match.getScore2());
     }
 
+    /**
+     * Tests that updating a direct elimination match pushes the match, and the next match
+     * the winner was placed into, to the event's live score subscribers.
+     */
+    @Test
+    void updateDEMatch_PublishesMatchAndNextMatch() {
+        // Arrange
+        Organiser organiser = new Organiser();
+        Tournament tournament = new Tournament();
+        tournament.setOrganiser(organiser);
+        int eid = 1;
+
+        Event event = new Event();
+        event.setId(eid);
+        event.setTournament(tournament);
+
+        DirectEliminationMatch match = new DirectEliminationMatch();
+        match.setId(1);
+        match.setEvent(event);
+        match.setRoundOf(4);
+        match.setNextMatchId(2);
+        DirectEliminationMatch nextMatch = new DirectEliminationMatch();
+        nextMatch.setId(2);
+        nextMatch.setFencer1(-1);
+        nextMatch.setFencer2(-1);
+
+        TournamentFencer fencer1 = new TournamentFencer();
+        fencer1.setId(1);
+        TournamentFencer fencer2 = new TournamentFencer();
+        fencer2.setId(2);
+
+        UpdateDirectEliminationMatchDTO dto = new UpdateDirectEliminationMatchDTO(1, 15, 10);
+
+        LiveScoreDTO matchScore = new LiveScoreDTO(eid, 0, 1, 1, 2, 15, 10, 1);
+        LiveScoreDTO nextMatchScore = new LiveScoreDTO(eid, 0, 2, 1, -1, 0, 0, 0);
+
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+        when(matchRepository.findById(2)).thenReturn(Optional.of(nextMatch));
+        when(eventService.getEvent(eid)).thenReturn(event);
+        when(matchService.getFencer1(match)).thenReturn(fencer1);
+        when(matchService.getFencer2(match)).thenReturn(fencer2);
+        when(tournamentFencerRepository.findById(1)).thenReturn(Optional.of(fencer1));
+        when(liveScoreService.getLiveScoreDTO(eid, 0, match)).thenReturn(matchScore);
+        when(liveScoreService.getLiveScoreDTO(eid, 0, nextMatch)).thenReturn(nextMatchScore);
+
+        // Act
+        directEliminationService.updateDEMatch(eid, dto, organiser);
+
+        // Assert
+        assertEquals(1, nextMatch.getFencer1());
+        verify(liveScoreService).publish(eid, List.of(matchScore, nextMatchScore));
+    }
+
     /**
      * Tests updating a non-existent direct elimination match.
      * Verifies that EntityDoesNotExistException is thrown when match ID is invalid.
@@ -1368,8 +1440,10 @@ public class DirectEliminationServiceTest {
         when(fencerRepository.findById(fencer2Id)).thenReturn(Optional.of(fencer2));
         when(fencerRepository.findById(fencer3Id)).thenReturn(Optional.of(fencer3));
         when(fencerRepository.findById(fencer4Id)).thenReturn(Optional.of(fencer4));
-        when(matchService.getFencersInMatch(match1)).thenReturn(Arrays.asList(tFencer1, tFencer2));
-        when(matchService.getFencersInMatch(match2)).thenReturn(Arrays.asList(tFencer3, tFencer4));
+        Map<Integer, TournamentFencer> fencers = Map.of(fencer1Id, tFencer1, fencer2Id, tFencer2, fencer3Id, tFencer3, fencer4Id, tFencer4);
+        when(matchService.getFencersInMatches(Arrays.asList(match1, match2))).thenReturn(fencers);
+        when(matchService.getFencersInMatch(match1, fencers)).thenReturn(Arrays.asList(tFencer1, tFencer2));
+        when(matchService.getFencersInMatch(match2, fencers)).thenReturn(Arrays.asList(tFencer3, tFencer4));
 
         // Act
         List<DirectEliminationBracketDTO> result = directEliminationService.generateDirectEliminationBracketDTOs(eventId);
@@ -1418,6 +1492,80 @@ public class DirectEliminationServiceTest {
         assertEquals(isWinner, fencerDTO2_2.getIsWinner());
     }
 
+    /**
+     * Test case for creating all DE matches for an event with byes.
+     * Ensures every match gets the round and next match of its bracket slot,
+     * and that fencers with a bye are advanced into their next match.
+     */
+    @Test
+    void createAllDEMatches_WithByes() {
+        // Arrange
+        int eid = 1;
+        Organiser organiser = new Organiser();
+        Tournament tournament = new Tournament();
+        tournament.setOrganiser(organiser);
+        tournament.setAdvancementRate(100);
+
+        Event event = new Event();
+        event.setId(eid);
+        event.setTournament(tournament);
+        event.setParticipantCount(6);
+
+        PouleMatch pouleMatch = new PouleMatch();
+        pouleMatch.setWinner(1);
+        Poule poule = new Poule();
+        poule.setPouleMatches(new HashSet<>(List.of(pouleMatch)));
+        event.setPoules(new HashSet<>(List.of(poule)));
+
+        List<TournamentFencer> tfs = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            TournamentFencer tf = new TournamentFencer();
+            tf.setId(i);
+            tf.setPouleWins(10 - i);
+            tf.setFencer(new Fencer());
+            tfs.add(tf);
+        }
+        Map<String, List<TournamentFencer>> mappings = new HashMap<>();
+        mappings.put("Bypass", tfs.subList(0, 2));
+        mappings.put("FenceOff", tfs.subList(2, 6));
+        mappings.put("Eliminated", new ArrayList<>());
+
+        List<DirectEliminationMatch> saved = new ArrayList<>();
+        when(eventService.getEvent(eid)).thenReturn(event);
+        when(pouleService.getFencersAfterPoules(event)).thenReturn(mappings);
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<DirectEliminationMatch> round = invocation.getArgument(0);
+            for (DirectEliminationMatch dm : round) {
+                dm.setId(saved.size() + 1);
+                saved.add(dm);
+            }
+            return round;
+        });
+
+        // Act
+        directEliminationService.createAllDEMatches(eid, organiser);
+
+        // Assert
+        assertEquals(7, saved.size());
+        int[] expectedRounds = {2, 4, 4, 8, 8, 8, 8};
+        int[] expectedNext = {0, 1, 1, 2, 2, 3, 3};
+        for (int i = 0; i < saved.size(); i++) {
+            assertEquals(expectedRounds[i], saved.get(i).getRoundOf());
+            assertEquals(expectedNext[i], saved.get(i).getNextMatchId());
+        }
+        assertEquals(1, saved.get(1).getFencer1()); // seed 1 has a bye into the upper semi-final
+        assertEquals(2, saved.get(2).getFencer1()); // seed 2 has a bye into the lower semi-final
+        assertEquals(4, saved.get(4).getFencer1());
+        assertEquals(5, saved.get(4).getFencer2());
+        assertEquals(3, saved.get(6).getFencer1());
+        assertEquals(6, saved.get(6).getFencer2());
+        verify(matchRepository, times(3)).saveAll(anyList()); // one batch per round
+        verify(matchRepository, never()).save(any(DirectEliminationMatch.class));
+        verify(matchRepository, never()).findById(anyInt());
+        verify(tournamentFencerRepository, never()).save(any(TournamentFencer.class));
+        verify(tournamentFencerRepository).saveAll(anyList());
+    }
+
     /**
      * Test case for retrieving tournament ranks for all participants in an event.
      * Ensures the correct rank and fencer details are retrieved and sorted.
@@ -0,0 +1,145 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cs203.ftms.overall.exception.FencerAlreadyRegisteredForEventException;
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Tournament;
+import cs203.ftms.overall.model.userrelated.Fencer;
+import cs203.ftms.overall.model.userrelated.Organiser;
+import cs203.ftms.overall.repository.cacherelated.CacheVersionRepository;
+import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
+import cs203.ftms.overall.service.cache.ResponseCache;
+import cs203.ftms.overall.service.event.EventService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Stress tests event registration against an in-memory H2 database in MySQL mode, with every registration
+ * in its own transaction as it is behind the controller. Hundreds of fencers register for one event at once,
+ * each of them twice, and the event must end up with each fencer registered exactly once and a participant
+ * count that matches, within a time that bounds the registration throughput from below.
+ */
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.name=registration")
+class EventRegistrationConcurrencyTest {
+
+    private static final int FENCERS = 300;
+    private static final int THREADS = 16;
+    // 600 registration attempts, so at least 20 registrations per second
+    private static final Duration TIME_LIMIT = Duration.ofSeconds(30);
+
+    @Autowired
+    private CacheVersionRepository cacheVersionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TournamentFencerRepository tournamentFencerRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private EventService eventService;
+
+    private Event event;
+    private List<Fencer> fencers;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        eventService = new EventService(tournamentRepository, eventRepository, null, null, null,
+                tournamentFencerRepository, entityManager, new ResponseCache(cacheVersionRepository, 0), new EventSnapshotCache(60000, 100));
+        transactionTemplate.executeWithoutResult(status -> createFixture());
+    }
+
+    /**
+     * Test case to verify that concurrent registrations, including a duplicate registration of every fencer,
+     * register each fencer exactly once, count every registration, and all finish within the time limit.
+     */
+    @Test
+    void registerEvent_ConcurrentRegistrations_CountsEachFencerOnce() throws Exception {
+        // Arrange
+        List<Fencer> attempts = new ArrayList<>(fencers);
+        attempts.addAll(fencers);
+        Collections.shuffle(attempts);
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (Fencer fencer : attempts) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(
+                            status -> eventService.registerEvent(event.getId(), fencer)))) {
+                        registered.incrementAndGet();
+                    }
+                } catch (FencerAlreadyRegisteredForEventException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        assertTimeout(TIME_LIMIT, () -> {
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        });
+        pool.shutdown();
+
+        // Assert
+        assertEquals(FENCERS, registered.get());
+        assertEquals(FENCERS, rejected.get());
+        assertEquals(FENCERS, eventRepository.findSummaryById(event.getId()).orElseThrow().getParticipantCount());
+        assertEquals(FENCERS, tournamentFencerRepository.count());
+    }
+
+    // Helper method to create an organiser's tournament with a men's sabre event open for sign up,
+    // and the men's sabre fencers that will register for it
+    private void createFixture() {
+        Organiser organiser = JpaFixtures.createOrganiser(entityManager);
+        LocalDate startDate = LocalDate.now().plusDays(30);
+        Tournament tournament = JpaFixtures.createTournament(entityManager, organiser, "Popular Open",
+                startDate.minusDays(2), startDate);
+        event = JpaFixtures.createEvent(entityManager, tournament, 4, startDate);
+        fencers = JpaFixtures.createFencers(entityManager, FENCERS);
+    }
+}
@@ -0,0 +1,165 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cs203.ftms.overall.model.mailrelated.OutboxMail;
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Poule;
+import cs203.ftms.overall.model.tournamentrelated.Tournament;
+import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
+import cs203.ftms.overall.model.userrelated.Fencer;
+import cs203.ftms.overall.model.userrelated.Organiser;
+import cs203.ftms.overall.repository.cacherelated.CacheVersionRepository;
+import cs203.ftms.overall.repository.mailrelated.OutboxMailRepository;
+import cs203.ftms.overall.repository.schedulingrelated.JobLeaseRepository;
+import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
+import cs203.ftms.overall.security.service.PrincipalCache;
+import cs203.ftms.overall.service.admin.MailService;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
+import cs203.ftms.overall.service.cache.ResponseCache;
+import cs203.ftms.overall.service.event.EventScheduler;
+import cs203.ftms.overall.service.scheduling.JobLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Tests the nightly cancellation of under-subscribed events against an in-memory H2 database in MySQL mode.
+ */
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.name=eventscheduler")
+class EventSchedulerTest {
+
+    private static final int CANCELLED_EVENTS = 50;
+    private static final int FENCERS = 100;
+    private static final int SUBSCRIBED_FENCERS = 10;
+    private static final int STARTED_FENCERS = 4;
+    // the first run checks whether the lease exists before creating it, then loads it to check its fencing token
+    private static final int LEASE_QUERIES = 2;
+
+    @Autowired
+    private CacheVersionRepository cacheVersionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TournamentFencerRepository tournamentFencerRepository;
+
+    @Autowired
+    private OutboxMailRepository outboxMailRepository;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+    private MailService mailService;
+    private EventScheduler eventScheduler;
+
+    private Event subscribedEvent;
+    private Event startedEvent;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        JobLeaseService jobLeaseService = new JobLeaseService(jobLeaseRepository, transactionManager, "node-1");
+        mailService = new MailService(mock(JavaMailSender.class), outboxMailRepository, jobLeaseService,
+                new SimpleMeterRegistry(), 20, 6, 60000, 604800000);
+        eventScheduler = new EventScheduler(eventRepository, tournamentFencerRepository, mailService,
+                new ResponseCache(cacheVersionRepository, 0), new EventSnapshotCache(60000, 100), new PrincipalCache(60000, 100, System::currentTimeMillis),
+                jobLeaseService);
+        transactionTemplate.executeWithoutResult(status -> createFixture());
+    }
+
+    /**
+     * Test case to verify that a night with 50 cancelled events of 100 fencers each is cancelled within a
+     * bounded time and a fixed number of queries, unregistering every fencer of the cancelled events and
+     * queueing a bulk mail for each of them and each event's organiser, while an event with enough participants and
+     * an under-subscribed event whose poules were already created are kept. A mail a user is waiting for,
+     * queued afterwards, is still the first to be sent.
+     */
+    @Test
+    void checkEventHasEnoughParticipants_ManyCancelledEvents_CancelsInBulk() {
+        // Arrange
+        statistics.clear();
+
+        // Act
+        assertTimeout(Duration.ofSeconds(10), () -> eventScheduler.checkEventHasEnoughParticipants());
+
+        // Assert
+        // one query for the events with their tournaments and organiser, and one for the registrants' summaries,
+        // besides the job lease's; no fencer or registration is loaded as an entity, only the events, their
+        // tournaments, the organiser and the lease
+        assertEquals(2 + LEASE_QUERIES, statistics.getQueryExecutionCount());
+        assertEquals(2 * CANCELLED_EVENTS + 1 + 1, statistics.getEntityLoadCount());
+        assertEquals(List.of(subscribedEvent.getId(), startedEvent.getId()),
+                eventRepository.findAll().stream().map(Event::getId).toList());
+        assertEquals(SUBSCRIBED_FENCERS + STARTED_FENCERS, tournamentFencerRepository.count());
+        List<OutboxMail> mails = outboxMailRepository.findAll();
+        assertEquals(CANCELLED_EVENTS * FENCERS + CANCELLED_EVENTS, mails.size());
+        assertTrue(mails.stream().allMatch(m -> m.getStatus() == OutboxMail.PENDING));
+        assertTrue(mails.stream().allMatch(m -> m.getPriority() == OutboxMail.PRIORITY_BULK));
+
+        // a mail a user is waiting for, queued after the cancellation notices, is sent before them
+        mailService.sendMail("fencer@example.com", "Reset Password", "Your reset link");
+        List<OutboxMail> due = outboxMailRepository.findDue(LocalDateTime.now(), PageRequest.of(0, 1));
+        assertEquals("Reset Password", due.get(0).getSubject());
+    }
+
+    // Helper method to create 50 events whose signup ended yesterday with 100 registrants each but a minimum of 101,
+    // one event whose signup ended yesterday with enough registrants, and one under-subscribed event with a poule
+    private void createFixture() {
+        Organiser organiser = JpaFixtures.createOrganiser(entityManager);
+        List<Fencer> fencers = JpaFixtures.createFencers(entityManager, FENCERS);
+
+        for (int i = 0; i < CANCELLED_EVENTS; i++) {
+            createEvent(organiser, "Quiet Open " + i, FENCERS + 1, fencers);
+        }
+        subscribedEvent = createEvent(organiser, "Popular Open", SUBSCRIBED_FENCERS,
+                fencers.subList(0, SUBSCRIBED_FENCERS));
+        startedEvent = createEvent(organiser, "Started Open", FENCERS + 1, fencers.subList(0, STARTED_FENCERS));
+        entityManager.persist(new Poule(1, startedEvent));
+    }
+
+    // Helper method to create a tournament whose signup ended yesterday, with a men's sabre event the fencers registered for
+    private Event createEvent(Organiser organiser, String name, int minParticipants, List<Fencer> fencers) {
+        LocalDate startDate = LocalDate.now().plusDays(1);
+        Tournament t = JpaFixtures.createTournament(entityManager, organiser, name, LocalDate.now().minusDays(1),
+                startDate);
+        Event e = JpaFixtures.createEvent(entityManager, t, minParticipants, fencers.size(), startDate);
+        for (Fencer f : fencers) {
+            entityManager.persist(new TournamentFencer(f, e));
+        }
+        return e;
+    }
+}
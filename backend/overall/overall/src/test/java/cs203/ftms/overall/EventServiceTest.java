@@ -6,6 +6,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -18,11 +22,14 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import cs203.ftms.overall.dto.CreateEventDTO;
@@ -30,6 +37,7 @@ import cs203.ftms.overall.dto.UpdateEventDTO;
 import cs203.ftms.overall.dto.clean.CleanEventDTO;
 import cs203.ftms.overall.dto.clean.CleanFencerDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentFencerDTO;
+import cs203.ftms.overall.dto.projection.EventSummary;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.exception.EventAlreadyExistsException;
 import cs203.ftms.overall.exception.FencerAlreadyRegisteredForEventException;
@@ -44,8 +52,11 @@ import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
 import cs203.ftms.overall.service.fencer.FencerService;
+import jakarta.persistence.EntityManager;
 
 public class EventServiceTest {
 
@@ -70,6 +81,15 @@ public class EventServiceTest {
     @Mock
     private TournamentFencerRepository tournamentFencerRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ResponseCache responseCache;
+
+    @Mock
+    private EventSnapshotCache eventSnapshotCache;
+
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -127,6 +147,25 @@ public class EventServiceTest {
         assertEquals(1, result.getFencers().size());
     }
 
+    /**
+     * Test case to verify that upcoming events are filtered by gender, weapon and date in the repository.
+     */
+    @Test
+    void getFutureEventsByGenderAndWeapon_FiltersInRepository() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        PageRequest page = PageRequest.of(0, 5);
+        when(eventRepository.findUpcomingByGenderAndWeapon('M', 'S', LocalDate.now(), page)).thenReturn(List.of(event));
+
+        // Act
+        List<Event> result = eventService.getFutureEventsByGenderAndWeapon('M', 'S', page);
+
+        // Assert
+        assertEquals(List.of(event), result);
+        verify(eventRepository, never()).findByGenderAndWeapon('M', 'S');
+    }
+
     /**
      * Test case to verify that a valid TournamentFencer is correctly converted into a CleanTournamentFencerDTO.
      */
@@ -235,31 +274,35 @@ public class EventServiceTest {
     }
 
     /**
-     * Test case to verify that registering a valid fencer for an event succeeds and updates the participant count.
+     * Test case to verify that registering a valid fencer for an event inserts the fencer's profile
+     * and atomically increments the participant count, without loading the event.
      */
     @Test
     public void registerEvent_ValidEventAndFencer_ReturnTrue() {
         // Arrange
-        int tcid = 1;
+        int eid = 1;
         Fencer fencer = new Fencer("DOE John", "john.doe@example.com", "password", "+6594949499", "Singapore", LocalDate.of(2000, 1, 1));
         fencer.setWeapon('S');
         fencer.setGender('W');
-        Organiser organiser = new Organiser("Organizer One", "organizer.one@example.com", "password", "+6599999999", "Singapore");
+        fencer.setTournamentFencerProfiles(new HashSet<>());
 
-        Tournament tournament = new Tournament("hi", organiser, LocalDate.of(2024, 12, 10), 60, LocalDate.of(2024, 12, 12), LocalDate.of(2024, 12, 15), "singapore", "hi", "hi", 'B');
-        Event event = new Event(tournament, 'W', 'S', 10, LocalDate.of(2024, 12, 12), LocalTime.now(), LocalTime.now().plusHours(3));
+        EventSummary event = createEventSummary(eid, 'W', 'S', LocalDate.now().plusDays(1));
 
-        when(eventRepository.findById(tcid)).thenReturn(Optional.of(event));
-        when(userRepository.save(fencer)).thenReturn(fencer);
-        when(eventRepository.save(event)).thenReturn(event);
+        when(eventRepository.findSummaryById(eid)).thenReturn(Optional.of(event));
+        when(tournamentFencerRepository.save(any(TournamentFencer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(eventRepository.incrementParticipantCount(eid)).thenReturn(1);
 
         // Act
-        boolean result = eventService.registerEvent(tcid, fencer);
+        boolean result = eventService.registerEvent(eid, fencer);
 
         // Assert
         assertTrue(result);
-        assertEquals(1, event.getParticipantCount());
-        assertEquals(1, event.getFencers().size());
+        assertEquals(1, fencer.getTournamentFencerProfiles().size());
+        verify(eventRepository, times(1)).incrementParticipantCount(eid);
+        verify(eventRepository, never()).findById(anyInt());
+        verify(eventRepository, never()).save(any(Event.class));
+        verify(responseCache, times(1)).invalidateEvent(eid, 2);
+        verify(eventSnapshotCache, times(1)).invalidateEvent(eid);
     }
 
     /**
@@ -271,7 +314,7 @@ public class EventServiceTest {
         int tcid = 1;
         Fencer fencer = new Fencer("DOE John", "john.doe@example.com", "password", "+6599999999", "Singapore", LocalDate.of(2000, 1, 1));
 
-        when(eventRepository.findById(tcid)).thenReturn(Optional.empty());
+        when(eventRepository.findSummaryById(tcid)).thenReturn(Optional.empty());
 
         // Act and Assert
         assertThrows(EntityDoesNotExistException.class, () -> eventService.registerEvent(tcid, fencer));
@@ -393,23 +436,21 @@ public class EventServiceTest {
         Fencer fencer = new Fencer();
         fencer.setId(1);
 
-        Tournament tournament = new Tournament();
-        tournament.setSignupEndDate(LocalDate.now().minusDays(1));
-
-        Event event = new Event();
-        event.setId(eid);
-        event.setTournament(tournament);
+        EventSummary event = createEventSummary(eid, '\0', '\0', LocalDate.now().minusDays(1));
 
-        when(eventRepository.findById(eid)).thenReturn(Optional.of(event));
+        when(eventRepository.findSummaryById(eid)).thenReturn(Optional.of(event));
 
         // Act & Assert
         assertThrows(SignUpDateOverException.class, () -> {
             eventService.registerEvent(eid, fencer);
         });
+        verify(tournamentFencerRepository, never()).save(any(TournamentFencer.class));
     }
 
     /**
-     * Test case to verify that registering a fencer fails when they are already registered for the event.
+     * Test case to verify that registering a fencer fails when they are already registered for the event,
+     * which the unique (fencer, event) constraint reports after the participant count was incremented,
+     * so that the exception rolls the increment back with the transaction.
      */
     @Test
     void registerEvent_FencerAlreadyRegistered() {
@@ -418,85 +459,114 @@ public class EventServiceTest {
         Fencer fencer = new Fencer();
         fencer.setId(1);
 
-        Tournament tournament = new Tournament();
-        tournament.setSignupEndDate(LocalDate.now().plusDays(1));
-
-        Event event = new Event();
-        event.setId(eid);
-        event.setTournament(tournament);
+        EventSummary event = createEventSummary(eid, '\0', '\0', LocalDate.now().plusDays(1));
 
-        TournamentFencer existingTournamentFencer = new TournamentFencer();
-        existingTournamentFencer.setFencer(fencer);
-        existingTournamentFencer.setEvent(event);
-
-        when(eventRepository.findById(eid)).thenReturn(Optional.of(event));
-        when(tournamentFencerRepository.findByFencerAndEvent(fencer, event)).thenReturn(existingTournamentFencer);
+        when(eventRepository.findSummaryById(eid)).thenReturn(Optional.of(event));
+        when(eventRepository.incrementParticipantCount(eid)).thenReturn(1);
+        when(tournamentFencerRepository.save(any(TournamentFencer.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_tournament_fencer_fencer_event"));
 
         // Act & Assert
         assertThrows(FencerAlreadyRegisteredForEventException.class, () -> {
             eventService.registerEvent(eid, fencer);
         });
+        verify(eventRepository, times(1)).incrementParticipantCount(eid);
+        verify(responseCache, never()).invalidateEvent(anyInt(), anyInt());
     }
 
     /**
-     * Test case to verify that registering a fencer fails when the fencer's profile is null.
+     * Test case to verify that registering a fencer fails when the participant count of the event cannot be updated.
      */
     @Test
-    void registerEvent_NfIsNull() {
+    void registerEvent_CountNotUpdated() {
         // Arrange
         int eid = 1;
         Fencer fencer = new Fencer();
         fencer.setId(1);
         fencer.setTournamentFencerProfiles(new HashSet<>()); // Initialize the set
 
-        Tournament tournament = new Tournament();
-        tournament.setSignupEndDate(LocalDate.now().plusDays(1));
+        EventSummary event = createEventSummary(eid, '\0', '\0', LocalDate.now().plusDays(1));
 
-        Event event = new Event();
-        event.setId(eid);
-        event.setTournament(tournament);
-        event.setFencers(new HashSet<>()); // Initialize the set
-
-        when(eventRepository.findById(eid)).thenReturn(Optional.of(event));
-        when(tournamentFencerRepository.findByFencerAndEvent(fencer, event)).thenReturn(null);
-        when(userRepository.save(fencer)).thenReturn(null);
+        when(eventRepository.findSummaryById(eid)).thenReturn(Optional.of(event));
+        when(eventRepository.incrementParticipantCount(eid)).thenReturn(0);
 
         // Act
         boolean result = eventService.registerEvent(eid, fencer);
 
         // Assert
         assertFalse(result);
+        verify(tournamentFencerRepository, never()).save(any(TournamentFencer.class));
     }
 
     /**
-     * Test case to verify that registering a fencer fails when the event save process fails.
+     * Test case to verify that unregistering a fencer deletes their tournament profile and decrements the
+     * participant count of the event.
      */
     @Test
-    void registerEvent_TcIsNull() {
+    void unregisterEvent_Registered_DecrementsCount() {
         // Arrange
         int eid = 1;
         Fencer fencer = new Fencer();
         fencer.setId(1);
-        fencer.setTournamentFencerProfiles(new HashSet<>()); // Initialize the set
+        Event event = createUnregisterableEvent(eid);
 
-        Tournament tournament = new Tournament();
-        tournament.setSignupEndDate(LocalDate.now().plusDays(1));
+        when(eventRepository.findById(eid)).thenReturn(Optional.of(event));
+        when(tournamentFencerRepository.deleteByFencerIdAndEventId(1, eid)).thenReturn(1);
+        when(eventRepository.decrementParticipantCount(eid)).thenReturn(1);
 
-        Event event = new Event();
-        event.setId(eid);
-        event.setTournament(tournament);
-        event.setFencers(new HashSet<>()); // Initialize the set
+        // Act
+        boolean result = eventService.unregisterEvent(eid, fencer);
+
+        // Assert
+        assertTrue(result);
+        verify(eventRepository, times(1)).decrementParticipantCount(eid);
+        verify(eventSnapshotCache, times(1)).invalidateEvent(eid);
+    }
+
+    /**
+     * Test case to verify that unregistering a fencer who is no longer registered, as when the same unregistration
+     * is sent twice, leaves the participant count of the event unchanged.
+     */
+    @Test
+    void unregisterEvent_NotRegistered_CountUnchanged() {
+        // Arrange
+        int eid = 1;
+        Fencer fencer = new Fencer();
+        fencer.setId(1);
+        Event event = createUnregisterableEvent(eid);
 
         when(eventRepository.findById(eid)).thenReturn(Optional.of(event));
-        when(tournamentFencerRepository.findByFencerAndEvent(fencer, event)).thenReturn(null);
-        when(userRepository.save(fencer)).thenReturn(fencer);
-        when(eventRepository.save(event)).thenReturn(null);
+        when(tournamentFencerRepository.deleteByFencerIdAndEventId(1, eid)).thenReturn(0);
 
         // Act
-        boolean result = eventService.registerEvent(eid, fencer);
+        boolean result = eventService.unregisterEvent(eid, fencer);
 
         // Assert
         assertFalse(result);
+        verify(eventRepository, never()).decrementParticipantCount(anyInt());
+    }
+
+    // Helper method to create an event whose sign up is still open, for unregisterEvent
+    private Event createUnregisterableEvent(int eid) {
+        Tournament tournament = new Tournament();
+        tournament.setId(2);
+        tournament.setSignupEndDate(LocalDate.now().plusDays(1));
+        Event event = new Event();
+        event.setId(eid);
+        event.setTournament(tournament);
+        event.setFencers(new HashSet<>());
+        return event;
+    }
+
+    // Helper method to create the summary of an event of tournament 2 read by registerEvent
+    private EventSummary createEventSummary(int eid, char gender, char weapon, LocalDate signupEndDate) {
+        EventSummary event = mock(EventSummary.class);
+        when(event.getId()).thenReturn(eid);
+        when(event.getTournamentId()).thenReturn(2);
+        when(event.getGender()).thenReturn(gender);
+        when(event.getWeapon()).thenReturn(weapon);
+        when(event.getSignupEndDate()).thenReturn(signupEndDate);
+        return event;
     }
 
     /**
@@ -563,4 +633,60 @@ public class EventServiceTest {
             eventService.endTournamentEvent(eid, new Organiser());
         });
     }
+
+    /**
+     * Test case to verify that points are distributed by the square of the reversed rank.
+     */
+    @Test
+    void calculatePoints_DistributesBySumOfSquares() {
+        // 3 fencers earn points, so the weights are 4, 9 and 16 over a sum of squares of 14
+        assertEquals(160, eventService.calculatePoints(0, 140, 3));
+        assertEquals(90, eventService.calculatePoints(1, 140, 3));
+        assertEquals(40, eventService.calculatePoints(2, 140, 3));
+        assertEquals(0, eventService.calculatePoints(0, 0, 0));
+    }
+
+    /**
+     * Test case to verify that ending an event writes every ranked fencer and profile in one batch
+     * instead of saving the fencers one at a time.
+     */
+    @Test
+    void updateInternationalRank_SavesFencersAndProfilesInOneBatch() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        Set<TournamentFencer> tfs = new HashSet<>();
+        for (int i = 1; i <= 5; i++) {
+            Fencer fencer = new Fencer();
+            fencer.setId(i);
+            fencer.setPoints(100);
+            TournamentFencer tf = new TournamentFencer();
+            tf.setId(i);
+            tf.setFencer(fencer);
+            tf.setTournamentRank(i);
+            tf.setEvent(event);
+            tfs.add(tf);
+        }
+        event.setFencers(tfs);
+        Session session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(eventRepository.findById(1)).thenReturn(Optional.of(event));
+
+        // Act
+        eventService.updateInternationalRank(event);
+
+        // Assert
+        // 4 of the 5 fencers earn points out of 500 / 5 = 100, the winner taking 100 * 25 / 30
+        TournamentFencer first = tfs.stream().filter(tf -> tf.getTournamentRank() == 1).findFirst().orElseThrow();
+        TournamentFencer last = tfs.stream().filter(tf -> tf.getTournamentRank() == 5).findFirst().orElseThrow();
+        assertEquals(183, first.getFencer().getPoints());
+        assertEquals(183, first.getPointsAfterEvent());
+        assertEquals(100, last.getFencer().getPoints());
+        verify(userRepository, times(1)).saveAll(anyList());
+        verify(userRepository, never()).save(any());
+        verify(tournamentFencerRepository, times(1)).saveAll(anyList());
+        verify(session).setJdbcBatchSize(4);
+        verify(session).flush();
+        verify(fencerService, times(4)).updateRankingPoints(any(Fencer.class));
+    }
 }
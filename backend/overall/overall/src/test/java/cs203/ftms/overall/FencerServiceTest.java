@@ -5,12 +5,14 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
@@ -20,7 +22,6 @@ import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -31,19 +32,23 @@ import cs203.ftms.overall.dto.CompleteFencerProfileDTO;
 import cs203.ftms.overall.dto.UpdateFencerProfileDTO;
 import cs203.ftms.overall.dto.clean.CleanFencerDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentFencerDTO;
+import cs203.ftms.overall.dto.projection.FencerPoints;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
-import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
 import cs203.ftms.overall.repository.userrelated.FencerRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
 import cs203.ftms.overall.service.authentication.AuthenticationService;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
 import cs203.ftms.overall.service.fencer.FencerService;
 
 
 class FencerServiceTest {
 
+    private static final long RANKING_INDEX_TTL = 60000;
+
     @Mock
     private UserRepository userRepository;
 
@@ -51,7 +56,7 @@ class FencerServiceTest {
     private FencerRepository fencerRepository;
 
     @Mock
-    private EventRepository eventRepository;
+    private TournamentFencerRepository tournamentFencerRepository;
 
     @Mock
     private PasswordEncoder passwordEncoder;
@@ -62,17 +67,24 @@ class FencerServiceTest {
     @Mock
     private AuthenticationService authenticationService;
 
-    @InjectMocks
     private FencerService fencerService;
 
     @Mock
     private EventService eventService;
 
+    @Mock
+    private ResponseCache responseCache;
+
+    private long now;
+
 
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        now = 0;
+        fencerService = new FencerService(userRepository, fencerRepository, tournamentFencerRepository, passwordEncoder,
+                authenticationService, responseCache, RANKING_INDEX_TTL, () -> now);
         authenticationService = new AuthenticationService(userRepository, authenticationManager, passwordEncoder, null);
     }
 
@@ -213,6 +225,7 @@ class FencerServiceTest {
         dto.setGender('M');
         dto.setWeapon('F');
 
+        when(fencerRepository.findById(0)).thenReturn(Optional.of(fencer));
         when(userRepository.save(any(Fencer.class))).thenReturn(fencer);
 
         // When
@@ -243,6 +256,8 @@ class FencerServiceTest {
         dto.setGender('M');
         dto.setWeapon('F');
 
+        when(fencerRepository.findById(0)).thenReturn(Optional.of(fencer));
+
         // Expect exception
         assertThrows(MethodArgumentNotValidException.class, () -> {
             fencerService.completeProfile(fencer, dto);
@@ -273,8 +288,8 @@ class FencerServiceTest {
         fencer3.setGender('M');
         fencer3.setWeapon('S');
         
-        List<Fencer> fencers = Arrays.asList(fencer1, fencer2, fencer3);
-        when(fencerRepository.findAll()).thenReturn(fencers);
+        List<FencerPoints> rows = Arrays.asList(fencerPoints(1, 50), fencerPoints(2, 100), fencerPoints(3, 75));
+        when(fencerRepository.findPointsByWeaponAndGender('S', 'M')).thenReturn(rows);
 
         // Act
         int result1 = fencerService.getInternationalRank(fencer1);
@@ -285,7 +300,111 @@ class FencerServiceTest {
         assertEquals(3, result1);   // Lowest points
         assertEquals(1, result2);  // Highest points
         assertEquals(2, result3);  // Second highest points
-        verify(fencerRepository, times(3)).findAll();
+        verify(fencerRepository, times(1)).findPointsByWeaponAndGender('S', 'M'); // Index is built once
+        verify(fencerRepository, times(0)).findAll();
+    }
+
+    /**
+     * Test case to verify that a change of points moves the fencer within the ranking
+     * without reloading the ranking from the repository.
+     */
+    @Test
+    void updateRankingPoints_MovesFencerWithoutReloading() {
+        // Arrange
+        Fencer fencer1 = new Fencer();
+        fencer1.setId(1);
+        fencer1.setPoints(50);
+        fencer1.setGender('M');
+        fencer1.setWeapon('S');
+        Fencer fencer2 = new Fencer();
+        fencer2.setId(2);
+        fencer2.setPoints(100);
+        fencer2.setGender('M');
+        fencer2.setWeapon('S');
+        List<FencerPoints> rows = Arrays.asList(fencerPoints(1, 50), fencerPoints(2, 100));
+        when(fencerRepository.findPointsByWeaponAndGender('S', 'M')).thenReturn(rows);
+        assertEquals(2, fencerService.getInternationalRank(fencer1));
+
+        // Act
+        fencer1.setPoints(150);
+        fencerService.updateRankingPoints(fencer1);
+
+        // Assert
+        assertEquals(1, fencerService.getInternationalRank(fencer1));
+        assertEquals(2, fencerService.getInternationalRank(fencer2));
+        verify(fencerRepository, times(1)).findPointsByWeaponAndGender('S', 'M');
+    }
+
+    /**
+     * Test case to verify that a fencer is ranked by ID, even when the given fencer holds
+     * points other than those it is ranked with.
+     */
+    @Test
+    void getInternationalRank_StalePoints_RanksById() {
+        // Arrange
+        Fencer fencer = new Fencer();
+        fencer.setId(1);
+        fencer.setPoints(10);
+        fencer.setGender('M');
+        fencer.setWeapon('S');
+        List<FencerPoints> rows = Arrays.asList(fencerPoints(1, 150), fencerPoints(2, 100));
+        when(fencerRepository.findPointsByWeaponAndGender('S', 'M')).thenReturn(rows);
+
+        // Act
+        int result = fencerService.getInternationalRank(fencer);
+
+        // Assert
+        assertEquals(1, result);
+    }
+
+    /**
+     * Test case to verify that the ranking is rebuilt from the repository once its time to live has passed,
+     * picking up points changed by another instance.
+     */
+    @Test
+    void getInternationalRank_AfterTtl_RebuildsRanking() {
+        // Arrange
+        Fencer fencer = new Fencer();
+        fencer.setId(1);
+        fencer.setGender('M');
+        fencer.setWeapon('S');
+        List<FencerPoints> rows = Arrays.asList(fencerPoints(1, 50), fencerPoints(2, 100));
+        List<FencerPoints> changedRows = Arrays.asList(fencerPoints(1, 150), fencerPoints(2, 100));
+        when(fencerRepository.findPointsByWeaponAndGender('S', 'M')).thenReturn(rows).thenReturn(changedRows);
+        assertEquals(2, fencerService.getInternationalRank(fencer));
+
+        // Act & Assert
+        now = RANKING_INDEX_TTL - 1;
+        assertEquals(2, fencerService.getInternationalRank(fencer));
+        now = RANKING_INDEX_TTL;
+        assertEquals(1, fencerService.getInternationalRank(fencer));
+        verify(fencerRepository, times(2)).findPointsByWeaponAndGender('S', 'M');
+    }
+
+    /**
+     * Test case to verify that a ranking built while a change of points was made is rebuilt on the next read,
+     * as it may have been read from the database before the change.
+     */
+    @Test
+    void getInternationalRank_ChangedWhileBuilding_RebuildsRanking() {
+        // Arrange
+        Fencer fencer = new Fencer();
+        fencer.setId(1);
+        fencer.setPoints(150);
+        fencer.setGender('M');
+        fencer.setWeapon('S');
+        List<FencerPoints> rows = Arrays.asList(fencerPoints(1, 50), fencerPoints(2, 100));
+        List<FencerPoints> changedRows = Arrays.asList(fencerPoints(1, 150), fencerPoints(2, 100));
+        when(fencerRepository.findPointsByWeaponAndGender('S', 'M')).thenAnswer(invocation -> {
+            fencerService.updateRankingPoints(fencer);
+            return rows;
+        }).thenReturn(changedRows);
+
+        // Act & Assert
+        assertEquals(2, fencerService.getInternationalRank(fencer));
+        assertEquals(1, fencerService.getInternationalRank(fencer));
+        assertEquals(1, fencerService.getInternationalRank(fencer));
+        verify(fencerRepository, times(2)).findPointsByWeaponAndGender('S', 'M');
     }
 
     /**
@@ -311,6 +430,8 @@ class FencerServiceTest {
         dto.setName("New Name");
         dto.setDominantArm('L');
 
+        when(fencerRepository.findById(1)).thenReturn(Optional.of(fencer));
+
         // Act
         fencerService.updateProfile(fencer, dto);
 
@@ -351,7 +472,7 @@ class FencerServiceTest {
         tournamentFencers.add(pastTournamentFencer);
         tournamentFencers.add(futureTournamentFencer);
 
-        fencer.setTournamentFencerProfiles(tournamentFencers);
+        when(tournamentFencerRepository.findWithEventByFencerId(fencer.getId())).thenReturn(new ArrayList<>(tournamentFencers));
 
         // Act
         List<TournamentFencer> result = fencerService.getFencerPastEventsProfiles(fencer);
@@ -388,10 +509,7 @@ class FencerServiceTest {
         tournamentFencers.add(tournamentFencer1);
         tournamentFencers.add(tournamentFencer2);
 
-        fencer.setTournamentFencerProfiles(tournamentFencers);
-
-        when(eventRepository.findById(1)).thenReturn(Optional.of(event1));
-        when(eventRepository.findById(2)).thenReturn(Optional.of(event2));
+        when(tournamentFencerRepository.findWithEventByFencerId(fencer.getId())).thenReturn(new ArrayList<>(tournamentFencers));
 
         // Act
         List<Event> result = fencerService.getFencerEvents(fencer);
@@ -429,10 +547,7 @@ class FencerServiceTest {
         tournamentFencers.add(pastTournamentFencer);
         tournamentFencers.add(futureTournamentFencer);
 
-        fencer.setTournamentFencerProfiles(tournamentFencers);
-
-        when(eventRepository.findById(1)).thenReturn(Optional.of(pastEvent));
-        when(eventRepository.findById(2)).thenReturn(Optional.of(futureEvent));
+        when(tournamentFencerRepository.findWithEventByFencerId(fencer.getId())).thenReturn(new ArrayList<>(tournamentFencers));
 
         // Act
         List<Event> result = fencerService.getFencerUpcomingEvents(fencer);
@@ -469,10 +584,7 @@ class FencerServiceTest {
         tournamentFencers.add(pastTournamentFencer);
         tournamentFencers.add(futureTournamentFencer);
 
-        fencer.setTournamentFencerProfiles(tournamentFencers);
-
-        when(eventRepository.findById(1)).thenReturn(Optional.of(pastEvent));
-        when(eventRepository.findById(2)).thenReturn(Optional.of(futureEvent));
+        when(tournamentFencerRepository.findWithEventByFencerId(fencer.getId())).thenReturn(new ArrayList<>(tournamentFencers));
 
         // Act
         List<Event> result = fencerService.getFencerPastEvents(fencer);
@@ -506,8 +618,9 @@ class FencerServiceTest {
         fencer3.setGender('M'); // Eligible gender
         fencer3.setPoints(150);
 
-        List<Fencer> fencers = Arrays.asList(fencer1, fencer2, fencer3);
-        when(fencerRepository.findAll()).thenReturn(fencers);
+        List<FencerPoints> rows = Arrays.asList(fencerPoints(1, 100));
+        when(fencerRepository.findPointsByWeaponAndGender('E', 'M')).thenReturn(rows);
+        when(fencerRepository.findAllById(List.of(1))).thenReturn(Arrays.asList(fencer1));
 
         // Act
         List<Fencer> result = fencerService.getFilterdInternationalRank('E', 'M'); // Filter by weapon 'E' and gender 'M'
@@ -545,7 +658,7 @@ class FencerServiceTest {
         tournamentFencers.add(tf2);
         tf2.setFencer(fencer2);
 
-        fencer.setTournamentFencerProfiles(tournamentFencers);
+        when(tournamentFencerRepository.findWithEventByFencerId(fencer.getId())).thenReturn(new ArrayList<>(tournamentFencers));
 
         CleanTournamentFencerDTO cleanTF1 = new CleanTournamentFencerDTO(tf1.getId(), tf1.getFencer().getId(), tf1.getFencer().getName(), tf1.getFencer().getClub(), tf1.getFencer().getCountry(), 'R', tf1.getTournamentRank(), tf1.getEvent().getId(), tf1.getPouleWins(), tf1.getPoulePoints(), 0);
         CleanTournamentFencerDTO cleanTF2 = new CleanTournamentFencerDTO(tf2.getId(), tf2.getFencer().getId(), tf2.getFencer().getName(), tf2.getFencer().getClub(), tf2.getFencer().getCountry(), 'R', tf2.getTournamentRank(), tf2.getEvent().getId(), tf2.getPouleWins(), tf2.getPoulePoints(), 0);
@@ -561,4 +674,12 @@ class FencerServiceTest {
         assertEquals(event1.getId(), result.get(0).getEventId());
         assertEquals(event2.getId(), result.get(1).getEventId());
     }
+
+    // Helper method to stub a row of the fencer points projection
+    private FencerPoints fencerPoints(int id, int points) {
+        FencerPoints row = mock(FencerPoints.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getPoints()).thenReturn(points);
+        return row;
+    }
 }
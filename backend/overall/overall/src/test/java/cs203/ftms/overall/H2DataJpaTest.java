@@ -0,0 +1,38 @@
+package cs203.ftms.overall;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+/**
+ * Runs a test class against the application's entities and repositories on an in-memory H2 database in MySQL mode,
+ * set up by the h2 profile (src/test/resources/application-h2.properties). The class names its database with
+ * spring.datasource.name in a @TestPropertySource.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@ContextConfiguration(classes = H2DataJpaTest.JpaConfig.class)
+public @interface H2DataJpaTest {
+
+    /**
+     * Scans the entities and repositories only, without the rest of the application.
+     * A test configuration, so that the application's own component scan in @SpringBootTest classes skips it.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    @EntityScan({"cs203.ftms.overall.model", "cs203.ftms.overall.security.model"})
+    @EnableJpaRepositories({"cs203.ftms.overall.repository", "cs203.ftms.overall.security.repository"})
+    class JpaConfig {
+    }
+}
@@ -0,0 +1,182 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import cs203.ftms.overall.exception.LeaseLostException;
+import cs203.ftms.overall.repository.schedulingrelated.JobLeaseRepository;
+import cs203.ftms.overall.service.scheduling.JobLeaseService;
+
+/**
+ * Tests the leases on scheduled jobs against an in-memory H2 database in MySQL mode.
+ * Each instance of the application is stood in for by its own JobLeaseService with its own node ID,
+ * all sharing the database as the ECS tasks of one service share MySQL.
+ */
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.name=jobleases")
+class JobLeaseServiceTest {
+
+    private static final String JOB = "nightly-job";
+    private static final Duration AT_MOST = Duration.ofMinutes(30);
+    private static final Duration AT_LEAST = Duration.ofMinutes(10);
+    private static final int INSTANCES = 8;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JobLeaseRepository jobLeaseRepository;
+
+    private final AtomicReference<LocalDateTime> now = new AtomicReference<>();
+    private List<JobLeaseService> instances;
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseRepository.deleteAll();
+        now.set(LocalDateTime.of(2025, 1, 1, 0, 0));
+        instances = new ArrayList<>();
+        for (int i = 1; i <= INSTANCES; i++) {
+            instances.add(new JobLeaseService(jobLeaseRepository, transactionManager, "node-" + i, now::get));
+        }
+    }
+
+    /**
+     * Test case to verify that when every instance runs a job at the same moment, exactly one of them runs it.
+     */
+    @Test
+    void runExclusively_InstancesAtOnce_OnlyOneRuns() throws Exception {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(INSTANCES);
+
+        // Act
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (JobLeaseService instance : instances) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return instance.runExclusively(JOB, AT_MOST, AT_LEAST, runs::incrementAndGet);
+            }));
+        }
+        start.countDown();
+        int ran = 0;
+        for (Future<Boolean> future : futures) {
+            if (future.get(30, TimeUnit.SECONDS)) {
+                ran++;
+            }
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(1, ran);
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Test case to verify that a finished job's lease is held for the minimum time,
+     * so an instance whose schedule fires a little later does not run the job again.
+     */
+    @Test
+    void runExclusively_AfterRun_HeldForAtLeast() {
+        // Arrange
+        AtomicInteger runs = new AtomicInteger();
+        assertTrue(instances.get(0).runExclusively(JOB, AT_MOST, AT_LEAST, runs::incrementAndGet));
+
+        // Act & Assert
+        now.set(now.get().plusMinutes(5));
+        assertFalse(instances.get(1).runExclusively(JOB, AT_MOST, AT_LEAST, runs::incrementAndGet));
+        now.set(now.get().plus(AT_LEAST));
+        assertTrue(instances.get(1).runExclusively(JOB, AT_MOST, AT_LEAST, runs::incrementAndGet));
+        assertEquals(2, runs.get());
+    }
+
+    /**
+     * Test case to verify that a job run with the lease is given the lease's fencing token and runs outside
+     * any transaction, so that only the writes it makes through runFenced hold the lease's lock.
+     */
+    @Test
+    void runWithLease_TaskRunsOutsideTransactionWithToken() {
+        // Arrange
+        AtomicLong token = new AtomicLong();
+        AtomicBoolean inTransaction = new AtomicBoolean(true);
+
+        // Act
+        boolean ran = instances.get(0).runWithLease(JOB, AT_MOST, Duration.ZERO, t -> {
+            token.set(t);
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+        });
+
+        // Assert
+        assertTrue(ran);
+        assertEquals(1, token.get());
+        assertFalse(inTransaction.get());
+        assertEquals(OptionalLong.of(2), instances.get(1).tryAcquire(JOB, AT_MOST));
+    }
+
+    /**
+     * Test case to verify that the lease of an instance that stopped without releasing it
+     * is taken over once it expires, with the next fencing token.
+     */
+    @Test
+    void tryAcquire_HolderStopped_TakenOverAfterAtMost() {
+        // Arrange
+        assertEquals(OptionalLong.of(1), instances.get(0).tryAcquire(JOB, AT_MOST));
+
+        // Act & Assert
+        now.set(now.get().plus(AT_MOST).minusMinutes(1));
+        assertTrue(instances.get(1).tryAcquire(JOB, AT_MOST).isEmpty());
+        now.set(now.get().plusMinutes(1));
+        assertEquals(OptionalLong.of(2), instances.get(1).tryAcquire(JOB, AT_MOST));
+        assertEquals("node-2", jobLeaseRepository.findById(JOB).orElseThrow().getOwner());
+    }
+
+    /**
+     * Test case to verify that an instance that stalled until its lease was taken over can neither write
+     * with its stale fencing token nor release the lease of the instance that took it over.
+     */
+    @Test
+    void runFenced_LeaseTakenOver_RejectsStaleToken() {
+        // Arrange
+        long staleToken = instances.get(0).tryAcquire(JOB, AT_MOST).getAsLong();
+        now.set(now.get().plus(AT_MOST));
+        long token = instances.get(1).tryAcquire(JOB, AT_MOST).getAsLong();
+        AtomicInteger writes = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(LeaseLostException.class, () -> instances.get(0).runFenced(JOB, staleToken, writes::incrementAndGet));
+        assertEquals(0, writes.get());
+
+        instances.get(0).release(JOB, staleToken, now.get());
+        assertTrue(instances.get(2).tryAcquire(JOB, AT_MOST).isEmpty());
+
+        instances.get(1).runFenced(JOB, token, writes::incrementAndGet);
+        assertEquals(1, writes.get());
+    }
+}
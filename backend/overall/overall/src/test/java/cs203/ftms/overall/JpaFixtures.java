@@ -0,0 +1,119 @@
+package cs203.ftms.overall;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Tournament;
+import cs203.ftms.overall.model.userrelated.Fencer;
+import cs203.ftms.overall.model.userrelated.Organiser;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Persists the organisers, tournaments, events and fencers the @H2DataJpaTest classes build their fixtures from.
+ * Every method must be called within a transaction.
+ */
+final class JpaFixtures {
+
+    private JpaFixtures() {
+    }
+
+    /**
+     * Persists an organiser.
+     *
+     * @param entityManager the entity manager to persist with.
+     * @return the organiser.
+     */
+    static Organiser createOrganiser(EntityManager entityManager) {
+        Organiser organiser = new Organiser("Organiser One", "organiser.one@example.com", "password", "+6599999999",
+                "Singapore");
+        entityManager.persist(organiser);
+        return organiser;
+    }
+
+    /**
+     * Persists a tournament of an organiser that runs for two days from its start date.
+     *
+     * @param entityManager the entity manager to persist with.
+     * @param organiser the organiser of the tournament.
+     * @param name the name of the tournament.
+     * @param signupEndDate the last day fencers may sign up.
+     * @param startDate the first day of the tournament.
+     * @return the tournament.
+     */
+    static Tournament createTournament(EntityManager entityManager, Organiser organiser, String name,
+            LocalDate signupEndDate, LocalDate startDate) {
+        Tournament t = new Tournament(name, organiser, signupEndDate, 60, startDate, startDate.plusDays(1),
+                "Singapore", "description", "rules", 'B');
+        t.setEvents(new HashSet<>());
+        entityManager.persist(t);
+        return t;
+    }
+
+    /**
+     * Persists a men's sabre event of a tournament.
+     *
+     * @param entityManager the entity manager to persist with.
+     * @param tournament the tournament of the event.
+     * @param minParticipants the minimum number of participants of the event.
+     * @param date the day of the event.
+     * @return the event.
+     */
+    static Event createEvent(EntityManager entityManager, Tournament tournament, int minParticipants, LocalDate date) {
+        return createEvent(entityManager, tournament, minParticipants, 0, date);
+    }
+
+    /**
+     * Persists a men's sabre event of a tournament that fencers have already registered for.
+     * The participant count is not updatable once the event is persisted, so it is set here.
+     *
+     * @param entityManager the entity manager to persist with.
+     * @param tournament the tournament of the event.
+     * @param minParticipants the minimum number of participants of the event.
+     * @param participantCount the number of fencers registered for the event.
+     * @param date the day of the event.
+     * @return the event.
+     */
+    static Event createEvent(EntityManager entityManager, Tournament tournament, int minParticipants,
+            int participantCount, LocalDate date) {
+        Event e = new Event(tournament, 'M', 'S', minParticipants, date, LocalTime.of(9, 0), LocalTime.of(18, 0));
+        e.setParticipantCount(participantCount);
+        entityManager.persist(e);
+        return e;
+    }
+
+    /**
+     * Persists a men's sabre fencer, named and addressed after a key unique within the fixture.
+     *
+     * @param entityManager the entity manager to persist with.
+     * @param key the key of the fencer.
+     * @return the fencer.
+     */
+    static Fencer createFencer(EntityManager entityManager, String key) {
+        Fencer f = new Fencer("FENCER " + key, "fencer" + key + "@example.com", "password", "+6594949499",
+                "Singapore", LocalDate.of(2000, 1, 1));
+        f.setWeapon('S');
+        f.setGender('M');
+        f.setDominantArm('R');
+        entityManager.persist(f);
+        return f;
+    }
+
+    /**
+     * Persists men's sabre fencers keyed 0 to count - 1.
+     *
+     * @param entityManager the entity manager to persist with.
+     * @param count the number of fencers.
+     * @return the fencers.
+     */
+    static List<Fencer> createFencers(EntityManager entityManager, int count) {
+        List<Fencer> fencers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            fencers.add(createFencer(entityManager, String.valueOf(i)));
+        }
+        return fencers;
+    }
+}
@@ -0,0 +1,101 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import cs203.ftms.overall.dto.LiveScoreDTO;
+import cs203.ftms.overall.service.match.LiveScoreService;
+
+class LiveScoreServiceTest {
+
+    private LiveScoreService liveScoreService;
+
+    @BeforeEach
+    void setUp() {
+        liveScoreService = new LiveScoreService(60000, new ObjectMapper(), Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test case to verify that an update is sent to every subscriber of its event and to no other event's subscribers.
+     */
+    @Test
+    void publish_NoTransaction_SendsToSubscribersOfEvent() throws IOException {
+        // Arrange
+        SseEmitter spectator1 = liveScoreService.addSubscriber(1, mock(SseEmitter.class));
+        SseEmitter spectator2 = liveScoreService.addSubscriber(1, mock(SseEmitter.class));
+        SseEmitter otherEvent = liveScoreService.addSubscriber(2, mock(SseEmitter.class));
+
+        // Act
+        liveScoreService.publish(1, List.of(createLiveScore(1)));
+
+        // Assert
+        verify(spectator1).send(any(SseEventBuilder.class));
+        verify(spectator2).send(any(SseEventBuilder.class));
+        verify(otherEvent, never()).send(any(SseEventBuilder.class));
+    }
+
+    /**
+     * Test case to verify that an update published inside a transaction is only sent once the transaction commits.
+     */
+    @Test
+    void publish_InTransaction_SendsAfterCommit() throws IOException {
+        // Arrange
+        SseEmitter spectator = liveScoreService.addSubscriber(1, mock(SseEmitter.class));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // Act
+        liveScoreService.publish(1, List.of(createLiveScore(1)));
+
+        // Assert
+        verify(spectator, never()).send(any(SseEventBuilder.class));
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        verify(spectator).send(any(SseEventBuilder.class));
+    }
+
+    /**
+     * Test case to verify that a subscriber whose connection has gone away is removed.
+     */
+    @Test
+    void publish_SendFails_RemovesSubscriber() throws IOException {
+        // Arrange
+        SseEmitter spectator = liveScoreService.addSubscriber(1, mock(SseEmitter.class));
+        doThrow(new IOException("Broken pipe")).when(spectator).send(any(SseEventBuilder.class));
+
+        // Act
+        liveScoreService.publish(1, List.of(createLiveScore(1)));
+
+        // Assert
+        assertEquals(0, liveScoreService.getSubscriberCount(1));
+    }
+
+    // Helper method to create the live score of a finished poule bout
+    private LiveScoreDTO createLiveScore(int eventId) {
+        return new LiveScoreDTO(eventId, 1, 10, 1, 2, 5, 3, 1);
+    }
+}
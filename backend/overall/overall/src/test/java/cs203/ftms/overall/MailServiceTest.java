@@ -0,0 +1,221 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import cs203.ftms.overall.model.mailrelated.OutboxMail;
+import cs203.ftms.overall.repository.mailrelated.OutboxMailRepository;
+import cs203.ftms.overall.service.admin.MailService;
+import cs203.ftms.overall.service.scheduling.JobLeaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Tests the mail outbox against a local GreenMail SMTP server.
+ */
+class MailServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY = 60000;
+    private static final long RETENTION = 86400000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private OutboxMailRepository outboxMailRepository;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    private JavaMailSenderImpl javaMailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private MailService mailService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        javaMailSender = new JavaMailSenderImpl();
+        javaMailSender.setHost("localhost");
+        javaMailSender.setPort(ServerSetupTest.SMTP.getPort());
+        meterRegistry = new SimpleMeterRegistry();
+        mailService = new MailService(javaMailSender, outboxMailRepository, jobLeaseService, meterRegistry, 20, MAX_ATTEMPTS,
+                RETRY_DELAY, RETENTION);
+        // this instance always holds the dispatch job's lease, with token 1
+        when(jobLeaseService.runWithLease(any(), any(), any(), any())).thenAnswer(invocation -> {
+            invocation.<LongConsumer>getArgument(3).accept(1);
+            return true;
+        });
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(jobLeaseService).runFenced(any(), anyLong(), any());
+        ReflectionTestUtils.setField(mailService, "gmailEmail", "ftms@example.com");
+    }
+
+    /**
+     * Test case to verify that sending a mail only queues it as pending, with the priority of a mail a user is
+     * waiting for, without contacting the mail server.
+     */
+    @Test
+    void sendMail_QueuesPendingMail() {
+        // Act
+        mailService.sendMail("fencer@example.com", "Event Cancellation", "Dear fencer");
+
+        // Assert
+        ArgumentCaptor<OutboxMail> captor = ArgumentCaptor.forClass(OutboxMail.class);
+        verify(outboxMailRepository).save(captor.capture());
+        OutboxMail mail = captor.getValue();
+        assertEquals("fencer@example.com", mail.getRecipient());
+        assertEquals(OutboxMail.PENDING, mail.getStatus());
+        assertEquals(OutboxMail.PRIORITY_USER, mail.getPriority());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, meterRegistry.counter("mail.outbox.queued").count());
+    }
+
+    /**
+     * Test case to verify that a dispatch sends every due mail and marks it as sent.
+     */
+    @Test
+    void dispatchMails_DueMails_SendsAndMarksSent() throws Exception {
+        // Arrange
+        List<OutboxMail> due = createMails(3);
+        when(outboxMailRepository.findDue(any(), any())).thenReturn(due);
+        when(outboxMailRepository.countByStatus(OutboxMail.PENDING)).thenReturn(0L);
+
+        // Act
+        mailService.dispatchMails();
+
+        // Assert
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertEquals("Event Cancellation", received[0].getSubject());
+        for (OutboxMail mail : due) {
+            assertEquals(OutboxMail.SENT, mail.getStatus());
+            assertNotNull(mail.getSentAt());
+        }
+        verify(outboxMailRepository).saveAll(due);
+        assertEquals(3.0, meterRegistry.counter("mail.outbox.sent").count());
+        assertEquals(1, meterRegistry.timer("mail.outbox.dispatch").count());
+    }
+
+    /**
+     * Test case to verify that when the mail server cannot be reached, the mails are kept and retried later,
+     * with the delay doubling after each attempt, and that a mail is given up once it has used all its attempts.
+     */
+    @Test
+    void dispatchMails_ServerDown_RetriesWithBackoff() {
+        // Arrange
+        greenMail.stop();
+        List<OutboxMail> due = createMails(3);
+        due.get(1).setAttempts(1);
+        due.get(2).setAttempts(MAX_ATTEMPTS - 1);
+        when(outboxMailRepository.findDue(any(), any())).thenReturn(due);
+        when(outboxMailRepository.countByStatus(OutboxMail.PENDING)).thenReturn(2L);
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        mailService.dispatchMails();
+
+        // Assert
+        assertEquals(OutboxMail.PENDING, due.get(0).getStatus());
+        assertEquals(1, due.get(0).getAttempts());
+        assertFalse(due.get(0).getNextAttemptAt().isBefore(before.plusNanos(RETRY_DELAY * 1000000)));
+        assertNotNull(due.get(0).getLastError());
+        assertEquals(OutboxMail.PENDING, due.get(1).getStatus());
+        assertFalse(due.get(1).getNextAttemptAt().isBefore(before.plusNanos(2 * RETRY_DELAY * 1000000)));
+        assertEquals(OutboxMail.FAILED, due.get(2).getStatus());
+        verify(outboxMailRepository).saveAll(due);
+        assertEquals(2.0, meterRegistry.counter("mail.outbox.retried").count());
+        assertEquals(1.0, meterRegistry.counter("mail.outbox.failed").count());
+        assertEquals(2.0, meterRegistry.get("mail.outbox.pending").gauge().value());
+    }
+
+    /**
+     * Test case to verify that a dispatch sends its batch before it enters the transaction fenced by the lease,
+     * and only saves the mails' statuses inside it.
+     */
+    @Test
+    void dispatchMails_DueMails_SendsOutsideFencedTransaction() {
+        // Arrange
+        List<OutboxMail> due = createMails(2);
+        when(outboxMailRepository.findDue(any(), any())).thenReturn(due);
+        AtomicInteger receivedBeforeFenced = new AtomicInteger(-1);
+        doAnswer(invocation -> {
+            receivedBeforeFenced.set(greenMail.getReceivedMessages().length);
+            invocation.<Runnable>getArgument(2).run();
+            return null;
+        }).when(jobLeaseService).runFenced(eq("mail-dispatch"), eq(1L), any());
+
+        // Act
+        mailService.dispatchMails();
+
+        // Assert
+        assertEquals(2, receivedBeforeFenced.get());
+        InOrder inOrder = inOrder(outboxMailRepository, jobLeaseService);
+        inOrder.verify(outboxMailRepository).findDue(any(), any());
+        inOrder.verify(jobLeaseService).runFenced(eq("mail-dispatch"), eq(1L), any());
+        inOrder.verify(outboxMailRepository).saveAll(due);
+    }
+
+    /**
+     * Test case to verify that the purge deletes the mails sent before the retention period, under the purge job's lease.
+     */
+    @Test
+    void purgeSentMails_DeletesMailsSentBeforeRetention() {
+        // Arrange
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(3).run();
+            return true;
+        }).when(jobLeaseService).runExclusively(eq("mail-purge"), any(), any(), any());
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        mailService.purgeSentMails();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> captor = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxMailRepository).deleteSentBefore(captor.capture());
+        assertFalse(captor.getValue().isBefore(before.minusNanos(RETENTION * 1000000)));
+        assertFalse(captor.getValue().isAfter(LocalDateTime.now().minusNanos(RETENTION * 1000000)));
+    }
+
+    // Helper method to create pending mails that are due now
+    private List<OutboxMail> createMails(int count) {
+        List<OutboxMail> mails = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            OutboxMail mail = new OutboxMail("fencer" + i + "@example.com", "Event Cancellation", "Dear fencer " + i,
+                    LocalDateTime.now());
+            mail.setId(i + 1);
+            mails.add(mail);
+        }
+        return mails;
+    }
+}
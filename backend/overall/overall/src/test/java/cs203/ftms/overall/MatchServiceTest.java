@@ -3,10 +3,17 @@ package cs203.ftms.overall;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -282,4 +289,59 @@ class MatchServiceTest {
         // Act & Assert
         assertThrows(EntityDoesNotExistException.class, () -> matchService.getCleanMatchDTO(match, 'A'));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests if getFencersInMatches resolves the distinct fencers of several matches with one query.
+     */
+    @Test
+    void getFencersInMatches_ShouldLoadDistinctFencersOnce() {
+        // Arrange
+        Match match1 = new Match();
+        match1.setFencer1(1);
+        match1.setFencer2(2);
+
+        Match match2 = new Match();
+        match2.setFencer1(2);
+        match2.setFencer2(3);
+
+        Match match3 = new Match(); // Match without fencers yet
+
+        TournamentFencer fencer1 = new TournamentFencer();
+        fencer1.setId(1);
+        TournamentFencer fencer2 = new TournamentFencer();
+        fencer2.setId(2);
+        TournamentFencer fencer3 = new TournamentFencer();
+        fencer3.setId(3);
+
+        when(tournamentFencerRepository.findAllById(Set.of(1, 2, 3))).thenReturn(List.of(fencer1, fencer2, fencer3));
+
+        // Act
+        Map<Integer, TournamentFencer> result = matchService.getFencersInMatches(List.of(match1, match2, match3));
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals(List.of(fencer2, fencer3), matchService.getFencersInMatch(match2, result));
+        assertEquals(0, matchService.getFencersInMatch(match3, result).size());
+        verify(tournamentFencerRepository, times(1)).findAllById(any());
+        verify(tournamentFencerRepository, never()).findById(anyInt());
+    }
+
+    /**
+     * Tests if getFencersInMatches throws an EntityDoesNotExistException when a fencer does not exist.
+     */
+    @Test
+    void getFencersInMatches_ShouldThrowException_WhenFencerDoesNotExist() {
+        // Arrange
+        Match match = new Match();
+        match.setFencer1(1);
+        match.setFencer2(2);
+
+        TournamentFencer fencer1 = new TournamentFencer();
+        fencer1.setId(1);
+
+        when(tournamentFencerRepository.findAllById(Set.of(1, 2))).thenReturn(List.of(fencer1));
+
+        // Act & Assert
+        assertThrows(EntityDoesNotExistException.class, () -> matchService.getFencersInMatches(List.of(match)));
+    }
+}
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,6 +26,7 @@ import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
 import cs203.ftms.overall.repository.userrelated.OrganiserRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.organiser.OrganiserService;
 import jakarta.persistence.EntityNotFoundException;
 
@@ -39,6 +41,9 @@ class OrganiserServiceTest {
     @Mock
     private OrganiserRepository organiserRepository;
 
+    @Mock
+    private ResponseCache responseCache;
+
     @InjectMocks
     private OrganiserService organiserService;
 
@@ -146,6 +151,8 @@ class OrganiserServiceTest {
         dto.setEmail("new@example.com");
         dto.setName("New Name");
 
+        when(organiserRepository.findById(1)).thenReturn(Optional.of(organiser));
+
         // Act
         organiserService.updateProfile(organiser, dto);
 
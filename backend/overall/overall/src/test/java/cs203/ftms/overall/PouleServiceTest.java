@@ -11,27 +11,55 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
 import cs203.ftms.overall.dto.CreatePoulesDTO;
+import cs203.ftms.overall.controller.match.PouleController;
 import cs203.ftms.overall.dto.PouleResultsDTO;
+import cs203.ftms.overall.dto.PouleScoresDTO;
 import cs203.ftms.overall.dto.PouleTableDTO;
 import cs203.ftms.overall.dto.SinglePouleTableDTO;
+import cs203.ftms.overall.dto.UpdatePouleMatchDTO;
 import cs203.ftms.overall.dto.clean.CleanMatchDTO;
 import cs203.ftms.overall.dto.clean.CleanPouleDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentFencerDTO;
+import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.model.tournamentrelated.Event;
 import cs203.ftms.overall.model.tournamentrelated.Poule;
 import cs203.ftms.overall.model.tournamentrelated.PouleMatch;
@@ -39,11 +67,14 @@ import cs203.ftms.overall.model.tournamentrelated.Tournament;
 import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.model.userrelated.Organiser;
+import cs203.ftms.overall.repository.cacherelated.CacheVersionRepository;
 import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
 import cs203.ftms.overall.repository.tournamentrelated.MatchRepository;
 import cs203.ftms.overall.repository.tournamentrelated.PouleRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
+import cs203.ftms.overall.service.match.LiveScoreService;
 import cs203.ftms.overall.service.match.MatchService;
 import cs203.ftms.overall.service.match.PouleService;
 
@@ -67,6 +98,12 @@ public class PouleServiceTest {
     @Mock
     private EventService eventService;
 
+    @Mock
+    private LiveScoreService liveScoreService;
+
+    @Mock
+    private ResponseCache responseCache;
+
     @InjectMocks
     private PouleService pouleService;
 
@@ -459,6 +496,11 @@ public class PouleServiceTest {
         // Assert
         verify(eventService).getEvent(eventId);
         assertNotNull(result);
+        assertEquals(2, result.size());
+        verify(pouleRepository).saveAll(anyList());
+        verify(tournamentFencerRepository).saveAll(anyList());
+        verify(pouleRepository, never()).save(any(Poule.class));
+        verify(tournamentFencerRepository, never()).save(any(TournamentFencer.class));
     }
 
     /**
@@ -542,6 +584,7 @@ public class PouleServiceTest {
         event.setPoules(poules);
 
         when(eventService.getEvent(eventId)).thenReturn(event);
+        when(pouleRepository.findByEvent(event)).thenReturn(new ArrayList<>(poules));
 
         // Act
         Set<CleanPouleDTO> result = pouleService.getPoulesOfEvent(eventId);
@@ -675,6 +718,114 @@ public class PouleServiceTest {
         // Add more assertions as needed to verify the behavior
     }
 
+    /**
+     * Test to verify that an existing poule table is read from the score matrix
+     * without resolving the fencers of each match through the match service.
+     */
+    @Test
+    void getPouleTable_ExistingMatches_ReadsScoresFromMatrix() {
+        // Arrange
+        int eventId = 1;
+        Event event = new Event();
+        event.setId(eventId);
+
+        List<TournamentFencer> fencerList = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            TournamentFencer tournamentFencer = new TournamentFencer();
+            tournamentFencer.setId(i);
+            Fencer fencer = new Fencer();
+            fencer.setPoints(100 - i);
+            fencer.setName("Fencer " + i);
+            fencer.setCountry("Country " + i);
+            tournamentFencer.setFencer(fencer);
+            fencerList.add(tournamentFencer);
+        }
+
+        Poule poule = new Poule();
+        poule.setId(1);
+        poule.setEvent(event);
+        poule.setFencers(new HashSet<>(fencerList));
+        Set<PouleMatch> pouleMatches = new HashSet<>();
+        int[][] bouts = {{1, 2, 5, 3}, {3, 1, 4, 5}, {2, 3, 1, 5}};
+        for (int[] bout : bouts) {
+            PouleMatch pouleMatch = new PouleMatch();
+            pouleMatch.setFencer1(bout[0]);
+            pouleMatch.setFencer2(bout[1]);
+            pouleMatch.setScore1(bout[2]);
+            pouleMatch.setScore2(bout[3]);
+            pouleMatches.add(pouleMatch);
+        }
+        poule.setPouleMatches(pouleMatches);
+
+        when(eventService.getEvent(eventId)).thenReturn(event);
+        when(pouleRepository.findByEvent(event)).thenReturn(new ArrayList<>(List.of(poule)));
+
+        // Act
+        PouleTableDTO result = pouleService.getPouleTable(eventId, false);
+
+        // Assert
+        Map<String, String> table = result.getPouleTable().get(0);
+        assertEquals("-1,5,5", table.get("Fencer 1 (Country 1) -- 1"));
+        assertEquals("3,-1,1", table.get("Fencer 2 (Country 2) -- 2"));
+        assertEquals("4,5,-1", table.get("Fencer 3 (Country 3) -- 3"));
+        verify(matchService, never()).getFencer1(any());
+        verify(tournamentFencerRepository, never()).findById(any());
+    }
+
+    /**
+     * Test to verify that creating the poule matches builds every bout in memory
+     * and saves them in a single batch, without looking up the poule or fencers again.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void getPouleTable_CreatePM_SavesAllBoutsInOneBatch() {
+        // Arrange
+        int eventId = 1;
+        Event event = new Event();
+        event.setId(eventId);
+
+        List<TournamentFencer> fencerList = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            TournamentFencer tournamentFencer = new TournamentFencer();
+            tournamentFencer.setId(i);
+            Fencer fencer = new Fencer();
+            fencer.setPoints(100 - i);
+            fencer.setName("Fencer " + i);
+            fencer.setCountry("Country " + i);
+            tournamentFencer.setFencer(fencer);
+            fencerList.add(tournamentFencer);
+        }
+
+        Poule poule = new Poule();
+        poule.setId(1);
+        poule.setEvent(event);
+        poule.setFencers(new HashSet<>(fencerList));
+        PouleMatch existing = new PouleMatch(poule);
+        existing.setFencer1(1);
+        existing.setFencer2(2);
+        poule.setPouleMatches(new HashSet<>(List.of(existing)));
+
+        when(eventService.getEvent(eventId)).thenReturn(event);
+        when(pouleRepository.findByEvent(event)).thenReturn(new ArrayList<>(List.of(poule)));
+
+        // Act
+        PouleTableDTO result = pouleService.getPouleTable(eventId, true);
+
+        // Assert
+        ArgumentCaptor<List<PouleMatch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(matchRepository).saveAll(captor.capture());
+        assertEquals(5, captor.getValue().size()); // the existing 1 vs 2 bout is not created again
+        assertEquals(6, poule.getPouleMatches().size());
+        for (TournamentFencer tournamentFencer : fencerList) {
+            assertEquals(tournamentFencer.getId() <= 2 ? 2 : 3, tournamentFencer.getMatches().size());
+        }
+        assertEquals("-1,0,0,0", result.getPouleTable().get(0).get("Fencer 1 (Country 1) -- 1"));
+        verify(tournamentFencerRepository).saveAll(anyList());
+        verify(matchRepository, never()).save(any());
+        verify(pouleRepository, never()).findById(anyInt());
+        verify(tournamentFencerRepository, never()).findById(any());
+    }
+
     /**
      * Test to verify that a poule table is updated correctly.
      * 
@@ -758,6 +909,14 @@ public class PouleServiceTest {
         // Assert
         verify(pouleRepository).findByEventAndPouleNumber(event, 1);
         assertTrue(result);
+        // The first update records a result for all ten bouts, and each is pushed to live score subscribers
+        verify(liveScoreService, times(10)).getLiveScoreDTO(eq(eventId), eq(1), any(PouleMatch.class));
+        verify(liveScoreService).publish(eq(eventId), anyList());
+
+        // Submitting the same table again changes no bout, so none is pushed
+        clearInvocations(liveScoreService);
+        pouleService.updatePouleTable(eventId, singlePouleTableDTO, organiser);
+        verify(liveScoreService, never()).getLiveScoreDTO(anyInt(), anyInt(), any(PouleMatch.class));
     }
 
     /**
@@ -1073,4 +1232,363 @@ public class PouleServiceTest {
         verify(eventService).getEvent(eventId);
         assertNotNull(result);
     }
+
+    // Helper method to set up a scored or unscored poule match between two fencers of an event
+    private PouleMatch setUpPouleMatch(Event event, TournamentFencer tf1, TournamentFencer tf2) {
+        Poule poule = new Poule(1, event);
+        PouleMatch pouleMatch = new PouleMatch(poule);
+        pouleMatch.setId(10);
+        pouleMatch.setFencer1(tf1.getId());
+        pouleMatch.setFencer2(tf2.getId());
+        when(eventService.getEvent(event.getId())).thenReturn(event);
+        when(matchRepository.findLockedById(10)).thenReturn(Optional.of(pouleMatch));
+        when(tournamentFencerRepository.findLockedById(tf1.getId())).thenReturn(Optional.of(tf1));
+        when(tournamentFencerRepository.findLockedById(tf2.getId())).thenReturn(Optional.of(tf2));
+        return pouleMatch;
+    }
+
+    /**
+     * Test to verify that scoring an unscored poule match adds its result to both fencers only.
+     */
+    @Test
+    void updatePouleMatch_FirstResult_AddsToStandings() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        TournamentFencer tf1 = new TournamentFencer();
+        tf1.setId(1);
+        tf1.setPoulePoints(7);
+        tf1.setPouleWins(1);
+        TournamentFencer tf2 = new TournamentFencer();
+        tf2.setId(2);
+        PouleMatch pouleMatch = setUpPouleMatch(event, tf1, tf2);
+
+        // Act
+        PouleMatch result = pouleService.updatePouleMatch(1, new UpdatePouleMatchDTO(10, 5, 3), new Organiser());
+
+        // Assert
+        assertEquals(1, result.getWinner());
+        assertEquals(12, tf1.getPoulePoints());
+        assertEquals(2, tf1.getPouleWins());
+        assertEquals(3, tf2.getPoulePoints());
+        assertEquals(0, tf2.getPouleWins());
+        verify(matchRepository).save(pouleMatch);
+        verify(tournamentFencerRepository).saveAll(List.of(tf1, tf2));
+        verify(pouleRepository, never()).findByEventAndPouleNumber(any(), anyInt());
+        verify(liveScoreService).getLiveScoreDTO(1, 1, pouleMatch);
+        verify(liveScoreService).publish(eq(1), anyList());
+    }
+
+    /**
+     * Test to verify that resubmitting the recorded result of a poule match publishes no live score update.
+     */
+    @Test
+    void updatePouleMatch_SameResult_PublishesNothing() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        TournamentFencer tf1 = new TournamentFencer();
+        tf1.setId(1);
+        tf1.setPoulePoints(5);
+        tf1.setPouleWins(1);
+        TournamentFencer tf2 = new TournamentFencer();
+        tf2.setId(2);
+        tf2.setPoulePoints(3);
+        PouleMatch pouleMatch = setUpPouleMatch(event, tf1, tf2);
+        pouleMatch.setScore1(5);
+        pouleMatch.setScore2(3);
+        pouleMatch.setWinner(1);
+
+        // Act
+        pouleService.updatePouleMatch(1, new UpdatePouleMatchDTO(10, 5, 3), new Organiser());
+
+        // Assert
+        verify(liveScoreService, never()).getLiveScoreDTO(anyInt(), anyInt(), any(PouleMatch.class));
+        verify(liveScoreService).publish(1, List.of());
+    }
+
+    /**
+     * Test to verify that correcting a scored poule match replaces its previous result in the standings.
+     */
+    @Test
+    void updatePouleMatch_Correction_ReplacesPreviousResult() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        TournamentFencer tf1 = new TournamentFencer();
+        tf1.setId(1);
+        tf1.setPoulePoints(5);
+        tf1.setPouleWins(1);
+        TournamentFencer tf2 = new TournamentFencer();
+        tf2.setId(2);
+        tf2.setPoulePoints(2);
+        PouleMatch pouleMatch = setUpPouleMatch(event, tf1, tf2);
+        pouleMatch.setScore1(5);
+        pouleMatch.setScore2(2);
+        pouleMatch.setWinner(1);
+
+        // Act
+        pouleService.updatePouleMatch(1, new UpdatePouleMatchDTO(10, 4, 5), new Organiser());
+
+        // Assert
+        assertEquals(2, pouleMatch.getWinner());
+        assertEquals(4, tf1.getPoulePoints());
+        assertEquals(0, tf1.getPouleWins());
+        assertEquals(5, tf2.getPoulePoints());
+        assertEquals(1, tf2.getPouleWins());
+    }
+
+    /**
+     * Test to verify that the fencers of a poule match are locked in ID order whichever side of the bout they are on,
+     * so that concurrent updates of bouts sharing a fencer cannot deadlock.
+     */
+    @Test
+    void updatePouleMatch_FencersLockedInIdOrder() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        TournamentFencer tf1 = new TournamentFencer();
+        tf1.setId(8);
+        TournamentFencer tf2 = new TournamentFencer();
+        tf2.setId(3);
+        setUpPouleMatch(event, tf1, tf2);
+
+        // Act
+        pouleService.updatePouleMatch(1, new UpdatePouleMatchDTO(10, 5, 3), new Organiser());
+
+        // Assert
+        InOrder inOrder = inOrder(matchRepository, tournamentFencerRepository);
+        inOrder.verify(matchRepository).findLockedById(10);
+        inOrder.verify(tournamentFencerRepository).findLockedById(3);
+        inOrder.verify(tournamentFencerRepository).findLockedById(8);
+        assertEquals(5, tf1.getPoulePoints());
+        assertEquals(1, tf1.getPouleWins());
+        assertEquals(3, tf2.getPoulePoints());
+    }
+
+    /**
+     * Test to verify that updating a poule match of another event is rejected.
+     */
+    @Test
+    void updatePouleMatch_MatchNotInEvent_ThrowsException() {
+        // Arrange
+        Event event = new Event();
+        event.setId(2);
+        TournamentFencer tf1 = new TournamentFencer();
+        tf1.setId(1);
+        TournamentFencer tf2 = new TournamentFencer();
+        tf2.setId(2);
+        setUpPouleMatch(event, tf1, tf2);
+        when(eventService.getEvent(1)).thenReturn(new Event());
+
+        // Act & Assert
+        assertThrows(EntityDoesNotExistException.class,
+                () -> pouleService.updatePouleMatch(1, new UpdatePouleMatchDTO(10, 5, 3), new Organiser()));
+        verify(tournamentFencerRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Test to verify that the columnar poule table lists the fencers in display order
+     * and holds the scores as one flat row-major array.
+     */
+    @Test
+    void getPouleScores_ExistingMatches_ReturnsFlatScores() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        Poule poule = createScoredPoule(event, new int[][] {{1, 2, 5, 3}, {3, 1, 4, 5}, {2, 3, 1, 5}});
+        when(eventService.getEvent(1)).thenReturn(event);
+        when(pouleRepository.findByEvent(event)).thenReturn(new ArrayList<>(List.of(poule)));
+
+        // Act
+        List<PouleScoresDTO> result = pouleService.getPouleScores(1);
+
+        // Assert
+        PouleScoresDTO table = result.get(0);
+        assertEquals(1, table.getPouleNumber());
+        assertArrayEquals(new int[] {1, 2, 3}, table.getFencerIds());
+        assertArrayEquals(new String[] {"Fencer 1", "Fencer 2", "Fencer 3"}, table.getFencerNames());
+        assertArrayEquals(new int[] {-1, 5, 5, 3, -1, 1, 4, 5, -1}, table.getScores());
+    }
+
+    /**
+     * Test to verify that the poules of a large event are converted on the poule executor
+     * and returned in poule order, whichever finishes first.
+     */
+    @Test
+    void getPouleScores_ManyPoules_ConvertsInParallelInOrder() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        List<Poule> poules = new ArrayList<>();
+        for (int p = 12; p >= 1; p--) {
+            Poule poule = createScoredPoule(event, new int[][] {{1, 2, p % 6, 5}, {3, 1, 4, 5}, {2, 3, 1, 5}});
+            poule.setPouleNumber(p);
+            poules.add(poule);
+        }
+        when(eventService.getEvent(1)).thenReturn(event);
+        when(pouleRepository.findByEvent(event)).thenReturn(poules);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger submitted = new AtomicInteger();
+        PouleService parallelPouleService = new PouleService(matchService, eventService, eventRepository, pouleRepository,
+                tournamentFencerRepository, matchRepository, liveScoreService, responseCache, task -> {
+                    submitted.incrementAndGet();
+                    pool.execute(task);
+                });
+
+        // Act
+        List<PouleScoresDTO> result;
+        try {
+            result = parallelPouleService.getPouleScores(1);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Assert
+        assertEquals(12, submitted.get());
+        assertEquals(12, result.size());
+        for (int p = 1; p <= 12; p++) {
+            assertEquals(p, result.get(p - 1).getPouleNumber());
+            assertEquals(p % 6, result.get(p - 1).getScores()[1]);
+        }
+    }
+
+    /**
+     * Test to verify that a columnar score table is applied by fencer ID, whatever order its rows come in,
+     * and that the standings are recomputed from it.
+     */
+    @Test
+    void updatePouleScores_RowsInAnyOrder_UpdatesStandings() throws MethodArgumentNotValidException {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        Poule poule = createScoredPoule(event, new int[][] {{1, 2, 0, 0}, {3, 1, 0, 0}, {2, 3, 0, 0}});
+        when(eventService.getEvent(1)).thenReturn(event);
+        when(pouleRepository.findByEventAndPouleNumber(event, 1)).thenReturn(List.of(poule));
+        // rows for fencers 3, 1 and 2: fencer 1 beats 2 (5-3) and 3 (5-4), fencer 3 beats 2 (5-1)
+        int[] scores = {
+            -1, 4, 5,
+            5, -1, 5,
+            1, 3, -1
+        };
+        PouleScoresDTO dto = new PouleScoresDTO(1, new int[] {3, 1, 2}, null, null, scores);
+
+        // Act
+        boolean result = pouleService.updatePouleScores(1, dto, new Organiser());
+
+        // Assert
+        assertTrue(result);
+        Map<Integer, TournamentFencer> fencers = new HashMap<>();
+        for (TournamentFencer tf : poule.getFencers()) {
+            fencers.put(tf.getId(), tf);
+        }
+        assertEquals(2, fencers.get(1).getPouleWins());
+        assertEquals(10, fencers.get(1).getPoulePoints());
+        assertEquals(0, fencers.get(2).getPouleWins());
+        assertEquals(4, fencers.get(2).getPoulePoints());
+        assertEquals(1, fencers.get(3).getPouleWins());
+        assertEquals(9, fencers.get(3).getPoulePoints());
+        verify(responseCache).invalidateEvent(event);
+    }
+
+    /**
+     * Test to verify that a columnar score table with an out of range score is rejected before any score is written.
+     */
+    @Test
+    void updatePouleScores_ScoreOutOfRange_WritesNothing() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        Poule poule = createScoredPoule(event, new int[][] {{1, 2, 0, 0}, {3, 1, 0, 0}, {2, 3, 0, 0}});
+        when(eventService.getEvent(1)).thenReturn(event);
+        when(pouleRepository.findByEventAndPouleNumber(event, 1)).thenReturn(List.of(poule));
+        PouleScoresDTO dto = new PouleScoresDTO(1, new int[] {1, 2, 3}, null, null, new int[] {-1, 5, 5, 3, -1, 1, 4, 6, -1});
+
+        // Act & Assert
+        assertThrows(MethodArgumentNotValidException.class, () -> pouleService.updatePouleScores(1, dto, new Organiser()));
+        for (PouleMatch pouleMatch : poule.getPouleMatches()) {
+            assertEquals(0, pouleMatch.getScore1());
+            assertEquals(0, pouleMatch.getScore2());
+        }
+        verify(matchRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Test to verify that a columnar score table whose fencers are not those of the poule is rejected.
+     */
+    @Test
+    void updatePouleScores_UnknownFencer_ThrowsException() {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        Poule poule = createScoredPoule(event, new int[][] {{1, 2, 0, 0}, {3, 1, 0, 0}, {2, 3, 0, 0}});
+        when(eventService.getEvent(1)).thenReturn(event);
+        when(pouleRepository.findByEventAndPouleNumber(event, 1)).thenReturn(List.of(poule));
+        PouleScoresDTO dto = new PouleScoresDTO(1, new int[] {1, 2, 9}, null, null, new int[9]);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> pouleService.updatePouleScores(1, dto, new Organiser()));
+        verify(matchRepository, never()).saveAll(anyList());
+    }
+
+    /**
+     * Test to verify that the poule table endpoint serves the map-based table by default,
+     * and the columnar table when it is asked for as JSON or CBOR.
+     */
+    @Test
+    void getPouleTable_AcceptHeader_SelectsWireFormat() throws Exception {
+        // Arrange
+        Event event = new Event();
+        event.setId(1);
+        Poule poule = createScoredPoule(event, new int[][] {{1, 2, 5, 3}, {3, 1, 4, 5}, {2, 3, 1, 5}});
+        when(eventService.getEvent(1)).thenReturn(event);
+        when(pouleRepository.findByEvent(event)).thenAnswer(invocation -> new ArrayList<>(List.of(poule)));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PouleController(pouleService, new ResponseCache(mock(CacheVersionRepository.class), 0))).build();
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/poule/get-poule-table/1"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.pouleTable[0]['Fencer 1 (Country 1) -- 1']").value("-1,5,5"));
+        mockMvc.perform(get("/api/v1/poule/get-poule-table/1").header(HttpHeaders.ACCEPT, PouleScoresDTO.MEDIA_TYPE))
+                .andExpect(content().contentTypeCompatibleWith(PouleScoresDTO.MEDIA_TYPE))
+                .andExpect(jsonPath("$[0].scores[1]").value(5));
+        byte[] cbor = mockMvc.perform(get("/api/v1/poule/get-poule-table/1").header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        PouleScoresDTO[] tables = new CBORMapper().readValue(cbor, PouleScoresDTO[].class);
+        assertArrayEquals(new int[] {-1, 5, 5, 3, -1, 1, 4, 5, -1}, tables[0].getScores());
+    }
+
+    // Helper method to create poule 1 of an event with three fencers and a match for each {fencer1, fencer2, score1, score2}
+    private Poule createScoredPoule(Event event, int[][] bouts) {
+        List<TournamentFencer> fencerList = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            TournamentFencer tournamentFencer = new TournamentFencer();
+            tournamentFencer.setId(i);
+            Fencer fencer = new Fencer();
+            fencer.setPoints(100 - i);
+            fencer.setName("Fencer " + i);
+            fencer.setCountry("Country " + i);
+            tournamentFencer.setFencer(fencer);
+            fencerList.add(tournamentFencer);
+        }
+
+        Poule poule = new Poule();
+        poule.setId(1);
+        poule.setPouleNumber(1);
+        poule.setEvent(event);
+        poule.setFencers(new HashSet<>(fencerList));
+        Set<PouleMatch> pouleMatches = new HashSet<>();
+        for (int[] bout : bouts) {
+            PouleMatch pouleMatch = new PouleMatch();
+            pouleMatch.setFencer1(bout[0]);
+            pouleMatch.setFencer2(bout[1]);
+            pouleMatch.setScore1(bout[2]);
+            pouleMatch.setScore2(bout[3]);
+            pouleMatches.add(pouleMatch);
+        }
+        poule.setPouleMatches(pouleMatches);
+        return poule;
+    }
 }
@@ -0,0 +1,154 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import cs203.ftms.overall.model.userrelated.Fencer;
+import cs203.ftms.overall.security.service.PrincipalCache;
+import cs203.ftms.overall.security.service.PrincipalCacheListener;
+
+class PrincipalCacheTest {
+
+    private AtomicLong now;
+
+    private PrincipalCache principalCache;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(0);
+        principalCache = new PrincipalCache(1000, 2, now::get);
+    }
+
+    /**
+     * Test case to verify that a cached user is returned until its time to live has passed.
+     */
+    @Test
+    void get_CachedUser_ReturnsUntilExpired() {
+        // Arrange
+        Fencer fencer = createFencer(1, "fencer@example.com");
+        principalCache.put(fencer);
+
+        // Act & Assert
+        now.set(999);
+        assertEquals(fencer, principalCache.get("fencer@example.com"));
+        now.set(1000);
+        assertNull(principalCache.get("fencer@example.com"));
+        assertEquals(0, principalCache.size());
+    }
+
+    /**
+     * Test case to verify that evicting a user removes the entry cached under its old email,
+     * even after the email on the entity has changed.
+     */
+    @Test
+    void evictUser_EmailChanged_RemovesEntryCachedUnderOldEmail() {
+        // Arrange
+        Fencer fencer = createFencer(1, "old@example.com");
+        principalCache.put(fencer);
+        fencer.setEmail("new@example.com");
+
+        // Act
+        principalCache.evictUser(1);
+
+        // Assert
+        assertNull(principalCache.get("old@example.com"));
+        assertEquals(0, principalCache.size());
+    }
+
+    /**
+     * Test case to verify that a user written in a transaction is only evicted once the transaction commits,
+     * so that a concurrent request cannot cache the old committed row again after the eviction.
+     */
+    @Test
+    void evict_InTransaction_EvictsAfterCommit() {
+        // Arrange
+        Fencer fencer = createFencer(1, "fencer@example.com");
+        principalCache.put(fencer);
+        PrincipalCacheListener listener = new PrincipalCacheListener(
+                new StaticListableBeanFactory(Map.of("principalCache", principalCache)).getBeanProvider(PrincipalCache.class));
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // Act
+            listener.evict(fencer);
+
+            // Assert
+            assertEquals(fencer, principalCache.get("fencer@example.com"));
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            assertNull(principalCache.get("fencer@example.com"));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Test case to verify that the least recently used user is evicted once the cache is full.
+     */
+    @Test
+    void put_CacheFull_EvictsLeastRecentlyUsed() {
+        // Arrange
+        Fencer fencer1 = createFencer(1, "one@example.com");
+        Fencer fencer2 = createFencer(2, "two@example.com");
+        Fencer fencer3 = createFencer(3, "three@example.com");
+        principalCache.put(fencer1);
+        principalCache.put(fencer2);
+        principalCache.get("one@example.com");
+
+        // Act
+        principalCache.put(fencer3);
+
+        // Assert
+        assertEquals(fencer1, principalCache.get("one@example.com"));
+        assertNull(principalCache.get("two@example.com"));
+        assertEquals(fencer3, principalCache.get("three@example.com"));
+        assertEquals(2, principalCache.size());
+    }
+
+    /**
+     * Test case to verify that each read returns its own copy of the cached user, so that a request changing
+     * its principal, and then rolling the change back, does not change the user seen by other requests.
+     */
+    @Test
+    void get_CopyChanged_CachedUserUnchanged() {
+        // Arrange
+        Fencer fencer = createFencer(1, "fencer@example.com");
+        fencer.setPassword("hash");
+        fencer.setRole("ROLE_FENCER");
+        fencer.setPoints(40);
+        fencer.setWeapon('S');
+        principalCache.put(fencer);
+        fencer.setPoints(50);
+
+        // Act
+        Fencer first = (Fencer) principalCache.get("fencer@example.com");
+        first.setClub("Unsaved Club");
+        first.setPoints(60);
+        Fencer second = (Fencer) principalCache.get("fencer@example.com");
+
+        // Assert
+        assertNotSame(first, second);
+        assertNull(second.getClub());
+        assertEquals(40, second.getPoints());
+        assertEquals('S', second.getWeapon());
+        assertEquals("hash", second.getPassword());
+        assertEquals("ROLE_FENCER", second.getAuthorities().iterator().next().getAuthority());
+    }
+
+    // Helper method to create a fencer with an ID and email
+    private Fencer createFencer(int id, String email) {
+        Fencer fencer = new Fencer();
+        fencer.setId(id);
+        fencer.setEmail(email);
+        return fencer;
+    }
+}
@@ -0,0 +1,242 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import cs203.ftms.overall.dto.clean.CleanTournamentDTO;
+import cs203.ftms.overall.model.tournamentrelated.DirectEliminationMatch;
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Poule;
+import cs203.ftms.overall.model.tournamentrelated.PouleMatch;
+import cs203.ftms.overall.model.tournamentrelated.Tournament;
+import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
+import cs203.ftms.overall.model.userrelated.Fencer;
+import cs203.ftms.overall.model.userrelated.Organiser;
+import cs203.ftms.overall.repository.cacherelated.CacheVersionRepository;
+import cs203.ftms.overall.repository.tournamentrelated.DirectEliminationMatchRepository;
+import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.MatchRepository;
+import cs203.ftms.overall.repository.tournamentrelated.PouleRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
+import cs203.ftms.overall.repository.userrelated.FencerRepository;
+import cs203.ftms.overall.repository.userrelated.OrganiserRepository;
+import cs203.ftms.overall.repository.userrelated.UserRepository;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
+import cs203.ftms.overall.service.cache.ResponseCache;
+import cs203.ftms.overall.service.event.EventService;
+import cs203.ftms.overall.service.fencer.FencerService;
+import cs203.ftms.overall.service.match.DirectEliminationService;
+import cs203.ftms.overall.service.match.MatchService;
+import cs203.ftms.overall.service.match.PouleService;
+import cs203.ftms.overall.service.organiser.OrganiserService;
+import cs203.ftms.overall.service.tournament.TournamentService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Counts the SQL statements each read path issues against an in-memory database, using Hibernate statistics.
+ * The fixture has enough poules, fencers and matches that an association loaded once per row would change the count,
+ * so a mapping or query change that reintroduces eager or N+1 loading fails these tests.
+ */
+@H2DataJpaTest
+@TestPropertySource(properties = "spring.datasource.name=querycount")
+class QueryCountTest {
+
+    private static final int POULES = 3;
+    private static final int FENCERS_PER_POULE = 5;
+
+    @Autowired
+    private CacheVersionRepository cacheVersionRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TournamentRepository tournamentRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FencerRepository fencerRepository;
+
+    @Autowired
+    private OrganiserRepository organiserRepository;
+
+    @Autowired
+    private TournamentFencerRepository tournamentFencerRepository;
+
+    @Autowired
+    private PouleRepository pouleRepository;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private DirectEliminationMatchRepository directEliminationMatchRepository;
+
+    private Statistics statistics;
+
+    private FencerService fencerService;
+    private PouleService pouleService;
+    private DirectEliminationService directEliminationService;
+    private OrganiserService organiserService;
+    private TournamentService tournamentService;
+
+    private Organiser organiser;
+    private Fencer fencer;
+    private Event event;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        ResponseCache responseCache = new ResponseCache(cacheVersionRepository, 0);
+        fencerService = new FencerService(userRepository, fencerRepository, tournamentFencerRepository, null, null,
+                responseCache, 60000, System::currentTimeMillis);
+        EventService eventService = new EventService(tournamentRepository, eventRepository, userRepository, fencerService,
+                directEliminationMatchRepository, tournamentFencerRepository, entityManager, responseCache,
+                new EventSnapshotCache(60000, 100));
+        MatchService matchService = new MatchService(tournamentFencerRepository, eventService);
+        pouleService = new PouleService(matchService, eventService, eventRepository, pouleRepository,
+                tournamentFencerRepository, matchRepository, null, responseCache, Runnable::run);
+        directEliminationService = new DirectEliminationService(eventService, pouleService, matchService, matchRepository,
+                tournamentFencerRepository, directEliminationMatchRepository, null, responseCache);
+        organiserService = new OrganiserService(tournamentRepository, null, userRepository, organiserRepository, null, responseCache);
+        tournamentService = new TournamentService(tournamentRepository, eventService, eventRepository, userRepository,
+                tournamentFencerRepository, responseCache);
+
+        createFixture();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Test case to verify that the clean poules of an event are read with a fixed number of queries.
+     */
+    @Test
+    void getPoulesOfEvent_QueryCount() {
+        assertQueryCount(3, () -> pouleService.getPoulesOfEvent(event.getId()));
+    }
+
+    /**
+     * Test case to verify that the poule table of an event is read with a fixed number of queries.
+     */
+    @Test
+    void getPouleTable_QueryCount() {
+        assertQueryCount(3, () -> pouleService.getPouleTable(event.getId(), false));
+    }
+
+    /**
+     * Test case to verify that the direct elimination bracket of an event is read with a fixed number of queries.
+     */
+    @Test
+    void generateDirectEliminationBracketDTOs_QueryCount() {
+        assertQueryCount(3, () -> directEliminationService.generateDirectEliminationBracketDTOs(event.getId()));
+    }
+
+    /**
+     * Test case to verify that the tournament ranks of an event are read with a fixed number of queries.
+     */
+    @Test
+    void getTournamentRanks_QueryCount() {
+        assertQueryCount(2, () -> directEliminationService.getTournamentRanks(event.getId()));
+    }
+
+    /**
+     * Test case to verify that a fencer's upcoming and past events are each read with one query for the profiles,
+     * events and tournaments, plus one batch each for the tournaments' organisers and the profiles' poules.
+     */
+    @Test
+    void getFencerEvents_QueryCount() {
+        assertQueryCount(3, () -> fencerService.getFencerUpcomingEvents(fencer));
+        assertQueryCount(3, () -> fencerService.getFencerPastEvents(fencer));
+        assertQueryCount(3, () -> fencerService.getFencerPastEventsPoints(fencer));
+    }
+
+    /**
+     * Test case to verify that an organiser's tournaments are read and rendered with a fixed number of queries.
+     */
+    @Test
+    void getOrganiserTournaments_QueryCount() {
+        assertQueryCount(1, () -> {
+            List<CleanTournamentDTO> res = new ArrayList<>();
+            for (Tournament t : organiserService.getOrganiserTournaments(organiser)) {
+                res.add(tournamentService.getCleanTournamentDTO(t));
+            }
+            return res;
+        });
+    }
+
+    // Helper method to run an operation on an empty persistence context and check the statements it prepared
+    private void assertQueryCount(long expected, Supplier<?> operation) {
+        entityManager.clear();
+        statistics.clear();
+        operation.get();
+        assertEquals(expected, statistics.getPrepareStatementCount());
+    }
+
+    // Helper method to create an organiser with two tournaments, and an event with poules, poule matches
+    // and direct elimination matches
+    private void createFixture() {
+        organiser = JpaFixtures.createOrganiser(entityManager);
+
+        LocalDate pastDate = LocalDate.now().minusDays(30);
+        LocalDate upcomingDate = LocalDate.now().plusDays(30);
+        Tournament past = JpaFixtures.createTournament(entityManager, organiser, "Past Open", pastDate.minusDays(2),
+                pastDate);
+        Tournament upcoming = JpaFixtures.createTournament(entityManager, organiser, "Upcoming Open",
+                upcomingDate.minusDays(2), upcomingDate);
+        Event pastEvent = JpaFixtures.createEvent(entityManager, past, 4, pastDate);
+        event = JpaFixtures.createEvent(entityManager, upcoming, 4, upcomingDate);
+
+        List<TournamentFencer> tfs = new ArrayList<>();
+        for (int p = 0; p < POULES; p++) {
+            Poule poule = new Poule(p + 1, event);
+            entityManager.persist(poule);
+            List<TournamentFencer> pouleFencers = new ArrayList<>();
+            for (int i = 0; i < FENCERS_PER_POULE; i++) {
+                Fencer f = JpaFixtures.createFencer(entityManager, "" + p + i);
+                f.setPoints(100 * i);
+
+                TournamentFencer tf = new TournamentFencer(f, event);
+                tf.setPoule(poule);
+                entityManager.persist(tf);
+                entityManager.persist(new TournamentFencer(f, pastEvent));
+                pouleFencers.add(tf);
+            }
+            for (int i = 0; i < pouleFencers.size(); i++) {
+                for (int j = i + 1; j < pouleFencers.size(); j++) {
+                    PouleMatch pouleMatch = new PouleMatch(poule);
+                    pouleMatch.setFencer1(pouleFencers.get(i).getId());
+                    pouleMatch.setFencer2(pouleFencers.get(j).getId());
+                    entityManager.persist(pouleMatch);
+                }
+            }
+            tfs.addAll(pouleFencers);
+        }
+        fencer = tfs.get(0).getFencer();
+
+        for (int i = 0; i + 1 < tfs.size(); i += 2) {
+            DirectEliminationMatch match = new DirectEliminationMatch(event);
+            match.setRoundOf(16);
+            match.setFencer1(tfs.get(i).getId());
+            match.setFencer2(tfs.get(i + 1).getId());
+            entityManager.persist(match);
+        }
+    }
+}
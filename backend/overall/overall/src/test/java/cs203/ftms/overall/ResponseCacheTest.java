@@ -0,0 +1,210 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cs203.ftms.overall.controller.match.PouleController;
+import cs203.ftms.overall.dto.PouleScoresDTO;
+import cs203.ftms.overall.dto.PouleTableDTO;
+import cs203.ftms.overall.repository.cacherelated.CacheVersionRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
+import cs203.ftms.overall.service.match.PouleService;
+
+/**
+ * Tests the response cache against an in-memory H2 database in MySQL mode, which holds the versions
+ * shared by every instance of the application.
+ */
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.datasource.name=responsecache")
+class ResponseCacheTest {
+
+    @Autowired
+    private CacheVersionRepository cacheVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ResponseCache responseCache;
+
+    @BeforeEach
+    void setUp() {
+        cacheVersionRepository.deleteAll();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        responseCache = new ResponseCache(cacheVersionRepository, 100);
+    }
+
+    /**
+     * Test case to verify that a response is built once and served from the cache while its ETag is current.
+     */
+    @Test
+    void get_SameETag_BuildsOnce() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        String eTag = responseCache.getEventETag(1);
+
+        // Act
+        String first = responseCache.get("poule-table", 1, eTag, () -> "table " + loads.incrementAndGet());
+        String second = responseCache.get("poule-table", 1, eTag, () -> "table " + loads.incrementAndGet());
+
+        // Assert
+        assertEquals("table 1", first);
+        assertEquals("table 1", second);
+        assertEquals(1, loads.get());
+    }
+
+    /**
+     * Test case to verify that invalidating an event inside a transaction changes the ETags of the event
+     * and its tournament only once the transaction commits, after which the response is rebuilt.
+     */
+    @Test
+    void invalidateEvent_InTransaction_ChangesETagsAfterCommit() {
+        // Arrange
+        String eventETag = responseCache.getEventETag(1);
+        String tournamentETag = responseCache.getTournamentETag(7);
+        String otherEventETag = responseCache.getEventETag(2);
+        responseCache.get("poule-table", 1, eventETag, () -> "old table");
+
+        // Act
+        String eTagBeforeCommit = transactionTemplate.execute(status -> {
+            responseCache.invalidateEvent(1, 7);
+            responseCache.invalidateEvent(1, 7);
+            return responseCache.getEventETag(1);
+        });
+
+        // Assert
+        assertEquals(eventETag, eTagBeforeCommit);
+        assertNotEquals(eventETag, responseCache.getEventETag(1));
+        assertNotEquals(tournamentETag, responseCache.getTournamentETag(7));
+        assertEquals(otherEventETag, responseCache.getEventETag(2));
+        assertEquals(1, cacheVersionRepository.findById("e1").orElseThrow().getVersion());
+        assertEquals("new table", responseCache.get("poule-table", 1, responseCache.getEventETag(1), () -> "new table"));
+    }
+
+    /**
+     * Test case to verify that an invalidation in a transaction that rolls back leaves the ETag unchanged.
+     */
+    @Test
+    void invalidateEvent_RolledBack_KeepsETag() {
+        // Arrange
+        String eventETag = responseCache.getEventETag(1);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            responseCache.invalidateEvent(1, 7);
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(eventETag, responseCache.getEventETag(1));
+    }
+
+    /**
+     * Test case to verify that a change made through one instance of the application, invalidating every response,
+     * stops another instance serving the response it built before the change.
+     */
+    @Test
+    void invalidateAll_OnOtherInstance_RebuildsResponse() {
+        // Arrange
+        ResponseCache otherInstance = new ResponseCache(cacheVersionRepository, 100);
+        responseCache.get("event-details", 1, responseCache.getEventETag(1), () -> "old details");
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> otherInstance.invalidateAll());
+
+        // Assert
+        assertEquals(otherInstance.getEventETag(1), responseCache.getEventETag(1));
+        assertEquals("new details",
+                responseCache.get("event-details", 1, responseCache.getEventETag(1), () -> "new details"));
+    }
+
+    /**
+     * Test case to verify that a request whose If-None-Match holds the current ETag gets 304 Not Modified
+     * without the response being built, and that a stale ETag gets the response with the current ETag.
+     */
+    @Test
+    void getPouleTable_IfNoneMatch_ReturnsNotModifiedWithoutLoading() throws Exception {
+        // Arrange
+        PouleService pouleService = mock(PouleService.class);
+        when(pouleService.getPouleTable(anyInt(), anyBoolean())).thenReturn(new PouleTableDTO());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PouleController(pouleService, responseCache)).build();
+        String eTag = ResponseCache.getRepresentationETag(responseCache.getEventETag(1), "table");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v1/poule/get-poule-table/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        verify(pouleService, never()).getPouleTable(anyInt(), anyBoolean());
+
+        responseCache.invalidateEvent(1, 7);
+        mockMvc.perform(get("/api/v1/poule/get-poule-table/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG,
+                        ResponseCache.getRepresentationETag(responseCache.getEventETag(1), "table")));
+        verify(pouleService, times(1)).getPouleTable(1, false);
+    }
+
+    /**
+     * Test case to verify that the representations of the poule table URL have different ETags and vary by Accept,
+     * so that a client holding the map-based table is not answered 304 Not Modified when it asks for CBOR.
+     */
+    @Test
+    void getPouleTable_OtherRepresentationETag_ReturnsRepresentation() throws Exception {
+        // Arrange
+        PouleService pouleService = mock(PouleService.class);
+        when(pouleService.getPouleTable(anyInt(), anyBoolean())).thenReturn(new PouleTableDTO());
+        when(pouleService.getPouleScores(anyInt())).thenReturn(List.of());
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new PouleController(pouleService, responseCache)).build();
+        String tableETag = mockMvc.perform(get("/api/v1/poule/get-poule-table/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        String cborETag = mockMvc.perform(get("/api/v1/poule/get-poule-table/1")
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                        .header(HttpHeaders.IF_NONE_MATCH, tableETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String scoresETag = mockMvc.perform(get("/api/v1/poule/get-poule-table/1")
+                        .header(HttpHeaders.ACCEPT, PouleScoresDTO.MEDIA_TYPE)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/v1/poule/get-poule-table/1")
+                        .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                        .header(HttpHeaders.IF_NONE_MATCH, cborETag))
+                .andExpect(status().isNotModified());
+        assertNotEquals(tableETag, cborETag);
+        assertNotEquals(cborETag, scoresETag);
+        verify(pouleService, times(1)).getPouleScores(1);
+    }
+}
@@ -0,0 +1,145 @@
+package cs203.ftms.overall;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cs203.ftms.overall.model.tournamentrelated.DirectEliminationMatch;
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Match;
+import cs203.ftms.overall.model.tournamentrelated.Poule;
+import cs203.ftms.overall.model.tournamentrelated.Tournament;
+import cs203.ftms.overall.repository.tournamentrelated.MatchRepository;
+import cs203.ftms.overall.repository.tournamentrelated.PouleRepository;
+import cs203.ftms.overall.security.config.SequenceSeeder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Tests the seeding of the ID sequences against an in-memory H2 database, with Hibernate using MySQL's dialect
+ * so that the sequences are backed by tables as they are on MySQL. The rows the tests insert with JDBC stand in
+ * for the rows of a database created when the IDs came from identity columns.
+ */
+@H2DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+    "spring.datasource.name=sequences",
+    "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SequenceSeederTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private PouleRepository pouleRepository;
+
+    private TransactionTemplate transactionTemplate;
+    private SequenceSeeder sequenceSeeder;
+
+    private Event event;
+
+    @BeforeAll
+    void createFixture() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        event = transactionTemplate.execute(status -> {
+            Tournament t = JpaFixtures.createTournament(entityManager, JpaFixtures.createOrganiser(entityManager),
+                    "Open", LocalDate.now().plusDays(28), LocalDate.now().plusDays(30));
+            return JpaFixtures.createEvent(entityManager, t, 4, t.getStartDate());
+        });
+    }
+
+    @BeforeEach
+    void setUp() {
+        sequenceSeeder = new SequenceSeeder(jdbcTemplate, entityManagerFactory);
+    }
+
+    /**
+     * Test case to verify that on a database whose matches already have IDs and whose sequence table was just
+     * created, the first match saved after seeding takes the ID after the largest existing one.
+     */
+    @Test
+    void seedAll_ExistingMatches_NewMatchTakesNextId() {
+        // Arrange
+        insertMatch(7);
+        insertMatch(120);
+        jdbcTemplate.update("update " + Match.ID_SEQUENCE + " set next_val = 1");
+
+        // Act
+        sequenceSeeder.seedAll();
+        Match match = transactionTemplate.execute(status -> matchRepository.save(new DirectEliminationMatch(event)));
+
+        // Assert
+        assertEquals(121, match.getId());
+    }
+
+    /**
+     * Test case to verify that on a database whose poules already have IDs and whose sequence table was just
+     * created, the first poule saved after seeding takes the ID after the largest existing one.
+     */
+    @Test
+    void seedAll_ExistingPoules_NewPouleTakesNextId() {
+        // Arrange
+        jdbcTemplate.update("insert into poule (id, poule_number, event_id) values (64, 1, ?)", event.getId());
+        jdbcTemplate.update("update " + Poule.ID_SEQUENCE + " set next_val = 1");
+
+        // Act
+        sequenceSeeder.seedAll();
+        Poule poule = transactionTemplate.execute(status -> pouleRepository.save(new Poule(2, event)));
+
+        // Assert
+        assertEquals(65, poule.getId());
+    }
+
+    /**
+     * Test case to verify that a sequence already past the existing IDs is not moved back.
+     */
+    @Test
+    void seed_SequenceAhead_LeavesIt() {
+        // Arrange
+        jdbcTemplate.update("update " + Match.ID_SEQUENCE + " set next_val = 5000");
+
+        // Act
+        int seeded = sequenceSeeder.seed(Match.ID_SEQUENCE, "fencing_match", Match.ID_ALLOCATION_SIZE);
+
+        // Assert
+        assertEquals(0, seeded);
+        assertEquals(5000, nextVal(Match.ID_SEQUENCE));
+    }
+
+    // Helper method to insert a match of the event with a given ID, as an identity column would have
+    private void insertMatch(int id) {
+        jdbcTemplate.update("insert into fencing_match (id, match_type, fencer1, fencer2, score1, score2, winner, event) "
+                + "values (?, 'M', 0, 0, 0, 0, 0, ?)", id, event.getId());
+    }
+
+    // Helper method to read the next value of a table-backed sequence
+    private long nextVal(String sequence) {
+        return jdbcTemplate.queryForObject("select next_val from " + sequence, Long.class);
+    }
+}
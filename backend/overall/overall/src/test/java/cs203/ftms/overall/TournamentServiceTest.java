@@ -18,15 +18,21 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import cs203.ftms.overall.dto.CreateTournamentDTO;
 import cs203.ftms.overall.dto.clean.CleanEventDTO;
 import cs203.ftms.overall.dto.clean.CleanTournamentDTO;
+import cs203.ftms.overall.dto.projection.EventFencerSummary;
+import cs203.ftms.overall.dto.projection.EventSummary;
+import cs203.ftms.overall.dto.projection.TournamentSummary;
 import cs203.ftms.overall.exception.EntityDoesNotExistException;
 import cs203.ftms.overall.exception.TournamentAlreadyStartedException;
 import cs203.ftms.overall.model.tournamentrelated.Event;
@@ -36,8 +42,10 @@ import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
 import cs203.ftms.overall.model.userrelated.Fencer;
 import cs203.ftms.overall.model.userrelated.Organiser;
 import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentFencerRepository;
 import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
 import cs203.ftms.overall.repository.userrelated.UserRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
 import cs203.ftms.overall.service.event.EventService;
 import cs203.ftms.overall.service.tournament.TournamentService;
 import cs203.ftms.overall.validation.OtherValidations;
@@ -89,6 +97,16 @@ public class TournamentServiceTest {
     @Mock
     private EventService eventService;
 
+    /**
+     * Mock repository for TournamentFencer entity operations.
+     * Supplies the fencer summaries used by the tournament listings.
+     */
+    @Mock
+    private TournamentFencerRepository tournamentFencerRepository;
+
+    @Mock
+    private ResponseCache responseCache;
+
     /**
      * Initializes all mock objects before each test execution.
      * Ensures a clean state for each test method.
@@ -707,13 +725,13 @@ public class TournamentServiceTest {
      * 
      * Verifies that:
      * - Only future tournaments are returned
-     * - Past tournaments are correctly filtered out
+     * - Past tournaments are filtered out by the repository query, not in memory
      * - Tournaments are considered upcoming based on start date
      * 
      * Test setup:
      * - Creates one past tournament (10 days ago)
      * - Creates one future tournament (10 days ahead)
-     * - Configures repository to return both tournaments
+     * - Configures the date-filtered repository query to return the future tournament
      * 
      * Expected behavior:
      * - Returns list containing only future tournament
@@ -731,8 +749,7 @@ public class TournamentServiceTest {
         futureTournament.setId(2);
         futureTournament.setStartDate(LocalDate.now().plusDays(10));
 
-        List<Tournament> tournaments = Arrays.asList(pastTournament, futureTournament);
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        when(tournamentRepository.findByStartDateAfter(LocalDate.now())).thenReturn(List.of(futureTournament));
 
         // Act
         List<Tournament> result = tournamentService.getUpcomingTournaments();
@@ -740,6 +757,7 @@ public class TournamentServiceTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(futureTournament.getId(), result.get(0).getId());
+        verify(tournamentRepository, never()).findAll();
     }
 
     /**
@@ -747,13 +765,13 @@ public class TournamentServiceTest {
      * 
      * Verifies that:
      * - Only past tournaments are returned
-     * - Future tournaments are correctly filtered out
+     * - Future tournaments are filtered out by the repository query, not in memory
      * - Tournaments are considered past based on start date
      * 
      * Test setup:
      * - Creates one past tournament (10 days ago)
      * - Creates one future tournament (10 days ahead)
-     * - Configures repository to return both tournaments
+     * - Configures the date-filtered repository query to return the past tournament
      * 
      * Expected behavior:
      * - Returns list containing only past tournament
@@ -771,8 +789,7 @@ public class TournamentServiceTest {
         futureTournament.setId(2);
         futureTournament.setStartDate(LocalDate.now().plusDays(10));
 
-        List<Tournament> tournaments = Arrays.asList(pastTournament, futureTournament);
-        when(tournamentRepository.findAll()).thenReturn(tournaments);
+        when(tournamentRepository.findByStartDateBefore(LocalDate.now())).thenReturn(List.of(pastTournament));
 
         // Act
         List<Tournament> result = tournamentService.getPastTournaments();
@@ -780,6 +797,62 @@ public class TournamentServiceTest {
         // Assert
         assertEquals(1, result.size());
         assertEquals(pastTournament.getId(), result.get(0).getId());
+        verify(tournamentRepository, never()).findAll();
+    }
+
+    /**
+     * Tests assembly of the tournament listing from projection queries.
+     * 
+     * Verifies that:
+     * - Events are attached to their tournament and fencers to their event
+     * - Tournaments without events get an empty event list
+     * - Exactly one query is made for events and one for fencers
+     * - No Tournament or Event entity is loaded
+     */
+    @Test
+    void getAllCleanTournamentDTOs_AssemblesFromSummaries() {
+        // Arrange
+        TournamentSummary t1 = mock(TournamentSummary.class);
+        when(t1.getId()).thenReturn(1);
+        when(t1.getName()).thenReturn("Open");
+        when(t1.getOrganiserName()).thenReturn("Organiser");
+        TournamentSummary t2 = mock(TournamentSummary.class);
+        when(t2.getId()).thenReturn(2);
+
+        EventSummary e1 = mock(EventSummary.class);
+        when(e1.getId()).thenReturn(10);
+        when(e1.getTournamentId()).thenReturn(1);
+        when(e1.getWeapon()).thenReturn('S');
+
+        EventFencerSummary f1 = mock(EventFencerSummary.class);
+        when(f1.getEventId()).thenReturn(10);
+        when(f1.getId()).thenReturn(100);
+        when(f1.getName()).thenReturn("Fencer");
+        EventFencerSummary f2 = mock(EventFencerSummary.class);
+        when(f2.getEventId()).thenReturn(10);
+        when(f2.getId()).thenReturn(101);
+
+        when(tournamentRepository.findAllSummaries(Pageable.unpaged())).thenReturn(List.of(t1, t2));
+        when(eventRepository.findSummariesByTournamentIds(List.of(1, 2))).thenReturn(List.of(e1));
+        when(tournamentFencerRepository.findFencerSummariesByEventIds(List.of(10))).thenReturn(List.of(f1, f2));
+
+        // Act
+        List<CleanTournamentDTO> result = tournamentService.getAllCleanTournamentDTOs(Pageable.unpaged());
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals("Open", result.get(0).getName());
+        assertEquals("Organiser", result.get(0).getOrganiserName());
+        assertEquals(1, result.get(0).getEvents().size());
+        CleanEventDTO event = result.get(0).getEvents().get(0);
+        assertEquals(10, event.getId());
+        assertEquals('S', event.getWeapon());
+        assertEquals(2, event.getFencers().size());
+        assertEquals("Fencer", event.getFencers().get(0).getName());
+        assertTrue(result.get(1).getEvents().isEmpty());
+        verify(eventRepository, times(1)).findSummariesByTournamentIds(any());
+        verify(tournamentFencerRepository, times(1)).findFencerSummariesByEventIds(any());
+        verify(tournamentRepository, never()).findAll();
     }
 
     /**
@@ -0,0 +1,125 @@
+package cs203.ftms.overall.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import cs203.ftms.overall.datastructure.BracketTree;
+import cs203.ftms.overall.model.tournamentrelated.DirectEliminationMatch;
+import cs203.ftms.overall.model.tournamentrelated.Match;
+
+/**
+ * Compares building a DE tableau with {@link BracketTree} against the list-backed max-heap it replaced.
+ * Each invocation creates every match of the tableau, assigns its round and next match,
+ * and then walks the first round, as DirectEliminationService does when seeding fencers.
+ *
+ * Run from an IDE through {@link #main}, or from the command line with:
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main BracketTreeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BracketTreeBenchmark {
+
+    @Param({"256", "512", "1024"})
+    private int fencers;
+
+    @Benchmark
+    public void bracketTree(Blackhole bh) {
+        BracketTree bracket = new BracketTree(fencers - 1);
+        for (int slot = 1; slot <= bracket.size(); slot++) {
+            DirectEliminationMatch dm = new DirectEliminationMatch();
+            dm.setRoundOf(bracket.roundOf(slot));
+            dm.setNextMatchId(bracket.getNextMatchId(slot));
+            dm.setId(slot);
+            bracket.setMatchId(slot, dm.getId());
+            bh.consume(dm);
+        }
+        int lastLevel = bracket.lastLevel();
+        for (int slot = bracket.levelStart(lastLevel); slot <= bracket.levelEnd(lastLevel); slot++) {
+            bh.consume(bracket.getMatchId(slot));
+        }
+    }
+
+    @Benchmark
+    public void customMatchHeap(Blackhole bh) {
+        LegacyMatchHeap heap = new LegacyMatchHeap();
+        for (int i = 0; i < fencers - 1; i++) {
+            Match match = heap.insert(new DirectEliminationMatch());
+            match.setId(i + 1);
+            bh.consume(match);
+        }
+        int lastLevel = (int) (Math.log(heap.size() + 1) / Math.log(2)) - 1;
+        for (Match match : heap.getLevel(lastLevel)) {
+            bh.consume(match.getId());
+        }
+    }
+
+    /**
+     * The insert and level lookup of the former datastructure.CustomMatchHeap, kept as the baseline.
+     */
+    private static class LegacyMatchHeap {
+        private final List<Match> heap = new ArrayList<>();
+
+        private int parent(int i) {
+            return (i - 1) / 2;
+        }
+
+        private void heapifyUp(int i) {
+            while (i != 0 && heap.get(parent(i)).getId() < heap.get(i).getId()) {
+                Collections.swap(heap, i, parent(i));
+                i = parent(i);
+            }
+        }
+
+        private int depth(int index) {
+            return (int) (Math.log(index + 1) / Math.log(2));
+        }
+
+        Match insert(Match match) {
+            heap.add(match);
+            int index = heap.size() - 1;
+            heapifyUp(index);
+            DirectEliminationMatch deMatch = (DirectEliminationMatch) match;
+            if (heap.size() > 1) {
+                deMatch.setNextMatchId(heap.get(parent(index)).getId());
+            }
+            deMatch.setRoundOf((int) Math.pow(2, depth(index) + 1));
+            return match;
+        }
+
+        int size() {
+            return heap.size();
+        }
+
+        List<Match> getLevel(int level) {
+            int levelStart = (int) Math.pow(2, level) - 1;
+            int levelEnd = Math.min((int) Math.pow(2, level + 1) - 2, heap.size() - 1);
+            return new ArrayList<>(heap.subList(levelStart, levelEnd + 1));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BracketTreeBenchmark.class.getSimpleName()).build()).run();
+    }
+}
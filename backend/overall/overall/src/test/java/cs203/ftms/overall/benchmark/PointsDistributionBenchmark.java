@@ -0,0 +1,87 @@
+package cs203.ftms.overall.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import cs203.ftms.overall.datastructure.PointsDistribution;
+
+/**
+ * Compares distributing an event's points with {@link PointsDistribution} against the per-rank
+ * sum of powers it replaced. Each invocation computes the points of every fencer earning points,
+ * as EventService.updateInternationalRank does when an event ends.
+ *
+ * Run from an IDE through {@link #main}, or from the command line with:
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main PointsDistributionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointsDistributionBenchmark {
+
+    @Param({"64", "256", "1024", "4096"})
+    private int fencers;
+
+    private int totalPoints;
+    private int awardedFencers;
+
+    @Setup
+    public void setUp() {
+        totalPoints = fencers * 200;
+        awardedFencers = (int) (fencers * 0.8);
+    }
+
+    @Benchmark
+    public void pointsDistribution(Blackhole bh) {
+        PointsDistribution distribution = new PointsDistribution(totalPoints, awardedFencers);
+        for (int rank = 0; rank < distribution.size(); rank++) {
+            bh.consume(distribution.pointsFor(rank));
+        }
+    }
+
+    @Benchmark
+    public void sumOfPowersPerRank(Blackhole bh) {
+        for (int rank = 0; rank < awardedFencers; rank++) {
+            bh.consume(legacyCalculatePoints(rank, totalPoints, awardedFencers));
+        }
+    }
+
+    /**
+     * The former EventService.calculatePoints, kept as the baseline.
+     */
+    private static int legacyCalculatePoints(int rank, int totalPoints, int totalFencers) {
+        double numerator = totalPoints * Math.pow(totalFencers - rank + 1, 2);
+        double denominator = sumOfPowers(totalFencers, 2);
+        return (int) (numerator / denominator);
+    }
+
+    private static double sumOfPowers(int n, int exponent) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += Math.pow(i, exponent);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PointsDistributionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
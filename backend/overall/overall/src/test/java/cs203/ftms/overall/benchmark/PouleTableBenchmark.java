@@ -0,0 +1,159 @@
+package cs203.ftms.overall.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Poule;
+import cs203.ftms.overall.model.tournamentrelated.PouleMatch;
+import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
+import cs203.ftms.overall.model.userrelated.Fencer;
+import cs203.ftms.overall.repository.cacherelated.CacheVersionRepository;
+import cs203.ftms.overall.repository.tournamentrelated.PouleRepository;
+import cs203.ftms.overall.service.cache.ResponseCache;
+import cs203.ftms.overall.service.event.EventService;
+import cs203.ftms.overall.service.match.PouleService;
+
+/**
+ * Compares building the poule table and the columnar poule scores of an event one poule at a time
+ * against converting the poules in parallel on a pool sized like the pouleExecutor bean.
+ * Every poule has 7 fencers and all 21 bouts scored, and the entities are already loaded,
+ * as they are once PouleService has pre-fetched them in the request's transaction.
+ *
+ * Run from an IDE through {@link #main}, or from the command line with:
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main PouleTableBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PouleTableBenchmark {
+
+    private static final int FENCERS_PER_POULE = 7;
+
+    @Param({"10", "40", "100"})
+    private int poules;
+
+    private ExecutorService pool;
+    private PouleService sequentialPouleService;
+    private PouleService parallelPouleService;
+
+    @Setup
+    public void setUp() {
+        Event event = new Event();
+        event.setId(1);
+        event.setGender('M');
+        event.setWeapon('S');
+        List<Poule> eventPoules = createPoules(event);
+
+        EventService eventService = new EventService(null, null, null, null, null, null, null, null, null) {
+            @Override
+            public Event getEvent(int id) {
+                return event;
+            }
+        };
+        PouleRepository pouleRepository = mock(PouleRepository.class);
+        when(pouleRepository.findByEvent(any())).thenAnswer(invocation -> new ArrayList<>(eventPoules));
+        ResponseCache responseCache = new ResponseCache(mock(CacheVersionRepository.class), 0);
+
+        pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        sequentialPouleService = new PouleService(null, eventService, null, pouleRepository, null, null, null,
+                responseCache, Runnable::run);
+        parallelPouleService = new PouleService(null, eventService, null, pouleRepository, null, null, null,
+                responseCache, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public void sequentialPouleTable(Blackhole bh) {
+        bh.consume(sequentialPouleService.getPouleTable(1, false));
+    }
+
+    @Benchmark
+    public void parallelPouleTable(Blackhole bh) {
+        bh.consume(parallelPouleService.getPouleTable(1, false));
+    }
+
+    @Benchmark
+    public void sequentialPouleScores(Blackhole bh) {
+        bh.consume(sequentialPouleService.getPouleScores(1));
+    }
+
+    @Benchmark
+    public void parallelPouleScores(Blackhole bh) {
+        bh.consume(parallelPouleService.getPouleScores(1));
+    }
+
+    private List<Poule> createPoules(Event event) {
+        List<Poule> res = new ArrayList<>();
+        int id = 1;
+        for (int p = 1; p <= poules; p++) {
+            Poule poule = new Poule(p, event);
+            poule.setId(p);
+            List<TournamentFencer> fencers = new ArrayList<>();
+            for (int i = 0; i < FENCERS_PER_POULE; i++) {
+                Fencer fencer = new Fencer("FENCER " + p + "-" + i, "fencer" + p + "-" + i + "@example.com", "password",
+                        "+6594949499", "Singapore", LocalDate.of(2000, 1, 1));
+                fencer.setPoints(1000 - i);
+                TournamentFencer tf = new TournamentFencer(fencer, event);
+                tf.setId(id++);
+                tf.setPoule(poule);
+                fencers.add(tf);
+            }
+            Set<PouleMatch> pouleMatches = new HashSet<>();
+            for (int i = 0; i < fencers.size(); i++) {
+                for (int j = i + 1; j < fencers.size(); j++) {
+                    PouleMatch pouleMatch = new PouleMatch(poule);
+                    pouleMatch.setId(id++);
+                    pouleMatch.setFencer1(fencers.get(i).getId());
+                    pouleMatch.setFencer2(fencers.get(j).getId());
+                    pouleMatch.setScore1(5);
+                    pouleMatch.setScore2((i + j) % 5);
+                    pouleMatches.add(pouleMatch);
+                }
+            }
+            poule.setFencers(new HashSet<>(fencers));
+            poule.setPouleMatches(pouleMatches);
+            res.add(poule);
+        }
+        return res;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PouleTableBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,185 @@
+package cs203.ftms.overall.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the throughput and latency of the public ranking and bracket endpoints of a running server
+ * under many concurrent clients. Each client sends its next request as soon as the previous one is answered,
+ * so the number of requests in flight stays at the number of clients. Clients are asynchronous, so a few
+ * thousand of them need only a handful of threads on the load generator.
+ *
+ * To compare the two execution modes, start the server once on platform threads and once on virtual threads,
+ * against the same database, and run the harness against each:
+ * mvn spring-boot:run
+ * VIRTUAL_THREADS=true mvn -Pjava21 spring-boot:run
+ *
+ * Then, from another shell:
+ * mvn test-compile
+ * java -cp target/test-classes cs203.ftms.overall.benchmark.PublicEndpointLoadHarness [baseUrl] [eventId] [clients] [seconds]
+ *
+ * The defaults are http://localhost:8080, event 1, 2000 clients and 30 seconds per endpoint, after a 5 second warmup.
+ * The responses are cached by ResponseCache until the event changes, so only the first request after a change
+ * reads the database; update a score during the run to include rebuilding them.
+ */
+public class PublicEndpointLoadHarness {
+
+    private static final int WARMUP_SECONDS = 5;
+
+    private final HttpClient client;
+    private final int clients;
+
+    public PublicEndpointLoadHarness(HttpClient client, int clients) {
+        this.client = client;
+        this.clients = clients;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int eventId = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        List<String> paths = List.of(
+                "/api/v1/event/get-event-ranking/" + eventId,
+                "/api/v1/direct-elimination/get-direct-elimination-matches/" + eventId);
+
+        ExecutorService callbacks = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(callbacks)
+                .build();
+        PublicEndpointLoadHarness harness = new PublicEndpointLoadHarness(client, clients);
+
+        System.out.printf("%-70s %9s %7s %10s %9s %9s %9s%n", "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "max ms");
+        for (String path : paths) {
+            URI uri = URI.create(baseUrl + path);
+            harness.run(uri, WARMUP_SECONDS);
+            Result result = harness.run(uri, seconds);
+            System.out.printf("%-70s %9d %7d %10.1f %9.1f %9.1f %9.1f%n", path, result.requests(), result.errors(),
+                    result.throughput(), result.percentile(0.50), result.percentile(0.99), result.percentile(1.0));
+        }
+        callbacks.shutdown();
+    }
+
+    /**
+     * Sends requests to an endpoint from every client for a number of seconds.
+     *
+     * @param uri the endpoint to load.
+     * @param seconds how long the clients keep sending requests.
+     * @return the latencies of the answered requests and the number of failed ones.
+     * @throws InterruptedException if interrupted while waiting for the clients to finish.
+     */
+    public Result run(URI uri, int seconds) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicInteger errors = new AtomicInteger();
+
+        Client[] running = new Client[clients];
+        CompletableFuture<?>[] done = new CompletableFuture<?>[clients];
+        for (int i = 0; i < clients; i++) {
+            running[i] = new Client(request, deadline, errors);
+            done[i] = running[i].start();
+        }
+        CompletableFuture.allOf(done).join();
+        long elapsed = System.nanoTime() - start;
+
+        int requests = 0;
+        for (Client c : running) {
+            requests += c.count;
+        }
+        long[] latencies = new long[requests];
+        int next = 0;
+        for (Client c : running) {
+            System.arraycopy(c.latencies, 0, latencies, next, c.count);
+            next += c.count;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors.get(), elapsed);
+    }
+
+    /**
+     * One client, sending its requests one after another until the deadline.
+     * Its callbacks run one at a time, so the latencies need no synchronisation.
+     */
+    private class Client {
+        private final HttpRequest request;
+        private final long deadline;
+        private final AtomicInteger errors;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private long[] latencies = new long[64];
+        private int count;
+
+        Client(HttpRequest request, long deadline, AtomicInteger errors) {
+            this.request = request;
+            this.deadline = deadline;
+            this.errors = errors;
+        }
+
+        CompletableFuture<Void> start() {
+            send();
+            return done;
+        }
+
+        private void send() {
+            if (System.nanoTime() >= deadline) {
+                done.complete(null);
+                return;
+            }
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, e) -> {
+                if (e != null || response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                } else {
+                    record(System.nanoTime() - sent);
+                }
+                send();
+            });
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+    }
+
+    /**
+     * The outcome of a run.
+     *
+     * @param latencies the sorted latencies of the answered requests, in nanoseconds.
+     * @param errors the number of requests that failed or were not answered with 200 OK.
+     * @param elapsedNanos how long the run took, until the last client's last request was answered.
+     */
+    public record Result(long[] latencies, int errors, long elapsedNanos) {
+
+        public int requests() {
+            return latencies.length;
+        }
+
+        public double throughput() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+
+        public double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
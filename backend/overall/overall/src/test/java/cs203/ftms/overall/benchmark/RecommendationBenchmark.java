@@ -0,0 +1,190 @@
+package cs203.ftms.overall.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cs203.ftms.overall.model.tournamentrelated.Event;
+import cs203.ftms.overall.model.tournamentrelated.Tournament;
+import cs203.ftms.overall.model.tournamentrelated.TournamentFencer;
+import cs203.ftms.overall.model.userrelated.Fencer;
+import cs203.ftms.overall.model.userrelated.Organiser;
+import cs203.ftms.overall.repository.tournamentrelated.EventRepository;
+import cs203.ftms.overall.repository.tournamentrelated.TournamentRepository;
+import cs203.ftms.overall.service.cache.EventSnapshotCache;
+import cs203.ftms.overall.service.chatbot.ChatbotService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares recommending tournaments to a fencer by loading every tournament and filtering them in memory,
+ * as getRecommendedTournaments used to, against querying the indexed candidate events first.
+ * The database holds the given number of past tournaments, each with a men's sabre and a women's foil event
+ * with a few registrants, and 20 upcoming tournaments; the fencer is an experienced men's sabreur.
+ * Each invocation runs in its own transaction with an empty snapshot cache, as a first request would.
+ *
+ * Run from an IDE through {@link #main}, or from the command line with:
+ * mvn test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=cp.txt
+ * java -cp target/test-classes:target/classes:$(cat cp.txt) org.openjdk.jmh.Main RecommendationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    private static final int UPCOMING_TOURNAMENTS = 20;
+    private static final int FENCERS = 30;
+    private static final int REGISTRANTS_PER_EVENT = 3;
+    private static final char[] DIFFICULTIES = {'B', 'I', 'A'};
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan({"cs203.ftms.overall.model", "cs203.ftms.overall.security.model"})
+    @EnableJpaRepositories({"cs203.ftms.overall.repository", "cs203.ftms.overall.security.repository"})
+    static class JpaConfig {
+    }
+
+    @Param({"1000", "10000"})
+    private int tournaments;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private TournamentRepository tournamentRepository;
+    private EventRepository eventRepository;
+    private Fencer fencer;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(JpaConfig.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:recommendation;MODE=MySQL;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN");
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        tournamentRepository = context.getBean(TournamentRepository.class);
+        eventRepository = context.getBean(EventRepository.class);
+        transactionTemplate.executeWithoutResult(status -> createFixture(context.getBean(EntityManager.class)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Tournament> legacyFindAll() {
+        ChatbotService chatbotService = new ChatbotService(eventRepository, new EventSnapshotCache(60000, 100));
+        return transactionTemplate.execute(status -> legacyRecommendedTournaments(chatbotService, fencer));
+    }
+
+    @Benchmark
+    public List<Tournament> indexedCandidates() {
+        ChatbotService chatbotService = new ChatbotService(eventRepository, new EventSnapshotCache(60000, 100));
+        return transactionTemplate.execute(status -> chatbotService.getRecommendedTournaments(fencer));
+    }
+
+    // Helper method to recommend tournaments as getRecommendedTournaments did before the candidate query
+    private List<Tournament> legacyRecommendedTournaments(ChatbotService chatbotService, Fencer f) {
+        int experience = LocalDate.now().getYear() - f.getDebutYear();
+        return tournamentRepository.findAll().stream()
+                .filter(t -> experience > 5 || (experience > 3 ? t.getDifficulty() != 'A' : t.getDifficulty() == 'B'))
+                .filter(t -> t.getEvents().stream().anyMatch(e -> {
+                    if (chatbotService.calculateWinrate(e.getId(), f) == 3) {
+                        return t.getDifficulty() == 'B';
+                    }
+                    return e.getGender() == f.getGender() && e.getWeapon() == f.getWeapon();
+                }))
+                .collect(Collectors.toList());
+    }
+
+    // Helper method to create the past and upcoming tournaments, their events and registrants
+    private void createFixture(EntityManager entityManager) {
+        Organiser organiser = new Organiser("Organiser One", "organiser.one@example.com", "password", "+6599999999",
+                "Singapore");
+        entityManager.persist(organiser);
+
+        List<Fencer> fencers = new ArrayList<>();
+        for (int i = 0; i < FENCERS; i++) {
+            Fencer f = new Fencer("FENCER " + i, "fencer" + i + "@example.com", "password", "+6594949499",
+                    "Singapore", LocalDate.of(2000, 1, 1));
+            f.setWeapon('S');
+            f.setGender('M');
+            f.setDominantArm('R');
+            f.setDebutYear(2010);
+            f.setPoints(10 * i);
+            entityManager.persist(f);
+            fencers.add(f);
+        }
+        fencer = fencers.get(FENCERS / 2);
+
+        int total = tournaments + UPCOMING_TOURNAMENTS;
+        for (int i = 0; i < total; i++) {
+            LocalDate startDate = i < tournaments
+                    ? LocalDate.now().minusDays(total - i)
+                    : LocalDate.now().plusDays(i - tournaments + 1);
+            Tournament t = new Tournament("Open " + i, organiser, startDate.minusDays(2), 60, startDate,
+                    startDate.plusDays(1), "Singapore", "description", "rules", DIFFICULTIES[i % DIFFICULTIES.length]);
+            t.setEvents(new HashSet<>());
+            entityManager.persist(t);
+            createEvent(entityManager, t, 'M', 'S', fencers, i);
+            createEvent(entityManager, t, 'W', 'F', fencers, i + 1);
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                organiser = entityManager.merge(organiser);
+                fencers.replaceAll(entityManager::merge);
+            }
+        }
+    }
+
+    // Helper method to create an event of a tournament with a few registrants, starting from the given fencer
+    private void createEvent(EntityManager entityManager, Tournament t, char gender, char weapon, List<Fencer> fencers,
+            int first) {
+        Event e = new Event(t, gender, weapon, 4, t.getStartDate(), LocalTime.of(9, 0), LocalTime.of(18, 0));
+        entityManager.persist(e);
+        for (int i = 0; i < REGISTRANTS_PER_EVENT; i++) {
+            entityManager.persist(new TournamentFencer(fencers.get((first + i) % FENCERS), e));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RecommendationBenchmark.class.getSimpleName()).build()).run();
+    }
+}